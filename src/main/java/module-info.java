@@ -4,9 +4,16 @@ module org.freedom.cleanprocess {
     requires static lombok;
     requires org.apache.logging.log4j;
     requires jdk.compiler;
+    requires jdk.attach;
+    requires jdk.httpserver;
+    requires java.management;
+    requires java.management.rmi;
+    requires jdk.management;
+    requires jdk.jfr;
+    requires jdk.management.jfr;
     requires com.google.gson;
     requires org.json;
-    opens org.freedom.cleanprocess.entiy to javafx.base; // 允许 javafx.base 反射访问
+    opens org.freedom.cleanprocess.entiy to javafx.base, com.google.gson; // 允许 javafx.base 与 Gson 反射访问
     exports org.freedom.cleanprocess.entiy; // 导出包以供其他模块使用（如果需要）
 
     opens org.freedom.cleanprocess to javafx.fxml;
@@ -17,6 +24,8 @@ module org.freedom.cleanprocess {
     opens org.freedom.cleanprocess.action.tools to javafx.fxml;
     exports org.freedom.cleanprocess.component;
     opens org.freedom.cleanprocess.component to javafx.fxml;
+    exports org.freedom.cleanprocess.service;
+    exports org.freedom.cleanprocess.cli;
     exports org.freedom.cleanprocess.util;
     opens org.freedom.cleanprocess.util to javafx.fxml;
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package org.freedom.cleanprocess;
+
+import javafx.application.Application;
+import org.freedom.cleanprocess.cli.HeadlessApp;
+
+import java.util.Arrays;
+
+/**
+ * @description: JAR 的启动类。主类如果继承 Application，java 启动器会在 main 执行前先检查并启动 JavaFX，
+ * 无图形环境的服务器上 --headless 根本走不到；本类不继承 Application，按参数分发到 headless 模式或图形界面
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class Launcher {
+    private Launcher() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // headless 模式不启动 JavaFX 工具包
+        if (Arrays.asList(args).contains("--headless")) {
+            HeadlessApp.main(args);
+            return;
+        }
+        Application.launch(ProcessApp.class, args);
+    }
+}
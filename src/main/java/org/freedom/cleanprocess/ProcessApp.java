@@ -40,7 +40,10 @@ public class ProcessApp extends Application {
         stage.show();
     }
 
+    /**
+     * 只启动图形界面；headless 模式请使用 {@link Launcher}
+     */
     public static void main (String[] args) {
-        launch();
+        launch(args);
     }
 }
\ No newline at end of file
@@ -0,0 +1,233 @@
+package org.freedom.cleanprocess.action;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextField;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.service.ClassHistogram;
+import org.freedom.cleanprocess.service.ClassHistogramDiff;
+import org.freedom.cleanprocess.service.ClassHistogramService;
+
+import java.net.URL;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.LongFunction;
+
+/**
+ * @description: 类直方图窗口控制器，表格行只保存差异结果中的行号，单元格按需从基本类型数组取值
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ClassHistogramController implements Initializable {
+    private static final Logger logger = LogManager.getLogger(ClassHistogramController.class);
+
+    private static final String SORT_RETAINED = "占用字节";
+    private static final String SORT_BYTES = "字节增长";
+    private static final String SORT_INSTANCES = "实例增长";
+    private static final String NO_BASELINE = "不对比";
+
+    @FXML
+    private Label titleLabel;
+
+    @FXML
+    private Label statusLabel;
+
+    @FXML
+    private Button captureButton;
+
+    @FXML
+    private CheckBox allObjectsCheckBox;
+
+    @FXML
+    private ComboBox<String> baselineComboBox;
+
+    @FXML
+    private ComboBox<String> sortComboBox;
+
+    @FXML
+    private TextField filterField;
+
+    @FXML
+    private TableView<Integer> histogramTableView;
+
+    @FXML
+    private TableColumn<Integer, Number> rankColumn;
+
+    @FXML
+    private TableColumn<Integer, String> classNameColumn;
+
+    @FXML
+    private TableColumn<Integer, Number> instancesColumn;
+
+    @FXML
+    private TableColumn<Integer, Number> bytesColumn;
+
+    @FXML
+    private TableColumn<Integer, Number> instancesDeltaColumn;
+
+    @FXML
+    private TableColumn<Integer, Number> bytesDeltaColumn;
+
+    private final ClassHistogramService classHistogramService = new ClassHistogramService();
+
+    /**
+     * 已采集的快照，按采集顺序排列
+     */
+    private final List<ClassHistogram> snapshots = new ArrayList<>();
+
+    private ClassHistogramDiff diff;
+
+    private ProcessInfo processInfo;
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        sortComboBox.getItems().setAll(SORT_RETAINED, SORT_BYTES, SORT_INSTANCES);
+        sortComboBox.setValue(SORT_RETAINED);
+        baselineComboBox.getItems().setAll(NO_BASELINE);
+        baselineComboBox.setValue(NO_BASELINE);
+
+        // 序号直接取单元格所在行，不在 5 万行的列表里查找
+        rankColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue()));
+        rankColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty ? null : String.valueOf(getIndex() + 1));
+            }
+        });
+        classNameColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(diff.className(cellData.getValue())));
+        instancesColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(diff.instances(cellData.getValue())));
+        instancesColumn.setCellFactory(column -> formattedCell(value -> String.format("%,d", value)));
+        bytesColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(diff.bytes(cellData.getValue())));
+        bytesColumn.setCellFactory(column -> formattedCell(ClassHistogramController::formatBytes));
+        instancesDeltaColumn.setCellValueFactory(cellData ->
+                new ReadOnlyObjectWrapper<>(diff.instancesDelta(cellData.getValue())));
+        instancesDeltaColumn.setCellFactory(column -> formattedCell(value -> String.format("%+,d", value)));
+        bytesDeltaColumn.setCellValueFactory(cellData ->
+                new ReadOnlyObjectWrapper<>(diff.bytesDelta(cellData.getValue())));
+        bytesDeltaColumn.setCellFactory(column -> formattedCell(value ->
+                (value > 0 ? "+" : value < 0 ? "-" : "") + formatBytes(Math.abs(value))));
+    }
+
+    /**
+     * 设置分析目标并立即采集第一份快照
+     */
+    public void setTarget(ProcessInfo processInfo) {
+        this.processInfo = processInfo;
+        titleLabel.setText("类直方图 - " + processInfo.getName() + " (PID: " + processInfo.getPid() + ")");
+        handleCaptureClick();
+    }
+
+    @FXML
+    public void handleCaptureClick() {
+        if (processInfo == null) {
+            return;
+        }
+        long pid = processInfo.getPid();
+        boolean all = allObjectsCheckBox.isSelected();
+        captureButton.setDisable(true);
+        statusLabel.setText("正在采集类直方图...");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return classHistogramService.capture(pid, all);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((histogram, e) -> Platform.runLater(() -> {
+            captureButton.setDisable(false);
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                logger.error("采集类直方图失败, pid = {}", pid, cause);
+                statusLabel.setText("采集失败: " + cause.getMessage());
+                return;
+            }
+            snapshots.add(histogram);
+            String label = label(snapshots.size() - 1);
+            baselineComboBox.getItems().add(label);
+            // 第二份快照起默认与第一份对比
+            if (snapshots.size() == 2) {
+                baselineComboBox.setValue(label(0));
+                sortComboBox.setValue(SORT_BYTES);
+            }
+            handleViewChange();
+        }));
+    }
+
+    /**
+     * 基准、排序方式或过滤条件变化时重新计算表格内容
+     */
+    @FXML
+    public void handleViewChange() {
+        if (snapshots.isEmpty() || baselineComboBox.getValue() == null || sortComboBox.getValue() == null) {
+            return;
+        }
+        ClassHistogram latest = snapshots.get(snapshots.size() - 1);
+        int baselineIndex = baselineComboBox.getItems().indexOf(baselineComboBox.getValue()) - 1;
+        ClassHistogram baseline = baselineIndex >= 0 && baselineIndex < snapshots.size() - 1
+                ? snapshots.get(baselineIndex) : null;
+        diff = baseline == null ? ClassHistogramDiff.of(latest) : ClassHistogramDiff.between(baseline, latest);
+
+        int[] order;
+        switch (sortComboBox.getValue()) {
+            case SORT_BYTES:
+                order = diff.topByBytes();
+                break;
+            case SORT_INSTANCES:
+                order = diff.topByInstances();
+                break;
+            default:
+                order = diff.topByRetainedBytes();
+                break;
+        }
+        String filter = filterField.getText() == null ? "" : filterField.getText().trim().toLowerCase(Locale.ROOT);
+        List<Integer> rows = new ArrayList<>(order.length);
+        for (int index : order) {
+            if (filter.isEmpty() || diff.className(index).toLowerCase(Locale.ROOT).contains(filter)) {
+                rows.add(index);
+            }
+        }
+        histogramTableView.getItems().setAll(rows);
+        statusLabel.setText(String.format("快照 %d 份，最新快照 %,d 个类，共 %s / %,d 个实例%s",
+                snapshots.size(), latest.size(), formatBytes(latest.getTotalBytes()), latest.getTotalInstances(),
+                baseline == null ? "" : "，对比基准 " + baselineComboBox.getValue()));
+    }
+
+    private String label(int index) {
+        return "#" + (index + 1) + " " + new SimpleDateFormat("HH:mm:ss").format(new Date(snapshots.get(index).getTimestamp()));
+    }
+
+    private static TableCell<Integer, Number> formattedCell(LongFunction<String> formatter) {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : formatter.apply(item.longValue()));
+            }
+        };
+    }
+
+    private static String formatBytes(long bytes) {
+        if (bytes >= 1024 * 1024) {
+            return String.format("%.1f MB", bytes / 1024.0 / 1024.0);
+        }
+        return bytes >= 1024 ? String.format("%.1f KB", bytes / 1024.0) : bytes + " B";
+    }
+}
@@ -1,6 +1,14 @@
 package org.freedom.cleanprocess.action;
 
-import javafx.beans.property.SimpleStringProperty;
+import javafx.application.Platform;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.value.ChangeListener;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.event.ActionEvent;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
@@ -9,21 +17,51 @@ import javafx.scene.Scene;
 import javafx.scene.control.*;
 import javafx.scene.layout.HBox;
 import javafx.stage.Stage;
+import javafx.stage.Window;
 import javafx.util.Callback;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.freedom.cleanprocess.ProcessApp;
 import org.freedom.cleanprocess.component.NotificationUtil;
+import org.freedom.cleanprocess.component.ProcessTableReconciler;
+import org.freedom.cleanprocess.component.SparklineTableCell;
+import org.freedom.cleanprocess.entiy.JvmInfo;
 import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.entiy.ProcessRule;
+import org.freedom.cleanprocess.entiy.WatchdogPolicy;
+import org.freedom.cleanprocess.service.JsonListStore;
+import org.freedom.cleanprocess.service.JvmInfoCache;
+import org.freedom.cleanprocess.service.MetricArchive;
+import org.freedom.cleanprocess.service.MetricHistory;
+import org.freedom.cleanprocess.service.MetricHistoryStore;
+import org.freedom.cleanprocess.service.MetricsExporter;
+import org.freedom.cleanprocess.service.PerfDataReader;
+import org.freedom.cleanprocess.service.ProcessCollector;
+import org.freedom.cleanprocess.service.ProcessDiscovery;
+import org.freedom.cleanprocess.service.ProcessFilter;
+import org.freedom.cleanprocess.service.ProcessRuleStore;
+import org.freedom.cleanprocess.service.ProcessMonitor;
+import org.freedom.cleanprocess.service.ProcessTerminator;
+import org.freedom.cleanprocess.service.TerminationResult;
+import org.freedom.cleanprocess.service.WatchdogEngine;
+import org.freedom.cleanprocess.service.WatchdogPolicyStore;
 import org.freedom.cleanprocess.util.SceneUtil;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
 import java.net.URL;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
 public class IndexController implements Initializable {
     private static final Logger logger = LogManager.getLogger(IndexController.class);
 
@@ -34,10 +72,37 @@ public class IndexController implements Initializable {
     private TableColumn<ProcessInfo, String> processNameColumn;
 
     @FXML
-    private TableColumn<ProcessInfo, String> processIdColumn;
+    private TableColumn<ProcessInfo, Number> processIdColumn;
 
     @FXML
-    private TableColumn<ProcessInfo, String> processMemoryColumn;
+    private TableColumn<ProcessInfo, Number> processMemoryColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processTrendColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processRssColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processCpuColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processThreadsColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processYoungGcColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processFullGcColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processGcTimeColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processAllocRateColumn;
+
+    @FXML
+    private TableColumn<ProcessInfo, Number> processPromoRateColumn;
 
     @FXML
     private TableColumn<ProcessInfo, String> processProcessTypeColumn;
@@ -54,126 +119,412 @@ public class IndexController implements Initializable {
     @FXML
     private Label processCountLabel;
 
+    @FXML
+    private TextField killPatternField;
+
+    @FXML
+    private Button killSelectedButton;
+
+    @FXML
+    private Button killMatchingButton;
+
+    @FXML
+    private CheckBox killNonJavaCheckBox;
+
+    @FXML
+    private ToggleButton liveToggleButton;
+
+    @FXML
+    private ComboBox<String> intervalComboBox;
+
+    @FXML
+    private TextField searchField;
+
+    private final PerfDataReader perfDataReader = new PerfDataReader();
+
+    private final JvmInfoCache jvmInfoCache = new JvmInfoCache(perfDataReader);
+
+    private final ProcessCollector processCollector =
+            new ProcessCollector(ProcessDiscovery.defaultDiscovery(), perfDataReader, jvmInfoCache);
+
+    private final ProcessMonitor processMonitor = new ProcessMonitor(processCollector);
+
+    /**
+     * 窗口最小化时暂停采样，页面切换掉时必须从 Stage 上移除，否则 Stage 会一直引用本控制器
+     */
+    private final ChangeListener<Boolean> iconifiedListener = (obs, oldValue, iconified) ->
+            processMonitor.setPaused(iconified);
+
+    private Stage boundStage;
+
+    private final MetricHistoryStore metricHistoryStore = new MetricHistoryStore();
+
+    /**
+     * 每记录一次历史加一，趋势图单元格据此重绘
+     */
+    private final LongProperty historyRevision = new SimpleLongProperty();
+
+    private final ProcessTerminator processTerminator = new ProcessTerminator();
+
+    private final ProcessRuleStore processRuleStore = new ProcessRuleStore();
+
+    private final WatchdogPolicyStore watchdogPolicyStore = new WatchdogPolicyStore();
+
+    /**
+     * 看门狗在采样线程上逐个快照评估，触发后切回 JavaFX 线程执行动作
+     */
+    private final WatchdogEngine watchdogEngine = new WatchdogEngine();
+
+    /**
+     * 全部进程，采样结果在这里原地合并；表格展示的是经过搜索过滤和排序后的视图
+     */
+    private final ObservableList<ProcessInfo> processList = FXCollections.observableArrayList();
+
+    private final FilteredList<ProcessInfo> filteredProcesses = new FilteredList<>(processList);
+
+    private final SortedList<ProcessInfo> sortedProcesses = new SortedList<>(filteredProcesses);
+
+    /**
+     * 指标导出端点，整个应用只启动一次，未配置 cleanprocess.metrics.port 时为 null
+     */
+    private static final MetricsExporter METRICS_EXPORTER = MetricsExporter.fromSystemProperty();
+
+    /**
+     * 指标历史持久化，整个应用只打开一次，cleanprocess.metrics.archive=false 时为 null
+     */
+    private static final MetricArchive METRIC_ARCHIVE = MetricArchive.fromSystemProperty();
+
+    /**
+     * 等待刷新到表格的最新快照，UI 处理不过来时只保留最后一次采样
+     */
+    private final AtomicReference<List<ProcessInfo>> pendingSnapshot = new AtomicReference<>();
+
+    /**
+     * 采样间隔选项（毫秒）
+     */
+    private static final Map<String, Long> INTERVALS = new LinkedHashMap<>();
+
+    static {
+        INTERVALS.put("250 毫秒", 250L);
+        INTERVALS.put("500 毫秒", 500L);
+        INTERVALS.put("1 秒", 1000L);
+        INTERVALS.put("2 秒", 2000L);
+        INTERVALS.put("5 秒", 5000L);
+        INTERVALS.put("10 秒", 10_000L);
+    }
+
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         processTableView.setColumnResizePolicy(TableView.CONSTRAINED_RESIZE_POLICY);
+        processTableView.setItems(sortedProcesses);
+        // 行数据原地更新不会触发 SortedList 重排，每次排序都换一个新的比较器实例强制重排
+        processTableView.setSortPolicy(table -> {
+            Comparator<ProcessInfo> comparator = table.getComparator();
+            sortedProcesses.setComparator(comparator == null ? null : comparator::compare);
+            return true;
+        });
+        searchField.textProperty().addListener((obs, oldValue, text) -> applySearch(text));
+        processCollector.setFilter(processRuleStore.loadFilter());
+        watchdogPolicyStore.loadInto(watchdogEngine);
+        watchdogEngine.addListener(event -> Platform.runLater(() -> handleWatchdogEvent(event)));
+        processTableView.getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
 
-        // 自定义 CellValueFactory
-        processNameColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getName()));
-        processIdColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getPid()));
-        processMemoryColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getMemory()));
-        processProcessTypeColumn.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getProcessType()));
-        processJvmParam.setCellValueFactory(cellData ->
-                new SimpleStringProperty(cellData.getValue().getJvm()));
+        // 直接绑定实体属性，渲染时不再创建新的属性对象，数值列按数值排序
+        processNameColumn.setCellValueFactory(cellData -> cellData.getValue().nameProperty());
+        processIdColumn.setCellValueFactory(cellData -> cellData.getValue().pidProperty());
+        processMemoryColumn.setCellValueFactory(cellData -> cellData.getValue().memoryProperty());
+        processMemoryColumn.setCellFactory(numberCellFactory(IndexController::formatMegabytes));
+        processTrendColumn.setCellValueFactory(cellData -> cellData.getValue().memoryProperty());
+        processTrendColumn.setCellFactory(column -> new SparklineTableCell(metricHistoryStore, MetricHistory.MEMORY,
+                historyRevision));
+        processRssColumn.setCellValueFactory(cellData -> cellData.getValue().rssProperty());
+        processRssColumn.setCellFactory(numberCellFactory(IndexController::formatMegabytes));
+        processCpuColumn.setCellValueFactory(cellData -> cellData.getValue().cpuProperty());
+        processCpuColumn.setCellFactory(numberCellFactory(value -> String.format("%.1f", value.doubleValue())));
+        processThreadsColumn.setCellValueFactory(cellData -> cellData.getValue().threadsProperty());
+        processThreadsColumn.setCellFactory(numberCellFactory(value ->
+                value.intValue() > 0 ? String.valueOf(value.intValue()) : ""));
+        processYoungGcColumn.setCellValueFactory(cellData -> cellData.getValue().youngGcRateProperty());
+        processYoungGcColumn.setCellFactory(numberCellFactory(IndexController::formatRate));
+        processFullGcColumn.setCellValueFactory(cellData -> cellData.getValue().fullGcRateProperty());
+        processFullGcColumn.setCellFactory(numberCellFactory(IndexController::formatRate));
+        processGcTimeColumn.setCellValueFactory(cellData -> cellData.getValue().gcTimePercentProperty());
+        processGcTimeColumn.setCellFactory(numberCellFactory(IndexController::formatRate));
+        processAllocRateColumn.setCellValueFactory(cellData -> cellData.getValue().allocationRateProperty());
+        processAllocRateColumn.setCellFactory(numberCellFactory(IndexController::formatMegabytesPerSecond));
+        processPromoRateColumn.setCellValueFactory(cellData -> cellData.getValue().promotionRateProperty());
+        processPromoRateColumn.setCellFactory(numberCellFactory(IndexController::formatMegabytesPerSecond));
+        processProcessTypeColumn.setCellValueFactory(cellData -> cellData.getValue().processTypeProperty());
+        processJvmParam.setCellValueFactory(cellData -> cellData.getValue().jvmProperty());
+        processJvmParam.setCellFactory(column -> new JvmInfoTableCell());
         actionColumn.setCellFactory(getButtonCellFactory());
+        processTableView.setContextMenu(buildContextMenu());
+        intervalComboBox.getItems().setAll(INTERVALS.keySet());
+        intervalComboBox.setValue("1 秒");
+        processMonitor.addListener(this::publish);
+        processTableView.sceneProperty().addListener((obs, oldScene, newScene) -> {
+            if (newScene != null) {
+                newScene.windowProperty().addListener((o, oldWindow, newWindow) -> bindWindow(newWindow));
+            }
+        });
+        updateProcessCount();
         loadProcessInfo();
+    }
+
+    /**
+     * 窗口最小化时暂停实时采样；页面被切换掉时停止采样线程
+     */
+    private void bindWindow(Window window) {
+        if (boundStage != null) {
+            boundStage.iconifiedProperty().removeListener(iconifiedListener);
+            boundStage = null;
+        }
+        if (window == null) {
+            processMonitor.shutdown();
+            processCollector.close();
+            return;
+        }
+        if (window instanceof Stage) {
+            boundStage = (Stage) window;
+            boundStage.iconifiedProperty().addListener(iconifiedListener);
+        }
+    }
+
+    /**
+     * 在后台采集进程信息，完成后一次性刷新表格；经由 ProcessMonitor 执行，实时监控开启时与定时采样共用同一次采集
+     */
+    private CompletableFuture<List<ProcessInfo>> loadProcessInfo() {
+        return processMonitor.refresh();
+    }
+
+    /**
+     * 提交采样结果，同一时间最多只有一个待执行的 UI 刷新任务
+     */
+    private void publish(List<ProcessInfo> processes) {
+        if (METRICS_EXPORTER != null) {
+            METRICS_EXPORTER.accept(processes);
+        }
+        if (METRIC_ARCHIVE != null) {
+            METRIC_ARCHIVE.accept(processes);
+        }
+        watchdogEngine.accept(processes);
+        if (pendingSnapshot.getAndSet(processes) == null) {
+            Platform.runLater(this::applyPendingSnapshot);
+        }
+    }
+
+    private void applyPendingSnapshot() {
+        List<ProcessInfo> processes = pendingSnapshot.getAndSet(null);
+        if (processes == null) {
+            return;
+        }
+        // 先记录历史，属性变化触发单元格重绘时能看到最新的趋势数据
+        metricHistoryStore.record(processes, System.currentTimeMillis());
+        int changes = ProcessTableReconciler.reconcile(processList, processes);
+        if (changes > 0 && !processTableView.getSortOrder().isEmpty()) {
+            processTableView.sort();
+        }
+        historyRevision.set(historyRevision.get() + 1);
         updateProcessCount();
     }
 
-    private void loadProcessInfo() {
+    /**
+     * 按名称、PID、主类或命令行搜索，只影响表格展示，不影响采样
+     */
+    private void applySearch(String text) {
+        String keyword = text == null ? "" : text.trim().toLowerCase(Locale.ROOT);
+        if (keyword.isEmpty()) {
+            filteredProcesses.setPredicate(null);
+        } else {
+            filteredProcesses.setPredicate(processInfo -> String.valueOf(processInfo.getPid()).contains(keyword)
+                    || containsIgnoreCase(processInfo.getName(), keyword)
+                    || containsIgnoreCase(processInfo.getMainClass(), keyword)
+                    || containsIgnoreCase(processInfo.getCommand(), keyword));
+        }
+        updateProcessCount();
+    }
+
+    private static boolean containsIgnoreCase(String value, String keyword) {
+        return value != null && value.toLowerCase(Locale.ROOT).contains(keyword);
+    }
+
+    /**
+     * 编辑过滤规则，保存后立即重新采集
+     */
+    @FXML
+    public void handleRulesClick() {
+        Stage stage = (Stage) processTableView.getScene().getWindow();
+        List<ProcessRule> rules = editJsonList(stage, processRuleStore, processRuleStore.load(),
+                "action 为 INCLUDE 或 EXCLUDE；mainClass、args、user 为正则；processType 为 Java 或 Native；\n"
+                        + "minMemoryMb / maxMemoryMb 按常驻内存过滤。被排除的进程不会被采样。");
+        if (rules == null) {
+            return;
+        }
+        processCollector.setFilter(ProcessFilter.compile(rules));
+        loadProcessInfo();
+        NotificationUtil.showSuccess(stage, "过滤规则已保存");
+    }
+
+    /**
+     * 在对话框中编辑 JSON 列表：确定时解析并校验，校验失败时阻止对话框关闭；通过后保存到文件。
+     * 返回保存后的列表，取消或保存失败时返回 null
+     */
+    private <T> List<T> editJsonList(Stage stage, JsonListStore<T> store, List<T> initial, String headerText) {
+        TextArea editor = new TextArea(store.toJson(initial));
+        editor.setPrefSize(640, 420);
+        editor.setStyle("-fx-font-family: 'Consolas', 'Monaco', monospace; -fx-font-size: 12px;");
+        Dialog<ButtonType> dialog = new Dialog<>();
+        dialog.initOwner(stage);
+        dialog.setTitle(store.getDescription());
+        dialog.setHeaderText(headerText);
+        dialog.getDialogPane().setContent(editor);
+        dialog.getDialogPane().getButtonTypes().addAll(ButtonType.OK, ButtonType.CANCEL);
+        List<List<T>> parsed = new ArrayList<>(1);
+        dialog.getDialogPane().lookupButton(ButtonType.OK).addEventFilter(ActionEvent.ACTION, event -> {
+            try {
+                parsed.add(store.parse(editor.getText()));
+            } catch (IllegalArgumentException e) {
+                NotificationUtil.showError(stage, e.getMessage());
+                event.consume();
+            }
+        });
+        if (dialog.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK || parsed.isEmpty()) {
+            return null;
+        }
+        List<T> items = parsed.get(0);
         try {
-            Process process = Runtime.getRuntime().exec("cmd /c jps -l");
-            Map<String,String> processMapByL = getProcessMapByL(process);
-            processMapByL.forEach((pid,name) -> {
-                String memory ="";
-                try {
-                    Map<String,String> pidMemory = getPidMemory(pid);
-                    memory = pidMemory.get(pid);
-                }catch(IOException e) {
-                    throw new RuntimeException(e);
-                }
-                ProcessInfo processInfo = ProcessInfo.builder().name(name).pid(pid).memory(memory)
-                        .processType("Java").jvm("")
-                        .build();
-                processTableView.getItems().add(processInfo);
-            });
-            updateProcessCount();
-        } catch (Exception e) {
-            logger.error("loadProcessInfo error:",e);
+            store.save(items);
+        } catch (IOException e) {
+            logger.error("保存{}失败", store.getDescription(), e);
+            NotificationUtil.showError(stage, "保存" + store.getDescription() + "失败: " + e.getMessage());
+            return null;
         }
+        return items;
     }
 
-    private Map<String,String> getProcessMapByL (Process process) throws IOException {
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        String line;
-        Map<String,String> processMap = new HashMap<>(16);
-        while ((line = reader.readLine()) != null) {
-            logger.info("line = {}" , line);
-            String[] parts = line.split("\\s+");
-            if (parts.length >= 2) {
-                String pid = parts[0];
-                String name = parts[1];
-                if(name.contains("jps") || name.endsWith(".exe")){
-                    continue;
-                }
-                if(!name.contains("idea")){
-                    name = name.substring(name.lastIndexOf(".")+1);
-                }
-                processMap.put(pid,name);
+    /**
+     * 数值列的单元格工厂，单元格复用，只在值变化时重新格式化文本
+     */
+    private static Callback<TableColumn<ProcessInfo, Number>, TableCell<ProcessInfo, Number>> numberCellFactory(
+            Function<Number, String> formatter) {
+        return param -> new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : formatter.apply(item));
             }
+        };
+    }
+
+    private static String formatMegabytes(Number bytes) {
+        return bytes.longValue() < 0 ? "" : bytes.longValue() / 1024 / 1024 + " MB";
+    }
+
+    private static String formatRate(Number value) {
+        return value.doubleValue() == 0 ? "" : String.format("%.2f", value.doubleValue());
+    }
+
+    private static String formatMegabytesPerSecond(Number bytesPerSecond) {
+        return bytesPerSecond.doubleValue() == 0 ? "" : String.format("%.1f", bytesPerSecond.doubleValue() / 1024 / 1024);
+    }
+
+    /**
+     * JVM 参数单元格，悬停时显示完整命令行、JVM 标志和系统属性
+     */
+    private class JvmInfoTableCell extends TableCell<ProcessInfo, String> {
+        private final Tooltip tooltip = new Tooltip();
+
+        JvmInfoTableCell() {
+            tooltip.setWrapText(true);
+            tooltip.setMaxWidth(600);
+            tooltip.setOnShowing(event -> tooltip.setText(describe()));
         }
-        return processMap;
-    }
-    private Map<String,String> getPidMemory (String pid) throws IOException {
-        // 执行 wmic 命令
-        Map<String,String> processMemory = new HashMap<>(16);
-        // 执行 jstat 命令
-        Process process = Runtime.getRuntime().exec("jstat -gc " + pid);
-        BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
-        // 读取命令输出
-        String line;
-        while ((line = reader.readLine()) != null) {
-            if (!line.trim().isEmpty()) {
-                // 解析 jstat 输出
-                String[] parts = line.split("\\s+");
-                if (parts.length >= 10) {
-                    try {
-                        // 校验并解析使用的堆内存（KB）
-                        Double usedHeap = parseLongSafely(parts[3],(double) -1);
-                        if (usedHeap == -1) {
-                            logger.info("Invalid heap memory value:{} " , parts[3]);
-                            continue; // 跳过非法数据
-                        }
-                        // 校验并解析使用的非堆内存（KB）
-                        Double usedNonHeap = parseLongSafely(parts[7],Double.valueOf(-1));
-                        if (usedNonHeap == -1) {
-                            logger.info("Invalid non-heap memory value: {}",parts[7]);
-                            continue; // 跳过非法数据
-                        }
-                        // 计算总内存并转换为 MB
-                        Double totalMemoryMB = (usedHeap + usedNonHeap) / 1024;
-                        processMemory.put(pid, String.valueOf(totalMemoryMB.intValue())+" MB");
-                    } catch (Exception e) {
-                        logger.error("Error processing memory data for PID: {}",pid);
-                    }
-                }
 
+        @Override
+        protected void updateItem(String item, boolean empty) {
+            super.updateItem(item, empty);
+            setText(empty ? null : item);
+            setTooltip(empty ? null : tooltip);
+        }
+
+        private String describe() {
+            ProcessInfo processInfo = getTableRow() == null ? null : getTableRow().getItem();
+            if (processInfo == null) {
+                return "";
+            }
+            JvmInfo info = jvmInfoCache.peek(processInfo.getPid(), processInfo.getStartTime());
+            if (info == null) {
+                return processInfo.getJvm();
             }
+            StringBuilder builder = new StringBuilder();
+            builder.append("主类: ").append(info.getMainClass()).append('\n');
+            builder.append("命令: ").append(info.getCommand()).append('\n');
+            builder.append("JVM 参数: ").append(info.getVmArgs()).append('\n');
+            if (info.getVmFlags() != null && !info.getVmFlags().isEmpty()) {
+                builder.append("JVM 标志: ").append(info.getVmFlags()).append('\n');
+            }
+            info.getSystemProperties().forEach((key, value) ->
+                    builder.append(key).append(" = ").append(value).append('\n'));
+            return builder.toString();
         }
-        // 关闭资源
-        reader.close();
-        return processMemory;
     }
 
-    private static Double parseLongSafely(String value, Double defaultValue) {
-        if (value == null || value.isEmpty()) {
-            return defaultValue;
-        }
+    /**
+     * 表格右键菜单，诊断类操作只对 Java 进程可用
+     */
+    private ContextMenu buildContextMenu() {
+        MenuItem threadDumpItem = new MenuItem("🧵 线程分析");
+        threadDumpItem.setOnAction(event -> {
+            ProcessInfo processInfo = processTableView.getSelectionModel().getSelectedItem();
+            this.<ThreadDumpController>openWindow("fxml/thread-dump.fxml", "线程分析",
+                    controller -> controller.setTarget(processInfo));
+        });
+        MenuItem histogramItem = new MenuItem("📊 类直方图");
+        histogramItem.setOnAction(event -> {
+            ProcessInfo processInfo = processTableView.getSelectionModel().getSelectedItem();
+            this.<ClassHistogramController>openWindow("fxml/class-histogram.fxml", "类直方图",
+                    controller -> controller.setTarget(processInfo));
+        });
+        MenuItem jfrItem = new MenuItem("🎞️ JFR 录制");
+        jfrItem.setOnAction(event -> {
+            ProcessInfo processInfo = processTableView.getSelectionModel().getSelectedItem();
+            this.<JfrController>openWindow("fxml/jfr.fxml", "JFR 录制", controller -> controller.setTarget(processInfo));
+        });
+        ContextMenu contextMenu = new ContextMenu(threadDumpItem, histogramItem, jfrItem);
+        contextMenu.setOnShowing(event -> {
+            ProcessInfo processInfo = processTableView.getSelectionModel().getSelectedItem();
+            boolean java = processInfo != null && "Java".equals(processInfo.getProcessType());
+            contextMenu.getItems().forEach(item -> item.setDisable(!java));
+        });
+        return contextMenu;
+    }
+
+    /**
+     * 以主窗口为父窗口打开独立的诊断窗口，进程列表保持可见
+     */
+    private <T> void openWindow(String fxml, String title, Consumer<T> initializer) {
         try {
-            return Double.parseDouble(value);
-        } catch (NumberFormatException e) {
-            return defaultValue;
+            FXMLLoader loader = new FXMLLoader(ProcessApp.class.getResource(fxml));
+            Scene scene = new Scene(loader.load());
+            Stage stage = new Stage();
+            stage.initOwner(processTableView.getScene().getWindow());
+            stage.setTitle(title);
+            stage.setScene(scene);
+            stage.show();
+            initializer.accept(loader.getController());
+        } catch (Exception e) {
+            logger.error("打开窗口 {} 失败", fxml, e);
+            NotificationUtil.showError((Stage) processTableView.getScene().getWindow(), "打开窗口失败: " + e.getMessage());
         }
     }
 
     private Callback<TableColumn<ProcessInfo, String>,TableCell<ProcessInfo, String>> getButtonCellFactory() {
         return param -> new TableCell<>() {
             private final Button btn = new Button("❌ 结束");
+            // 使用 HBox 实现按钮居中
+            private final HBox hbox = new HBox(btn);
             {
+                hbox.setAlignment(Pos.CENTER);
                 // 设置按钮样式
                 btn.setStyle("-fx-background-color: #f56565; -fx-text-fill: white; -fx-font-size: 12px; " +
                             "-fx-padding: 6 16; -fx-background-radius: 4; -fx-cursor: hand; -fx-font-weight: bold;");
@@ -195,52 +546,227 @@ public class IndexController implements Initializable {
             @Override
             protected void updateItem(String item, boolean empty) {
                 super.updateItem(item, empty);
-                // 使用 HBox 实现按钮居中
-                HBox hbox = new HBox(btn);
-                hbox.setAlignment(Pos.CENTER);
                 setGraphic(empty ? null : hbox);
             }
 
         };
     }
 
-    public void terminateProcess(ProcessInfo processInfo) {
+    /**
+     * 编辑看门狗策略，保存后立即生效，已有的计时状态会被清空
+     */
+    @FXML
+    public void handleWatchdogClick() {
+        Stage stage = (Stage) processTableView.getScene().getWindow();
+        List<WatchdogPolicy> current = watchdogPolicyStore.load();
+        List<WatchdogPolicy> policies = editJsonList(stage, watchdogPolicyStore,
+                current.isEmpty() ? WatchdogPolicyStore.examplePolicies() : current,
+                "metric 为 HEAP / MEMORY / RSS（MB）或 CPU / GC_TIME（%）；指标持续超过 threshold 达 durationSeconds 秒后执行 action（NOTIFY 或 TERMINATE）；\n"
+                        + "触发后需回落到阈值的 (100 - hysteresisPercent)% 以下才重新计时；mainClass 为正则；dryRun 为 true 时只通知不结束进程。\n"
+                        + "策略只在实时监控或手动刷新时评估。");
+        if (policies == null) {
+            return;
+        }
+        watchdogEngine.setPolicies(policies);
+        NotificationUtil.showSuccess(stage, "看门狗策略已保存");
+    }
+
+    /**
+     * 执行看门狗触发的动作：演练模式和 NOTIFY 只发通知，TERMINATE 走与手动结束相同的流程
+     */
+    private void handleWatchdogEvent(WatchdogEngine.WatchdogEvent event) {
+        Stage stage = (Stage) processTableView.getScene().getWindow();
+        WatchdogPolicy policy = event.getPolicy();
+        ProcessInfo snapshot = event.getProcessInfo();
+        String message = "看门狗 [" + policy.getName() + "]: " + snapshot.getName() + "(PID: " + snapshot.getPid()
+                + ") 当前值 " + String.format("%.1f", event.getValue()) + "，已持续 " + event.getBreachMillis() / 1000 + " 秒";
+        if (!event.shouldTerminate()) {
+            boolean wouldTerminate = policy.getAction() == WatchdogPolicy.Action.TERMINATE;
+            NotificationUtil.showWarning(stage, wouldTerminate ? message + "（演练：将结束该进程）" : message);
+            return;
+        }
+        // 快照对象不在表格里，按 PID 和启动时间找到对应的行，结束后才能从表格移除
+        ProcessInfo row = processList.stream()
+                .filter(processInfo -> processInfo.getPid() == snapshot.getPid()
+                        && processInfo.getStartTime() == snapshot.getStartTime())
+                .findFirst()
+                .orElse(snapshot);
+        NotificationUtil.showWarning(stage, message + "，正在结束进程");
+        terminateProcess(row);
+    }
+
+    /**
+     * 结束进程：先正常结束，超时后强制结束，结果回到 JavaFX 线程后再更新界面
+     */
+    public CompletableFuture<TerminationResult> terminateProcess(ProcessInfo processInfo) {
+        return processTerminator.terminate(processInfo.getPid(), processInfo.getStartTime()).whenComplete((result, e) -> Platform.runLater(() -> {
+            Stage stage = (Stage) processTableView.getScene().getWindow();
+            if (e != null || !result.isSuccess()) {
+                String message = e != null ? e.getMessage() : result.getMessage();
+                logger.error("结束进程 {} 失败: {}", processInfo.getPid(), message);
+                NotificationUtil.showError(stage, "结束进程失败: " + message);
+                return;
+            }
+            logger.info("进程 {} 已成功结束: {}", processInfo.getPid(), result.getOutcome());
+            // 从 TableView 中移除已结束的进程
+            processList.remove(processInfo);
+            updateProcessCount();
+
+            // 显示成功通知
+            NotificationUtil.showSuccess(stage,
+                "进程 " + processInfo.getName() + "(PID: " + processInfo.getPid() + ") 已成功结束！");
+        }));
+    }
+
+    /**
+     * 结束表格中选中的所有进程
+     */
+    @FXML
+    public void handleKillSelectedClick() {
+        List<ProcessInfo> selected = new ArrayList<>(processTableView.getSelectionModel().getSelectedItems());
+        Stage stage = (Stage) processTableView.getScene().getWindow();
+        if (selected.isEmpty()) {
+            NotificationUtil.showWarning(stage, "请先选择要结束的进程");
+            return;
+        }
+        terminateAll(selected);
+    }
+
+    /**
+     * 结束名称、PID 或 JVM 参数匹配输入内容的所有进程；默认只匹配 Java 进程，
+     * Linux 后端会列出全部系统进程，避免一个宽泛的正则误杀系统服务
+     */
+    @FXML
+    public void handleKillMatchingClick() {
+        Stage stage = (Stage) processTableView.getScene().getWindow();
+        String pattern = killPatternField.getText().trim();
+        if (pattern.isEmpty()) {
+            NotificationUtil.showWarning(stage, "请输入匹配规则");
+            return;
+        }
+        Pattern regex;
         try {
-            // 使用 taskkill 命令结束进程
-            Process killProcess = Runtime.getRuntime().exec("taskkill /F /PID " + processInfo.getPid());
-            int exitCode = killProcess.waitFor();
-            if (exitCode == 0) {
-                logger.info("进程 {} 已成功结束", processInfo.getPid());
-                // 从 TableView 中移除已结束的进程
-                processTableView.getItems().remove(processInfo);
-                updateProcessCount();
-                
-                // 显示成功通知
-                Stage stage = (Stage) processTableView.getScene().getWindow();
-                NotificationUtil.showSuccess(stage, 
-                    "进程 " + processInfo.getName() + "(PID: " + processInfo.getPid() + ") 已成功结束！");
-            } else {
-                logger.error("结束进程 {} 失败", processInfo.getPid());
-                Stage stage = (Stage) processTableView.getScene().getWindow();
-                NotificationUtil.showError(stage, "结束进程失败！");
+            regex = Pattern.compile(pattern, Pattern.CASE_INSENSITIVE);
+        } catch (PatternSyntaxException e) {
+            // 非法正则按普通文本匹配
+            regex = Pattern.compile(Pattern.quote(pattern), Pattern.CASE_INSENSITIVE);
+        }
+        boolean includeNonJava = killNonJavaCheckBox.isSelected();
+        List<ProcessInfo> matched = new ArrayList<>();
+        for (ProcessInfo processInfo : processList) {
+            if (!includeNonJava && !"Java".equals(processInfo.getProcessType())) {
+                continue;
+            }
+            if (regex.matcher(String.valueOf(processInfo.getPid())).matches()
+                    || (processInfo.getName() != null && regex.matcher(processInfo.getName()).find())
+                    || (processInfo.getJvm() != null && regex.matcher(processInfo.getJvm()).find())) {
+                matched.add(processInfo);
             }
-        } catch (IOException | InterruptedException e) {
-            logger.error("结束进程时发生错误", e);
+        }
+        if (matched.isEmpty()) {
+            NotificationUtil.showInfo(stage, includeNonJava ? "没有匹配的进程" : "没有匹配的 Java 进程");
+            return;
+        }
+        terminateAll(matched);
+    }
+
+    /**
+     * 确认后并发结束多个进程，全部完成后只汇总通知一次
+     */
+    private void terminateAll(List<ProcessInfo> processes) {
+        Alert alert = new Alert(Alert.AlertType.CONFIRMATION,
+                "确定要结束以下 " + processes.size() + " 个进程吗？\n" + summarize(processes),
+                ButtonType.OK, ButtonType.CANCEL);
+        alert.setHeaderText("批量结束进程");
+        alert.initOwner(processTableView.getScene().getWindow());
+        if (alert.showAndWait().orElse(ButtonType.CANCEL) != ButtonType.OK) {
+            return;
+        }
+        Map<Long, ProcessInfo> byPid = new LinkedHashMap<>();
+        processes.forEach(processInfo -> byPid.put(processInfo.getPid(), processInfo));
+        killSelectedButton.setDisable(true);
+        killMatchingButton.setDisable(true);
+        processTerminator.terminateAll(byPid.values()).whenComplete((results, e) -> Platform.runLater(() -> {
+            killSelectedButton.setDisable(false);
+            killMatchingButton.setDisable(false);
             Stage stage = (Stage) processTableView.getScene().getWindow();
-            NotificationUtil.showError(stage, "结束进程时发生错误: " + e.getMessage());
+            if (e != null) {
+                logger.error("批量结束进程失败", e);
+                NotificationUtil.showError(stage, "批量结束进程失败: " + e.getMessage());
+                return;
+            }
+            List<ProcessInfo> terminated = new ArrayList<>();
+            int failed = 0;
+            for (TerminationResult result : results) {
+                if (result.isSuccess()) {
+                    terminated.add(byPid.get(result.getPid()));
+                } else {
+                    failed++;
+                    logger.error("结束进程 {} 失败: {}", result.getPid(), result.getMessage());
+                }
+            }
+            processList.removeAll(terminated);
+            updateProcessCount();
+            if (failed == 0) {
+                NotificationUtil.showSuccess(stage, "已结束 " + terminated.size() + " 个进程");
+            } else {
+                NotificationUtil.showWarning(stage, "已结束 " + terminated.size() + " 个进程，" + failed + " 个失败");
+            }
+        }));
+    }
+
+    private static String summarize(List<ProcessInfo> processes) {
+        StringBuilder builder = new StringBuilder();
+        int limit = Math.min(processes.size(), 10);
+        for (int i = 0; i < limit; i++) {
+            ProcessInfo processInfo = processes.get(i);
+            builder.append(processInfo.getName()).append(" (PID: ").append(processInfo.getPid()).append(")\n");
+        }
+        if (processes.size() > limit) {
+            builder.append("... 等 ").append(processes.size()).append(" 个进程");
         }
+        return builder.toString();
     }
 
     @FXML
     public void handleRefreshButtonClick () {
-        processTableView.getItems().clear();
-        loadProcessInfo();
-        updateProcessCount();
-        // 显示自定义通知
-        Stage stage = (Stage) processTableView.getScene().getWindow();
-        NotificationUtil.showSuccess(stage, "✅ 进程列表已刷新！");
+        refreshButton.setDisable(true);
+        loadProcessInfo().whenComplete((processes, e) -> Platform.runLater(() -> {
+            refreshButton.setDisable(false);
+            // 显示自定义通知
+            Stage stage = (Stage) processTableView.getScene().getWindow();
+            if (e != null) {
+                NotificationUtil.showError(stage, "刷新进程列表失败: " + e.getMessage());
+            } else {
+                NotificationUtil.showSuccess(stage, "✅ 进程列表已刷新！");
+            }
+        }));
     }
     
+    /**
+     * 开启/关闭实时监控
+     */
+    @FXML
+    public void handleLiveToggle() {
+        if (liveToggleButton.isSelected()) {
+            processMonitor.setIntervalMillis(INTERVALS.get(intervalComboBox.getValue()));
+            processMonitor.start();
+        } else {
+            processMonitor.stop();
+        }
+    }
+
+    /**
+     * 修改采样间隔
+     */
+    @FXML
+    public void handleIntervalChange() {
+        Long interval = INTERVALS.get(intervalComboBox.getValue());
+        if (interval != null) {
+            processMonitor.setIntervalMillis(interval);
+        }
+    }
+
     @FXML
     public void handleMouseEntered() {
         refreshButton.setStyle("-fx-background-color: #5568d3; -fx-text-fill: white; -fx-font-size: 13px; " +
@@ -259,7 +785,8 @@ public class IndexController implements Initializable {
     private void updateProcessCount() {
         if (processCountLabel != null) {
             int count = processTableView.getItems().size();
-            processCountLabel.setText("当前进程: " + count);
+            processCountLabel.setText(count == processList.size() ? "当前进程: " + count
+                    : "当前进程: " + count + " / " + processList.size());
         }
     }
     
@@ -0,0 +1,431 @@
+package org.freedom.cleanprocess.action;
+
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.collections.FXCollections;
+import javafx.collections.ObservableList;
+import javafx.collections.transformation.FilteredList;
+import javafx.collections.transformation.SortedList;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Button;
+import javafx.scene.control.CheckBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.stage.FileChooser;
+import javafx.stage.Window;
+import javafx.util.Duration;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.service.JfrEventRow;
+import org.freedom.cleanprocess.service.JfrFileReader;
+import org.freedom.cleanprocess.service.JfrLiveSession;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.ResourceBundle;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * @description: JFR 录制窗口控制器：实时录制的事件先进入队列，每 250 毫秒批量刷新到表格；
+ * 打开 .jfr 文件时按页读取，点击“加载更多”才继续解析后续 chunk
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class JfrController implements Initializable {
+    private static final Logger logger = LogManager.getLogger(JfrController.class);
+
+    /**
+     * 实时录制时表格最多保留的事件数
+     */
+    private static final int MAX_LIVE_ROWS = 10_000;
+
+    /**
+     * 打开文件时每页读取的事件数
+     */
+    private static final int PAGE_SIZE = 5_000;
+
+    private static final DateTimeFormatter TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("HH:mm:ss.SSS").withZone(ZoneId.systemDefault());
+
+    @FXML
+    private Label titleLabel;
+
+    @FXML
+    private Label statsLabel;
+
+    @FXML
+    private Label statusLabel;
+
+    @FXML
+    private Button startButton;
+
+    @FXML
+    private Button stopButton;
+
+    @FXML
+    private Button saveButton;
+
+    @FXML
+    private Button openButton;
+
+    @FXML
+    private Button moreButton;
+
+    @FXML
+    private CheckBox allocationCheckBox;
+
+    @FXML
+    private CheckBox gcCheckBox;
+
+    @FXML
+    private CheckBox cpuCheckBox;
+
+    @FXML
+    private CheckBox otherCheckBox;
+
+    @FXML
+    private TableView<JfrEventRow> eventTableView;
+
+    @FXML
+    private TableColumn<JfrEventRow, String> timeColumn;
+
+    @FXML
+    private TableColumn<JfrEventRow, String> categoryColumn;
+
+    @FXML
+    private TableColumn<JfrEventRow, String> threadColumn;
+
+    @FXML
+    private TableColumn<JfrEventRow, String> detailColumn;
+
+    @FXML
+    private TableColumn<JfrEventRow, JfrEventRow> valueColumn;
+
+    private final ObservableList<JfrEventRow> rows = FXCollections.observableArrayList();
+
+    private final FilteredList<JfrEventRow> filteredRows = new FilteredList<>(rows);
+
+    /**
+     * JFR 流线程写入、JavaFX 线程批量取出
+     */
+    private final ConcurrentLinkedQueue<JfrEventRow> pending = new ConcurrentLinkedQueue<>();
+
+    private final Timeline drainTimeline = new Timeline(new KeyFrame(Duration.millis(250), event -> drain()));
+
+    private ProcessInfo processInfo;
+
+    private JfrLiveSession session;
+
+    private JfrFileReader fileReader;
+
+    /**
+     * 窗口已关闭，之后才启动完成的录制要立即关闭
+     */
+    private boolean closed;
+
+    private long allocationBytes;
+    private long gcPauseMicros;
+    private long maxGcPauseMicros;
+    private long cpuSamples;
+    private long recordingStart;
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        drainTimeline.setCycleCount(Timeline.INDEFINITE);
+        // 过滤后的列表不能直接排序，由 SortedList 承接表头排序
+        SortedList<JfrEventRow> sortedRows = new SortedList<>(filteredRows);
+        sortedRows.comparatorProperty().bind(eventTableView.comparatorProperty());
+        eventTableView.setItems(sortedRows);
+        handleFilterChange();
+
+        timeColumn.setCellValueFactory(cellData ->
+                new ReadOnlyStringWrapper(TIME_FORMATTER.format(Instant.ofEpochMilli(cellData.getValue().getTimestamp()))));
+        categoryColumn.setCellValueFactory(cellData ->
+                new ReadOnlyStringWrapper(cellData.getValue().getCategory().getLabel()));
+        threadColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(cellData.getValue().getThread()));
+        detailColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(cellData.getValue().getDetail()));
+        valueColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue()));
+        valueColumn.setCellFactory(column -> new TableCell<>() {
+            @Override
+            protected void updateItem(JfrEventRow item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null ? null : formatValue(item));
+            }
+        });
+        valueColumn.setComparator((a, b) -> Long.compare(a.getValue(), b.getValue()));
+    }
+
+    /**
+     * 设置录制目标，窗口关闭时自动停止录制并释放文件
+     */
+    public void setTarget(ProcessInfo processInfo) {
+        this.processInfo = processInfo;
+        titleLabel.setText("JFR 录制 - " + processInfo.getName() + " (PID: " + processInfo.getPid() + ")");
+        titleLabel.getScene().getWindow().setOnHidden(event -> {
+            closed = true;
+            stopSession();
+            closeFileReader();
+        });
+    }
+
+    @FXML
+    public void handleStartClick() {
+        if (processInfo == null || session != null) {
+            return;
+        }
+        long pid = processInfo.getPid();
+        closeFileReader();
+        rows.clear();
+        pending.clear();
+        allocationBytes = 0;
+        gcPauseMicros = 0;
+        maxGcPauseMicros = 0;
+        cpuSamples = 0;
+        startButton.setDisable(true);
+        openButton.setDisable(true);
+        moreButton.setDisable(true);
+        statusLabel.setText("正在连接目标进程并启动 JFR...");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return JfrLiveSession.start(pid, pending::add);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((started, e) -> Platform.runLater(() -> {
+            if (closed) {
+                // 连接期间窗口已关闭，onHidden 时 session 还是 null，这里补上关闭
+                if (started != null) {
+                    CompletableFuture.runAsync(started::close);
+                }
+                return;
+            }
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                logger.error("启动 JFR 录制失败, pid = {}", pid, cause);
+                statusLabel.setText("启动失败: " + cause.getMessage());
+                startButton.setDisable(false);
+                openButton.setDisable(false);
+                return;
+            }
+            session = started;
+            recordingStart = System.currentTimeMillis();
+            stopButton.setDisable(false);
+            saveButton.setDisable(false);
+            statusLabel.setText("录制中...");
+            drainTimeline.play();
+        }));
+    }
+
+    @FXML
+    public void handleStopClick() {
+        stopSession();
+        drain();
+        startButton.setDisable(false);
+        openButton.setDisable(false);
+        stopButton.setDisable(true);
+        saveButton.setDisable(true);
+        statusLabel.setText("录制已停止");
+    }
+
+    @FXML
+    public void handleSaveClick() {
+        JfrLiveSession current = session;
+        if (current == null) {
+            return;
+        }
+        FileChooser chooser = fileChooser();
+        chooser.setInitialFileName("pid-" + processInfo.getPid() + ".jfr");
+        File file = chooser.showSaveDialog(window());
+        if (file == null) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                current.dump(file.toPath());
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((ignored, e) -> Platform.runLater(() -> {
+            if (e != null) {
+                logger.error("保存 JFR 文件失败", e);
+                statusLabel.setText("保存失败: " + e.getMessage());
+            } else {
+                statusLabel.setText("已保存到 " + file.getAbsolutePath());
+            }
+        }));
+    }
+
+    @FXML
+    public void handleOpenClick() {
+        File file = fileChooser().showOpenDialog(window());
+        if (file == null) {
+            return;
+        }
+        closeFileReader();
+        rows.clear();
+        try {
+            fileReader = new JfrFileReader(file.toPath());
+        } catch (IOException e) {
+            logger.error("打开 JFR 文件失败: {}", file, e);
+            statusLabel.setText("打开失败: " + e.getMessage());
+            return;
+        }
+        titleLabel.setText("JFR 文件 - " + file.getName());
+        handleMoreClick();
+    }
+
+    /**
+     * 从文件中继续读取下一页事件
+     */
+    @FXML
+    public void handleMoreClick() {
+        JfrFileReader reader = fileReader;
+        if (reader == null) {
+            return;
+        }
+        Set<JfrEventRow.Category> categories = selectedCategories();
+        moreButton.setDisable(true);
+        statusLabel.setText("正在读取...");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return reader.nextPage(PAGE_SIZE, categories);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((page, e) -> Platform.runLater(() -> {
+            if (reader != fileReader) {
+                return;
+            }
+            if (e != null) {
+                logger.error("读取 JFR 文件失败", e);
+                statusLabel.setText("读取失败: " + e.getMessage());
+                return;
+            }
+            rows.addAll(page);
+            boolean more = reader.hasMore();
+            moreButton.setDisable(!more);
+            statusLabel.setText(String.format("已扫描 %,d 个事件，显示 %,d 条%s", reader.getReadCount(), rows.size(),
+                    more ? "，点击“加载更多”继续读取" : "，文件已读完"));
+        }));
+    }
+
+    @FXML
+    public void handleFilterChange() {
+        Set<JfrEventRow.Category> categories = selectedCategories();
+        filteredRows.setPredicate(row -> categories.contains(row.getCategory()));
+    }
+
+    /**
+     * 把队列中的新事件批量加入表格，并更新统计
+     */
+    private void drain() {
+        List<JfrEventRow> batch = new ArrayList<>();
+        JfrEventRow row;
+        while ((row = pending.poll()) != null) {
+            batch.add(row);
+            switch (row.getCategory()) {
+                case ALLOCATION:
+                    allocationBytes += row.getValue();
+                    break;
+                case GC:
+                    gcPauseMicros += row.getValue();
+                    maxGcPauseMicros = Math.max(maxGcPauseMicros, row.getValue());
+                    break;
+                case CPU:
+                    cpuSamples++;
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+        rows.addAll(batch);
+        if (rows.size() > MAX_LIVE_ROWS) {
+            rows.remove(0, rows.size() - MAX_LIVE_ROWS);
+        }
+        double seconds = Math.max(1, System.currentTimeMillis() - recordingStart) / 1000.0;
+        statsLabel.setText(String.format("分配 %.1f MB/s  GC 暂停合计 %.1f ms（最长 %.1f ms）  CPU 采样 %d",
+                allocationBytes / 1024.0 / 1024.0 / seconds, gcPauseMicros / 1000.0, maxGcPauseMicros / 1000.0,
+                cpuSamples));
+    }
+
+    private void stopSession() {
+        drainTimeline.stop();
+        JfrLiveSession current = session;
+        session = null;
+        if (current != null) {
+            CompletableFuture.runAsync(current::close);
+        }
+    }
+
+    private void closeFileReader() {
+        if (fileReader == null) {
+            return;
+        }
+        try {
+            fileReader.close();
+        } catch (IOException e) {
+            logger.warn("关闭 JFR 文件失败: {}", e.toString());
+        }
+        fileReader = null;
+        moreButton.setDisable(true);
+    }
+
+    private Set<JfrEventRow.Category> selectedCategories() {
+        Set<JfrEventRow.Category> categories = EnumSet.noneOf(JfrEventRow.Category.class);
+        if (allocationCheckBox.isSelected()) {
+            categories.add(JfrEventRow.Category.ALLOCATION);
+        }
+        if (gcCheckBox.isSelected()) {
+            categories.add(JfrEventRow.Category.GC);
+        }
+        if (cpuCheckBox.isSelected()) {
+            categories.add(JfrEventRow.Category.CPU);
+        }
+        if (otherCheckBox.isSelected()) {
+            categories.add(JfrEventRow.Category.OTHER);
+        }
+        return categories;
+    }
+
+    private static FileChooser fileChooser() {
+        FileChooser chooser = new FileChooser();
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("JFR 录制文件", "*.jfr"));
+        return chooser;
+    }
+
+    private Window window() {
+        return eventTableView.getScene().getWindow();
+    }
+
+    private static String formatValue(JfrEventRow row) {
+        switch (row.getCategory()) {
+            case ALLOCATION:
+                return row.getValue() >= 1024 * 1024 ? String.format("%.1f MB", row.getValue() / 1024.0 / 1024.0)
+                        : String.format("%.1f KB", row.getValue() / 1024.0);
+            case CPU:
+                return "";
+            default:
+                return row.getValue() > 0 ? String.format("%.2f ms", row.getValue() / 1000.0) : "";
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package org.freedom.cleanprocess.action;
+
+import javafx.application.Platform;
+import javafx.beans.property.ReadOnlyObjectWrapper;
+import javafx.beans.property.ReadOnlyStringWrapper;
+import javafx.fxml.FXML;
+import javafx.fxml.Initializable;
+import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
+import javafx.scene.control.Label;
+import javafx.scene.control.TableCell;
+import javafx.scene.control.TableColumn;
+import javafx.scene.control.TableView;
+import javafx.scene.control.TextArea;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.service.ThreadDump;
+import org.freedom.cleanprocess.service.ThreadDumpService;
+
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Collectors;
+
+/**
+ * @description: 线程分析窗口控制器
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ThreadDumpController implements Initializable {
+    private static final Logger logger = LogManager.getLogger(ThreadDumpController.class);
+
+    /**
+     * 两次转储之间的间隔选项（毫秒）
+     */
+    private static final Map<String, Long> INTERVALS = new LinkedHashMap<>();
+
+    static {
+        INTERVALS.put("1 秒", 1000L);
+        INTERVALS.put("3 秒", 3000L);
+        INTERVALS.put("5 秒", 5000L);
+    }
+
+    @FXML
+    private Label titleLabel;
+
+    @FXML
+    private Label statusLabel;
+
+    @FXML
+    private Button captureButton;
+
+    @FXML
+    private ComboBox<String> intervalComboBox;
+
+    @FXML
+    private TableView<ThreadDumpService.HotThread> hotThreadTableView;
+
+    @FXML
+    private TableColumn<ThreadDumpService.HotThread, String> hotNameColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.HotThread, String> hotStateColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.HotThread, Number> hotCpuDeltaColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.HotThread, Number> hotCpuPercentColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.HotThread, Number> hotCpuTotalColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.HotThread, String> hotTopFrameColumn;
+
+    @FXML
+    private TableView<ThreadDumpService.StackGroup> groupTableView;
+
+    @FXML
+    private TableColumn<ThreadDumpService.StackGroup, Number> groupSizeColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.StackGroup, String> groupStateColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.StackGroup, String> groupTopFrameColumn;
+
+    @FXML
+    private TableColumn<ThreadDumpService.StackGroup, String> groupThreadsColumn;
+
+    @FXML
+    private TextArea stackTextArea;
+
+    private final ThreadDumpService threadDumpService = new ThreadDumpService();
+
+    private ProcessInfo processInfo;
+
+    @Override
+    public void initialize(URL url, ResourceBundle resourceBundle) {
+        intervalComboBox.getItems().setAll(INTERVALS.keySet());
+        intervalComboBox.setValue("1 秒");
+
+        hotNameColumn.setCellValueFactory(cellData ->
+                new ReadOnlyStringWrapper(cellData.getValue().getThread().getName()));
+        hotStateColumn.setCellValueFactory(cellData ->
+                new ReadOnlyStringWrapper(cellData.getValue().getThread().getState()));
+        hotCpuDeltaColumn.setCellValueFactory(cellData ->
+                new ReadOnlyObjectWrapper<>(cellData.getValue().getCpuDeltaNanos() / 1_000_000.0));
+        hotCpuDeltaColumn.setCellFactory(column -> formattedCell("%.2f"));
+        hotCpuPercentColumn.setCellValueFactory(cellData ->
+                new ReadOnlyObjectWrapper<>(cellData.getValue().getCpuPercent()));
+        hotCpuPercentColumn.setCellFactory(column -> formattedCell("%.1f"));
+        hotCpuTotalColumn.setCellValueFactory(cellData ->
+                new ReadOnlyObjectWrapper<>(cellData.getValue().getThread().getCpuNanos() / 1_000_000.0));
+        hotCpuTotalColumn.setCellFactory(column -> formattedCell("%.2f"));
+        hotTopFrameColumn.setCellValueFactory(cellData ->
+                new ReadOnlyStringWrapper(topFrame(cellData.getValue().getThread().getFrames())));
+
+        groupSizeColumn.setCellValueFactory(cellData -> new ReadOnlyObjectWrapper<>(cellData.getValue().size()));
+        groupStateColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(cellData.getValue().getState()));
+        groupTopFrameColumn.setCellValueFactory(cellData ->
+                new ReadOnlyStringWrapper(topFrame(cellData.getValue().getFrames())));
+        groupThreadsColumn.setCellValueFactory(cellData -> new ReadOnlyStringWrapper(
+                cellData.getValue().getThreads().stream().limit(20)
+                        .map(ThreadDump.ThreadEntry::getName).collect(Collectors.joining(", "))));
+
+        hotThreadTableView.getSelectionModel().selectedItemProperty().addListener((obs, oldValue, hot) -> {
+            if (hot != null) {
+                stackTextArea.setText(describe(hot.getThread().getName(), hot.getThread().getState(),
+                        hot.getThread().getFrames()));
+            }
+        });
+        groupTableView.getSelectionModel().selectedItemProperty().addListener((obs, oldValue, group) -> {
+            if (group != null) {
+                stackTextArea.setText(describe(group.size() + " 个线程", group.getState(), group.getFrames()));
+            }
+        });
+    }
+
+    /**
+     * 设置分析目标并立即采集
+     */
+    public void setTarget(ProcessInfo processInfo) {
+        this.processInfo = processInfo;
+        titleLabel.setText("线程分析 - " + processInfo.getName() + " (PID: " + processInfo.getPid() + ")");
+        handleCaptureClick();
+    }
+
+    @FXML
+    public void handleCaptureClick() {
+        if (processInfo == null) {
+            return;
+        }
+        long pid = processInfo.getPid();
+        long interval = INTERVALS.get(intervalComboBox.getValue());
+        captureButton.setDisable(true);
+        statusLabel.setText("正在采集线程转储...");
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return threadDumpService.analyze(pid, interval);
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }).whenComplete((report, e) -> Platform.runLater(() -> {
+            captureButton.setDisable(false);
+            if (e != null) {
+                Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+                logger.error("线程转储失败, pid = {}", pid, cause);
+                statusLabel.setText("采集失败: " + cause.getMessage());
+                return;
+            }
+            hotThreadTableView.getItems().setAll(report.getHotThreads());
+            groupTableView.getItems().setAll(report.getGroups());
+            statusLabel.setText(String.format("来源: %s，线程 %d 个，栈分组 %d 个，间隔 %.1f 秒",
+                    report.getDump().getSource(), report.getDump().getThreads().size(),
+                    report.getGroups().size(), report.getElapsedNanos() / 1e9));
+        }));
+    }
+
+    private static <S> TableCell<S, Number> formattedCell(String format) {
+        return new TableCell<>() {
+            @Override
+            protected void updateItem(Number item, boolean empty) {
+                super.updateItem(item, empty);
+                setText(empty || item == null || item.doubleValue() < 0 ? null : String.format(format, item.doubleValue()));
+            }
+        };
+    }
+
+    private static String topFrame(String[] frames) {
+        return frames.length == 0 ? "" : frames[0];
+    }
+
+    private static String describe(String title, String state, String[] frames) {
+        StringBuilder builder = new StringBuilder(64 + frames.length * 80);
+        builder.append(title).append("  [").append(state).append("]\n");
+        for (String frame : frames) {
+            builder.append("    at ").append(frame).append('\n');
+        }
+        return builder.toString();
+    }
+}
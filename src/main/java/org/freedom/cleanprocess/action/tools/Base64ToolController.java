@@ -14,6 +14,7 @@ import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.freedom.cleanprocess.ProcessApp;
+import org.freedom.cleanprocess.component.LargeTextView;
 import org.freedom.cleanprocess.component.NotificationUtil;
 import org.freedom.cleanprocess.util.SceneUtil;
 
@@ -40,7 +41,7 @@ public class Base64ToolController implements Initializable {
     private TextArea inputTextArea;
     
     @FXML
-    private TextArea outputTextArea;
+    private LargeTextView outputTextView;
     
     @FXML
     private Label fileNameLabel;
@@ -77,7 +78,7 @@ public class Base64ToolController implements Initializable {
         try {
             // Base64编码
             String encoded = Base64.getEncoder().encodeToString(input.getBytes(StandardCharsets.UTF_8));
-            outputTextArea.setText(encoded);
+            outputTextView.setText(encoded);
             
             Stage stage = (Stage) inputTextArea.getScene().getWindow();
             NotificationUtil.showSuccess(stage, "✅ Base64编码成功！");
@@ -106,7 +107,7 @@ public class Base64ToolController implements Initializable {
             // Base64解码
             byte[] decoded = Base64.getDecoder().decode(input);
             String decodedStr = new String(decoded, StandardCharsets.UTF_8);
-            outputTextArea.setText(decodedStr);
+            outputTextView.setText(decodedStr);
             
             Stage stage = (Stage) inputTextArea.getScene().getWindow();
             NotificationUtil.showSuccess(stage, "✅ Base64解码成功！");
@@ -128,7 +129,7 @@ public class Base64ToolController implements Initializable {
     @FXML
     public void handleClearButtonClick() {
         inputTextArea.clear();
-        outputTextArea.clear();
+        outputTextView.clear();
         fileNameLabel.setText("");
         loadedFile = null;
         
@@ -160,17 +161,17 @@ public class Base64ToolController implements Initializable {
      */
     @FXML
     public void handleCopyOutputButtonClick() {
-        String output = outputTextArea.getText();
+        String output = outputTextView.getText();
         
         if (output.isEmpty()) {
-            Stage stage = (Stage) outputTextArea.getScene().getWindow();
+            Stage stage = (Stage) outputTextView.getScene().getWindow();
             NotificationUtil.showWarning(stage, "输出内容为空，无法复制");
             return;
         }
         
         copyToClipboard(output);
         
-        Stage stage = (Stage) outputTextArea.getScene().getWindow();
+        Stage stage = (Stage) outputTextView.getScene().getWindow();
         NotificationUtil.showSuccess(stage, "📋 已复制输出内容到剪贴板！");
     }
     
@@ -203,7 +204,7 @@ public class Base64ToolController implements Initializable {
                     // 对于二进制文件，直接进行Base64编码
                     String encoded = Base64.getEncoder().encodeToString(fileContent);
                     inputTextArea.setText(encoded);
-                    outputTextArea.setText(""); // 清空输出
+                    outputTextView.setText(""); // 清空输出
                 }
                 
                 loadedFile = file;
@@ -223,10 +224,10 @@ public class Base64ToolController implements Initializable {
      */
     @FXML
     public void handleSaveFileButtonClick() {
-        String output = outputTextArea.getText();
+        String output = outputTextView.getText();
         
         if (output.isEmpty()) {
-            Stage stage = (Stage) outputTextArea.getScene().getWindow();
+            Stage stage = (Stage) outputTextView.getScene().getWindow();
             NotificationUtil.showWarning(stage, "输出内容为空，无法保存");
             return;
         }
@@ -239,7 +240,7 @@ public class Base64ToolController implements Initializable {
             new FileChooser.ExtensionFilter("所有文件", "*.*")
         );
         
-        Stage stage = (Stage) outputTextArea.getScene().getWindow();
+        Stage stage = (Stage) outputTextView.getScene().getWindow();
         File file = fileChooser.showSaveDialog(stage);
         
         if (file != null) {
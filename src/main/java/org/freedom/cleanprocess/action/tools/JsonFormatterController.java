@@ -1,29 +1,40 @@
 package org.freedom.cleanprocess.action.tools;
 
-import com.google.gson.Gson;
-import com.google.gson.GsonBuilder;
-import com.google.gson.JsonParser;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TextArea;
 import javafx.scene.input.Clipboard;
 import javafx.scene.input.ClipboardContent;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.freedom.cleanprocess.ProcessApp;
+import org.freedom.cleanprocess.component.LargeTextView;
 import org.freedom.cleanprocess.component.NotificationUtil;
+import org.freedom.cleanprocess.service.JsonStreamFormatter;
 import org.freedom.cleanprocess.util.SceneUtil;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ResourceBundle;
 
 /**
- * @description: JSON格式化工具控制器
+ * @description: JSON格式化工具控制器，格式化和压缩都在后台线程上流式处理；选择文件后直接文件到文件处理，
+ * 不把整个文档读进内存
  * @author: freedom
  * @date: 2025/11/29
  */
@@ -45,27 +56,30 @@ public class JsonFormatterController implements Initializable {
     @FXML
     private Button copyButton;
     
+    @FXML
+    private Button fileButton;
+    
+    @FXML
+    private Button cancelButton;
+    
+    @FXML
+    private ProgressBar progressBar;
+    
     @FXML
     private TextArea inputTextArea;
     
     @FXML
-    private TextArea outputTextArea;
+    private LargeTextView outputTextView;
     
-    private final Gson prettyGson;
-    private final Gson compactGson;
+    /**
+     * 选择的输入文件，为 null 时处理输入框中的文本
+     */
+    private File inputFile;
     
-    public JsonFormatterController() {
-        // 创建格式化的Gson实例
-        prettyGson = new GsonBuilder()
-                .setPrettyPrinting()
-                .serializeNulls()
-                .create();
-        
-        // 创建压缩的Gson实例
-        compactGson = new GsonBuilder()
-                .serializeNulls()
-                .create();
-    }
+    /**
+     * 正在执行的任务
+     */
+    private Task<String> currentTask;
     
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
@@ -86,29 +100,7 @@ public class JsonFormatterController implements Initializable {
      */
     @FXML
     public void handleFormatButtonClick() {
-        String input = inputTextArea.getText().trim();
-        
-        if (input.isEmpty()) {
-            Stage stage = (Stage) formatButton.getScene().getWindow();
-            NotificationUtil.showWarning(stage, "请输入JSON数据");
-            return;
-        }
-        
-        try {
-            // 解析并格式化JSON
-            Object jsonObject = JsonParser.parseString(input);
-            String formattedJson = prettyGson.toJson(jsonObject);
-            
-            outputTextArea.setText(formattedJson);
-            
-            Stage stage = (Stage) formatButton.getScene().getWindow();
-            NotificationUtil.showSuccess(stage, "✅ JSON格式化成功！");
-            
-        } catch (Exception e) {
-            logger.error("JSON格式化失败", e);
-            Stage stage = (Stage) formatButton.getScene().getWindow();
-            NotificationUtil.showError(stage, "JSON格式错误: " + e.getMessage());
-        }
+        process("  ", "格式化");
     }
     
     /**
@@ -116,38 +108,175 @@ public class JsonFormatterController implements Initializable {
      */
     @FXML
     public void handleCompressButtonClick() {
-        String input = inputTextArea.getText().trim();
-        
-        if (input.isEmpty()) {
-            Stage stage = (Stage) compressButton.getScene().getWindow();
-            NotificationUtil.showWarning(stage, "请输入JSON数据");
+        process("", "压缩");
+    }
+    
+    /**
+     * 选择要处理的 JSON 文件，之后格式化和压缩都直接输出到文件
+     */
+    @FXML
+    public void handleFileButtonClick() {
+        Stage stage = (Stage) fileButton.getScene().getWindow();
+        FileChooser fileChooser = new FileChooser();
+        fileChooser.setTitle("选择 JSON 文件");
+        fileChooser.getExtensionFilters().addAll(
+            new FileChooser.ExtensionFilter("JSON 文件", "*.json"),
+            new FileChooser.ExtensionFilter("所有文件", "*.*")
+        );
+        File file = fileChooser.showOpenDialog(stage);
+        if (file == null) {
             return;
         }
-        
-        try {
-            // 解析并压缩JSON
-            Object jsonObject = JsonParser.parseString(input);
-            String compressedJson = compactGson.toJson(jsonObject);
-            
-            outputTextArea.setText(compressedJson);
-            
-            Stage stage = (Stage) compressButton.getScene().getWindow();
-            NotificationUtil.showSuccess(stage, "✅ JSON压缩成功！");
-            
-        } catch (Exception e) {
-            logger.error("JSON压缩失败", e);
-            Stage stage = (Stage) compressButton.getScene().getWindow();
-            NotificationUtil.showError(stage, "JSON格式错误: " + e.getMessage());
+        inputFile = file;
+        inputTextArea.setText("📂 " + file.getAbsolutePath() + "\n大小: " + String.format("%.1f MB", file.length() / 1024.0 / 1024.0)
+                + "\n\n点击格式化或压缩后选择输出文件");
+        inputTextArea.setEditable(false);
+    }
+    
+    /**
+     * 取消正在执行的任务
+     */
+    @FXML
+    public void handleCancelButtonClick() {
+        if (currentTask != null) {
+            currentTask.cancel();
         }
     }
     
+    /**
+     * 在后台线程上流式处理，indent 为空时压缩输出
+     */
+    private void process(String indent, String action) {
+        Stage stage = (Stage) formatButton.getScene().getWindow();
+        if (currentTask != null) {
+            NotificationUtil.showWarning(stage, "正在处理中，请稍候");
+            return;
+        }
+        Task<String> task;
+        Path outputPath = null;
+        if (inputFile != null) {
+            FileChooser fileChooser = new FileChooser();
+            fileChooser.setTitle("保存" + action + "结果");
+            fileChooser.setInitialDirectory(inputFile.getParentFile());
+            fileChooser.setInitialFileName(outputName(inputFile.getName(), indent.isEmpty() ? ".min" : ".formatted"));
+            File outputFile = fileChooser.showSaveDialog(stage);
+            if (outputFile == null) {
+                return;
+            }
+            if (outputFile.getAbsoluteFile().equals(inputFile.getAbsoluteFile())) {
+                NotificationUtil.showWarning(stage, "输出文件不能与输入文件相同");
+                return;
+            }
+            outputPath = outputFile.toPath();
+            task = fileTask(inputFile.toPath(), outputPath, indent);
+        } else {
+            String input = inputTextArea.getText().trim();
+            if (input.isEmpty()) {
+                NotificationUtil.showWarning(stage, "请输入JSON数据");
+                return;
+            }
+            task = textTask(input, indent);
+        }
+        Path resultFile = outputPath;
+        task.setOnSucceeded(event -> {
+            finish();
+            if (resultFile == null) {
+                outputTextView.setText(task.getValue());
+            } else {
+                try {
+                    outputTextView.openFile(resultFile);
+                } catch (IOException e) {
+                    logger.error("打开输出文件失败", e);
+                    NotificationUtil.showError(stage, "打开输出文件失败: " + e.getMessage());
+                    return;
+                }
+            }
+            NotificationUtil.showSuccess(stage, "✅ JSON" + action + "成功！");
+        });
+        task.setOnFailed(event -> {
+            finish();
+            logger.error("JSON{}失败", action, task.getException());
+            NotificationUtil.showError(stage, "JSON格式错误: " + task.getException().getMessage());
+        });
+        task.setOnCancelled(event -> {
+            finish();
+            NotificationUtil.showInfo(stage, "已取消" + action);
+        });
+        currentTask = task;
+        setRunning(true);
+        progressBar.progressProperty().bind(task.progressProperty());
+        Thread thread = new Thread(task, "json-formatter");
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    /**
+     * 处理输入框中的文本，结果作为字符串返回
+     */
+    private static Task<String> textTask(String input, String indent) {
+        return new Task<>() {
+            @Override
+            protected String call() throws IOException {
+                StringWriter writer = new StringWriter(input.length());
+                JsonStreamFormatter.format(new StringReader(input), writer, indent,
+                        consumed -> updateProgress(consumed, input.length()), this::isCancelled);
+                return writer.toString();
+            }
+        };
+    }
+    
+    /**
+     * 文件到文件处理，失败或取消时删除不完整的输出文件；结果由查看器直接打开输出文件，任务不返回文本
+     */
+    private static Task<String> fileTask(Path input, Path output, String indent) {
+        return new Task<>() {
+            @Override
+            protected String call() throws IOException {
+                long total = Files.size(input);
+                try (Reader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8);
+                     Writer writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                    JsonStreamFormatter.format(reader, writer, indent,
+                            consumed -> updateProgress(consumed, total), this::isCancelled);
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(output);
+                    throw e;
+                }
+                return null;
+            }
+        };
+    }
+    
+    private static String outputName(String inputName, String suffix) {
+        int dot = inputName.lastIndexOf('.');
+        return dot > 0 ? inputName.substring(0, dot) + suffix + inputName.substring(dot) : inputName + suffix + ".json";
+    }
+    
+    private void finish() {
+        currentTask = null;
+        progressBar.progressProperty().unbind();
+        setRunning(false);
+    }
+    
+    private void setRunning(boolean running) {
+        formatButton.setDisable(running);
+        compressButton.setDisable(running);
+        fileButton.setDisable(running);
+        clearButton.setDisable(running);
+        progressBar.setVisible(running);
+        progressBar.setManaged(running);
+        cancelButton.setVisible(running);
+        cancelButton.setManaged(running);
+    }
+    
     /**
      * 清空内容
      */
     @FXML
     public void handleClearButtonClick() {
+        inputFile = null;
+        inputTextArea.setEditable(true);
         inputTextArea.clear();
-        outputTextArea.clear();
+        outputTextView.clear();
         
         Stage stage = (Stage) clearButton.getScene().getWindow();
         NotificationUtil.showInfo(stage, "已清空所有内容");
@@ -158,7 +287,12 @@ public class JsonFormatterController implements Initializable {
      */
     @FXML
     public void handleCopyButtonClick() {
-        String output = outputTextArea.getText().trim();
+        if (outputTextView.getFile() != null) {
+            Stage stage = (Stage) copyButton.getScene().getWindow();
+            NotificationUtil.showInfo(stage, "结果已保存在 " + outputTextView.getFile() + "，可选中行后按 Ctrl+C 复制");
+            return;
+        }
+        String output = outputTextView.getText().trim();
         
         if (output.isEmpty()) {
             Stage stage = (Stage) copyButton.getScene().getWindow();
@@ -1,35 +1,75 @@
 package org.freedom.cleanprocess.action.tools;
 
+import javafx.application.Platform;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.fxml.Initializable;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Button;
 import javafx.scene.control.CheckBox;
 import javafx.scene.control.Label;
 import javafx.scene.control.TextArea;
+import javafx.scene.layout.Region;
+import javafx.scene.text.Text;
+import javafx.scene.text.TextFlow;
+import javafx.stage.DirectoryChooser;
+import javafx.stage.FileChooser;
 import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.freedom.cleanprocess.ProcessApp;
+import org.freedom.cleanprocess.component.LargeTextView;
 import org.freedom.cleanprocess.component.NotificationUtil;
+import org.freedom.cleanprocess.component.StringTextSource;
+import org.freedom.cleanprocess.component.TextSource;
+import org.freedom.cleanprocess.service.FileTreeDiff;
+import org.freedom.cleanprocess.service.InlineDiff;
+import org.freedom.cleanprocess.service.LineDiff;
+import org.freedom.cleanprocess.service.UnifiedDiff;
 import org.freedom.cleanprocess.util.SceneUtil;
 
+import java.io.File;
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.ResourceBundle;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * @description: 文本对比工具控制器
+ * @description: 文本对比工具控制器，在后台线程上计算行级差异并以 unified diff 格式展示，
+ * 成对的删除行和新增行在显示时再计算行内差异，用加粗下划线标出变化的单词或字符。
+ * 也可以直接选择两个文件或目录，从磁盘读取对比，结果写入临时文件后在查看器中打开
  * @author: freedom
  * @date: 2025/11/29
  */
 public class TextDiffController implements Initializable {
     private static final Logger logger = LogManager.getLogger(TextDiffController.class);
+    private static final String DELETED_STYLE = "-fx-fill: #c53030;";
+    private static final String DELETED_CHANGED_STYLE = "-fx-fill: #9b2c2c; -fx-font-weight: bold; -fx-underline: true;";
+    private static final String INSERTED_STYLE = "-fx-fill: #2f855a;";
+    private static final String INSERTED_CHANGED_STYLE = "-fx-fill: #22543d; -fx-font-weight: bold; -fx-underline: true;";
+    private static final String HUNK_STYLE = "-fx-fill: #667eea;";
     
     @FXML
     private Button backButton;
     
+    @FXML
+    private Button compareButton;
+    
+    @FXML
+    private Button compareFilesButton;
+    
+    @FXML
+    private Button compareDirectoriesButton;
+    
     @FXML
     private TextArea textAreaLeft;
     
@@ -37,7 +77,7 @@ public class TextDiffController implements Initializable {
     private TextArea textAreaRight;
     
     @FXML
-    private TextArea resultTextArea;
+    private LargeTextView resultTextView;
     
     @FXML
     private CheckBox ignoreWhitespaceCheckBox;
@@ -57,9 +97,20 @@ public class TextDiffController implements Initializable {
     @FXML
     private Label similarityLabel;
     
+    /**
+     * 当前显示的对比结果，供行渲染时查找配对行
+     */
+    private DiffResult currentResult;
+    
+    /**
+     * 文件 / 目录对比结果所在的临时文件，显示新结果或清空时删除
+     */
+    private Path outputFile;
+    
     @Override
     public void initialize(URL url, ResourceBundle resourceBundle) {
         logger.info("文本对比工具初始化");
+        resultTextView.setRowGraphicFactory(this::renderRow);
     }
     
     /**
@@ -78,66 +129,360 @@ public class TextDiffController implements Initializable {
     public void handleCompareButtonClick() {
         String textLeft = textAreaLeft.getText();
         String textRight = textAreaRight.getText();
+        Stage stage = (Stage) textAreaLeft.getScene().getWindow();
         
         if (textLeft.isEmpty() && textRight.isEmpty()) {
-            Stage stage = (Stage) textAreaLeft.getScene().getWindow();
             NotificationUtil.showWarning(stage, "请输入要对比的文本");
             return;
         }
         
+        boolean ignoreWhitespace = ignoreWhitespaceCheckBox.isSelected();
+        boolean ignoreCase = ignoreCaseCheckBox.isSelected();
+        setComparing(true);
+        CompletableFuture.supplyAsync(() -> compare(textLeft, textRight, ignoreWhitespace, ignoreCase))
+                .whenComplete((result, e) -> Platform.runLater(() -> {
+                    setComparing(false);
+                    if (e != null) {
+                        logger.error("文本对比失败", e);
+                        NotificationUtil.showError(stage, "对比失败: " + e.getMessage());
+                        return;
+                    }
+                    showResult(result);
+                    NotificationUtil.showSuccess(stage, "文本对比完成！");
+                }));
+    }
+    
+    /**
+     * 选择两个文件进行对比
+     */
+    @FXML
+    public void handleCompareFilesClick() {
+        Stage stage = (Stage) textAreaLeft.getScene().getWindow();
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("选择文件 A");
+        File left = chooser.showOpenDialog(stage);
+        if (left == null) {
+            return;
+        }
+        chooser.setTitle("选择文件 B");
+        chooser.setInitialDirectory(left.getParentFile());
+        File right = chooser.showOpenDialog(stage);
+        if (right != null) {
+            comparePaths(left.toPath(), right.toPath());
+        }
+    }
+    
+    /**
+     * 选择两个目录进行对比
+     */
+    @FXML
+    public void handleCompareDirectoriesClick() {
+        Stage stage = (Stage) textAreaLeft.getScene().getWindow();
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("选择目录 A");
+        File left = chooser.showDialog(stage);
+        if (left == null) {
+            return;
+        }
+        chooser.setTitle("选择目录 B");
+        chooser.setInitialDirectory(left.getParentFile());
+        File right = chooser.showDialog(stage);
+        if (right != null) {
+            comparePaths(left.toPath(), right.toPath());
+        }
+    }
+    
+    /**
+     * 在后台对比两个文件或目录，差异写入临时文件
+     */
+    private void comparePaths(Path left, Path right) {
+        Stage stage = (Stage) textAreaLeft.getScene().getWindow();
+        boolean ignoreWhitespace = ignoreWhitespaceCheckBox.isSelected();
+        boolean ignoreCase = ignoreCaseCheckBox.isSelected();
+        setComparing(true);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                Path output = Files.createTempFile("text-diff-", ".diff");
+                output.toFile().deleteOnExit();
+                try (Writer out = Files.newBufferedWriter(output, StandardCharsets.UTF_8)) {
+                    return new FileDiffResult(output, FileTreeDiff.compare(left, right, ignoreWhitespace, ignoreCase, out));
+                } catch (IOException | RuntimeException e) {
+                    Files.deleteIfExists(output);
+                    throw e;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((result, e) -> Platform.runLater(() -> {
+            setComparing(false);
+            if (e != null) {
+                Throwable cause = e.getCause() instanceof UncheckedIOException ? e.getCause().getCause() : e;
+                logger.error("文件对比失败: {} / {}", left, right, cause);
+                NotificationUtil.showError(stage, "对比失败: " + cause.getMessage());
+                return;
+            }
+            showFileResult(stage, result);
+        }));
+    }
+    
+    private void showFileResult(Stage stage, FileDiffResult result) {
+        try {
+            resultTextView.openFile(result.output);
+        } catch (IOException e) {
+            logger.error("打开对比结果失败", e);
+            NotificationUtil.showError(stage, "打开对比结果失败: " + e.getMessage());
+            return;
+        }
+        currentResult = new DiffResult();
+        replaceOutputFile(result.output);
+        
+        FileTreeDiff.Summary summary = result.summary;
+        totalLinesLabel.setText("文件数: A " + summary.getFilesLeft() + " / B " + summary.getFilesRight());
+        sameLinesLabel.setText("相同: " + summary.getSame());
+        diffLinesLabel.setText("不同: 修改 " + summary.getModified() + " (-" + summary.getDeletedLines()
+                + " +" + summary.getInsertedLines() + " 行), 仅 A " + summary.getOnlyLeft()
+                + ", 仅 B " + summary.getOnlyRight()
+                + (summary.getUnreadable() > 0 ? ", 无法读取 " + summary.getUnreadable() : ""));
+        int total = summary.getFilesLeft() + summary.getFilesRight();
+        double similarity = total > 0 ? 2.0 * summary.getSame() / total * 100 : 0;
+        similarityLabel.setText(String.format("相似度: %.1f%%", similarity));
+        NotificationUtil.showSuccess(stage, "文件对比完成！");
+    }
+    
+    private void setComparing(boolean comparing) {
+        compareButton.setDisable(comparing);
+        compareFilesButton.setDisable(comparing);
+        compareDirectoriesButton.setDisable(comparing);
+    }
+    
+    /**
+     * 删除上一次对比的临时文件，调用前查看器必须已经换成新的内容
+     */
+    private void replaceOutputFile(Path newOutputFile) {
+        if (outputFile != null) {
+            try {
+                Files.deleteIfExists(outputFile);
+            } catch (IOException e) {
+                logger.warn("删除临时文件失败: {}", outputFile, e);
+            }
+        }
+        outputFile = newOutputFile;
+    }
+    
+    /**
+     * 计算差异并生成 unified diff 文本，不访问任何界面控件
+     */
+    private static DiffResult compare(String textLeft, String textRight, boolean ignoreWhitespace, boolean ignoreCase) {
+        List<String> linesLeft = splitLines(textLeft);
+        List<String> linesRight = splitLines(textRight);
+        int[][] ids = LineDiff.intern(linesLeft, linesRight, LineDiff.normalizer(ignoreWhitespace, ignoreCase));
+        List<LineDiff.Edit> edits = LineDiff.diff(ids[0], ids[1]);
+        
+        DiffResult result = new DiffResult();
+        result.ignoreWhitespace = ignoreWhitespace;
+        result.ignoreCase = ignoreCase;
+        result.linesLeft = linesLeft.size();
+        result.linesRight = linesRight.size();
+        for (LineDiff.Edit edit : edits) {
+            result.deleted += edit.getEndA() - edit.getBeginA();
+            result.inserted += edit.getEndB() - edit.getBeginB();
+        }
+        result.same = result.linesLeft - result.deleted;
+        
+        StringBuilder text = new StringBuilder();
         try {
-            // 分割成行
-            String[] linesLeft = textLeft.split("\n", -1);
-            String[] linesRight = textRight.split("\n", -1);
-            
-            int maxLines = Math.max(linesLeft.length, linesRight.length);
-            StringBuilder result = new StringBuilder();
-            
-            int sameCount = 0;
-            int diffCount = 0;
-            
-            // 逐行对比
-            for (int i = 0; i < maxLines; i++) {
-                String lineLeft = i < linesLeft.length ? linesLeft[i] : "";
-                String lineRight = i < linesRight.length ? linesRight[i] : "";
-                
-                // 根据选项处理文本
-                String processedLeft = processLine(lineLeft);
-                String processedRight = processLine(lineRight);
-                
-                boolean isSame = processedLeft.equals(processedRight);
-                
-                if (isSame) {
-                    sameCount++;
-                    result.append(String.format("[=] 行 %d: %s\n", i + 1, lineLeft));
-                } else {
-                    diffCount++;
-                    result.append(String.format("[!] 行 %d:\n", i + 1));
-                    result.append(String.format("    A: %s\n", lineLeft.isEmpty() ? "(空行)" : lineLeft));
-                    result.append(String.format("    B: %s\n", lineRight.isEmpty() ? "(空行)" : lineRight));
+            UnifiedDiff.write("文本 A", "文本 B", linesLeft, linesRight, edits, UnifiedDiff.DEFAULT_CONTEXT, text);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        result.text = edits.isEmpty() ? "两段文本没有差异" : text.toString();
+        pairRows(result);
+        return result;
+    }
+    
+    /**
+     * 按逻辑行扫描结果（超长行被切成的续行跟随首行），把每段连续删除行与紧随其后的新增行按顺序一一配对，
+     * 行内差异只在配对行之间计算。配对关系记录在各逻辑行的首个显示行上
+     */
+    private static void pairRows(DiffResult result) {
+        StringTextSource rows = new StringTextSource(result.text);
+        int[] partner = new int[rows.rowCount()];
+        Arrays.fill(partner, -1);
+        List<Integer> deletes = new ArrayList<>();
+        int inserts = 0;
+        char previous = ' ';
+        int line = 0;
+        for (int row = 0; row < partner.length; row++) {
+            if (row > 0 && !rows.endsLine(row - 1)) {
+                continue;
+            }
+            // 前两行是文件头
+            if (line++ < 2) {
+                continue;
+            }
+            String text = rows.row(row);
+            char first = text.isEmpty() ? ' ' : text.charAt(0);
+            if (first == '-') {
+                if (previous != '-') {
+                    deletes.clear();
+                }
+                deletes.add(row);
+            } else if (first == '+') {
+                if (previous == '-') {
+                    inserts = 0;
+                } else if (previous != '+') {
+                    deletes.clear();
                 }
+                if (inserts < deletes.size()) {
+                    int paired = deletes.get(inserts);
+                    partner[row] = paired;
+                    partner[paired] = row;
+                }
+                inserts++;
+            }
+            previous = first;
+        }
+        result.partner = partner;
+    }
+    
+    private void showResult(DiffResult result) {
+        currentResult = result;
+        resultTextView.setText(result.text);
+        replaceOutputFile(null);
+        
+        // 更新统计信息
+        totalLinesLabel.setText("总行数: A " + result.linesLeft + " / B " + result.linesRight);
+        sameLinesLabel.setText("相同: " + result.same);
+        diffLinesLabel.setText("不同: -" + result.deleted + " +" + result.inserted);
+        
+        // 相似度按公共行占两侧总行数的比例计算
+        int total = result.linesLeft + result.linesRight;
+        double similarity = total > 0 ? 2.0 * result.same / total * 100 : 0;
+        similarityLabel.setText(String.format("相似度: %.1f%%", similarity));
+    }
+    
+    /**
+     * 渲染结果中的一行：删除行红色、新增行绿色、@@ 行紫色，配对行中变化的部分加粗并加下划线。
+     * 续行按所属逻辑行的首字符着色，行内差异按整条逻辑行计算后截取本行对应的部分
+     */
+    private Node renderRow(int index, String row) {
+        DiffResult result = currentResult;
+        TextSource source = resultTextView.getSource();
+        if (result == null || source == null || row.isEmpty()) {
+            return null;
+        }
+        int start = lineStart(source, index);
+        String head = start == index ? row : source.row(start);
+        if (head.isEmpty()) {
+            return null;
+        }
+        char first = head.charAt(0);
+        if (head.startsWith("@@")) {
+            return textFlow(styledText(row, HUNK_STYLE));
+        }
+        if (first != '-' && first != '+') {
+            return null;
+        }
+        boolean deleted = first == '-';
+        String style = deleted ? DELETED_STYLE : INSERTED_STYLE;
+        // 文件 / 目录对比的结果没有配对信息，只按行首着色
+        int partner = result.partner == null || start >= result.partner.length ? -1 : result.partner[start];
+        if (partner < 0) {
+            return textFlow(styledText(row, style));
+        }
+        int[] changed = changedRanges(result, source, deleted ? start : partner, deleted ? partner : start, deleted);
+        String changedStyle = deleted ? DELETED_CHANGED_STYLE : INSERTED_CHANGED_STYLE;
+        
+        // 本行在逻辑行中的起始位置，变化区间按逻辑行下标（含行首的 -/+）换算到本行
+        int offset = 0;
+        for (int i = start; i < index; i++) {
+            offset += source.row(i).length();
+        }
+        List<Text> parts = new ArrayList<>();
+        int position = 0;
+        if (index == start) {
+            parts.add(styledText(String.valueOf(first), style));
+            position = 1;
+        }
+        for (int i = 0; i < changed.length; i += 2) {
+            int begin = Math.max(changed[i] + 1 - offset, position);
+            int end = Math.min(changed[i + 1] + 1 - offset, row.length());
+            if (end <= begin) {
+                continue;
             }
-            
-            // 显示结果
-            resultTextArea.setText(result.toString());
-            
-            // 更新统计信息
-            totalLinesLabel.setText("总行数: " + maxLines);
-            sameLinesLabel.setText("相同: " + sameCount);
-            diffLinesLabel.setText("不同: " + diffCount);
-            
-            // 计算相似度
-            double similarity = maxLines > 0 ? (double) sameCount / maxLines * 100 : 0;
-            similarityLabel.setText(String.format("相似度: %.1f%%", similarity));
-            
-            Stage stage = (Stage) textAreaLeft.getScene().getWindow();
-            NotificationUtil.showSuccess(stage, "文本对比完成！");
-            
-        } catch (Exception e) {
-            logger.error("文本对比失败", e);
-            Stage stage = (Stage) textAreaLeft.getScene().getWindow();
-            NotificationUtil.showError(stage, "对比失败: " + e.getMessage());
+            if (begin > position) {
+                parts.add(styledText(row.substring(position, begin), style));
+            }
+            parts.add(styledText(row.substring(begin, end), changedStyle));
+            position = end;
+        }
+        if (position < row.length()) {
+            parts.add(styledText(row.substring(position), style));
         }
+        return textFlow(parts.toArray(new Text[0]));
+    }
+    
+    /**
+     * 显示行所属逻辑行的首个显示行
+     */
+    private static int lineStart(TextSource source, int index) {
+        int start = index;
+        while (start > 0 && !source.endsLine(start - 1)) {
+            start--;
+        }
+        return start;
+    }
+    
+    /**
+     * 逻辑行的完整内容：从首个显示行拼接到以换行结束的显示行
+     */
+    private static String logicalLine(TextSource source, int start) {
+        String row = source.row(start);
+        if (source.endsLine(start)) {
+            return row;
+        }
+        StringBuilder line = new StringBuilder(row);
+        int index = start;
+        while (!source.endsLine(index) && index + 1 < source.rowCount()) {
+            line.append(source.row(++index));
+        }
+        return line.toString();
+    }
+    
+    /**
+     * 一对配对行中当前一侧的变化区间（不含行首的 -/+），一条逻辑行的所有显示行共用同一次计算结果
+     */
+    private static int[] changedRanges(DiffResult result, TextSource source, int deletedRow, int insertedRow,
+                                       boolean deleted) {
+        if (result.inlineRow != deletedRow || result.inlineRanges == null) {
+            String left = logicalLine(source, deletedRow).substring(1);
+            String right = logicalLine(source, insertedRow).substring(1);
+            result.inlineRanges = InlineDiff.changedRanges(left, right, result.ignoreWhitespace, result.ignoreCase);
+            result.inlineRow = deletedRow;
+        }
+        return deleted ? result.inlineRanges[0] : result.inlineRanges[1];
+    }
+    
+    private static TextFlow textFlow(Text... texts) {
+        TextFlow flow = new TextFlow(texts);
+        // 不随单元格宽度折行
+        flow.setMinWidth(Region.USE_PREF_SIZE);
+        return flow;
+    }
+    
+    private static Text styledText(String content, String style) {
+        Text text = new Text(content);
+        text.setStyle(style);
+        return text;
+    }
+    
+    private static List<String> splitLines(String text) {
+        String[] lines = text.split("\n", -1);
+        List<String> result = new ArrayList<>(lines.length);
+        for (String line : lines) {
+            result.add(line.endsWith("\r") ? line.substring(0, line.length() - 1) : line);
+        }
+        return result;
     }
     
     /**
@@ -147,7 +492,9 @@ public class TextDiffController implements Initializable {
     public void handleClearButtonClick() {
         textAreaLeft.clear();
         textAreaRight.clear();
-        resultTextArea.clear();
+        currentResult = null;
+        resultTextView.clear();
+        replaceOutputFile(null);
         
         totalLinesLabel.setText("总行数: 0");
         sameLinesLabel.setText("相同: 0");
@@ -172,21 +519,35 @@ public class TextDiffController implements Initializable {
     }
     
     /**
-     * 处理行内容（根据选项）
+     * 文件 / 目录对比结果
      */
-    private String processLine(String line) {
-        String processed = line;
+    private static final class FileDiffResult {
+        private final Path output;
+        private final FileTreeDiff.Summary summary;
         
-        // 忽略空格
-        if (ignoreWhitespaceCheckBox.isSelected()) {
-            processed = processed.replaceAll("\\s+", "");
+        private FileDiffResult(Path output, FileTreeDiff.Summary summary) {
+            this.output = output;
+            this.summary = summary;
         }
-        
-        // 忽略大小写
-        if (ignoreCaseCheckBox.isSelected()) {
-            processed = processed.toLowerCase();
-        }
-        
-        return processed;
+    }
+    
+    /**
+     * 对比结果
+     */
+    private static final class DiffResult {
+        private String text;
+        private int[] partner;
+        /**
+         * 最近一次计算行内差异的删除行及结果，同一逻辑行的续行渲染时直接复用
+         */
+        private int inlineRow = -1;
+        private int[][] inlineRanges;
+        private boolean ignoreWhitespace;
+        private boolean ignoreCase;
+        private int linesLeft;
+        private int linesRight;
+        private int same;
+        private int deleted;
+        private int inserted;
     }
 }
@@ -17,6 +17,7 @@ import javafx.stage.Stage;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 import org.freedom.cleanprocess.ProcessApp;
+import org.freedom.cleanprocess.component.LargeTextView;
 import org.freedom.cleanprocess.component.NotificationUtil;
 import org.freedom.cleanprocess.util.SceneUtil;
 import org.json.JSONObject;
@@ -41,7 +42,7 @@ public class XmlToJsonController implements Initializable {
     private TextArea inputTextArea;
     
     @FXML
-    private TextArea outputTextArea;
+    private LargeTextView outputTextView;
     
     @FXML
     private CheckBox prettyPrintCheckBox;
@@ -100,7 +101,7 @@ public class XmlToJsonController implements Initializable {
                 jsonString = prettyGson.toJson(jsonElement);
             }
             
-            outputTextArea.setText(jsonString);
+            outputTextView.setText(jsonString);
             
             Stage stage = (Stage) inputTextArea.getScene().getWindow();
             NotificationUtil.showSuccess(stage, "✅ XML转JSON成功！");
@@ -137,7 +138,7 @@ public class XmlToJsonController implements Initializable {
                 xmlString = formatXml(xmlString);
             }
             
-            outputTextArea.setText(xmlString);
+            outputTextView.setText(xmlString);
             
             Stage stage = (Stage) inputTextArea.getScene().getWindow();
             NotificationUtil.showSuccess(stage, "✅ JSON转XML成功！");
@@ -155,7 +156,7 @@ public class XmlToJsonController implements Initializable {
     @FXML
     public void handleClearButtonClick() {
         inputTextArea.clear();
-        outputTextArea.clear();
+        outputTextView.clear();
         
         Stage stage = (Stage) inputTextArea.getScene().getWindow();
         NotificationUtil.showInfo(stage, "已清空所有内容");
@@ -166,10 +167,10 @@ public class XmlToJsonController implements Initializable {
      */
     @FXML
     public void handleCopyButtonClick() {
-        String output = outputTextArea.getText().trim();
+        String output = outputTextView.getText().trim();
         
         if (output.isEmpty()) {
-            Stage stage = (Stage) outputTextArea.getScene().getWindow();
+            Stage stage = (Stage) outputTextView.getScene().getWindow();
             NotificationUtil.showWarning(stage, "输出结果为空，无法复制");
             return;
         }
@@ -180,7 +181,7 @@ public class XmlToJsonController implements Initializable {
         content.putString(output);
         clipboard.setContent(content);
         
-        Stage stage = (Stage) outputTextArea.getScene().getWindow();
+        Stage stage = (Stage) outputTextView.getScene().getWindow();
         NotificationUtil.showSuccess(stage, "📋 已复制到剪贴板！");
     }
     
@@ -0,0 +1,263 @@
+package org.freedom.cleanprocess.cli;
+
+import com.google.gson.stream.JsonWriter;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.service.JvmInfoCache;
+import org.freedom.cleanprocess.service.MetricArchive;
+import org.freedom.cleanprocess.service.MetricHistory;
+import org.freedom.cleanprocess.service.MetricsExporter;
+import org.freedom.cleanprocess.service.PerfDataReader;
+import org.freedom.cleanprocess.service.ProcessCollector;
+import org.freedom.cleanprocess.service.ProcessDiscovery;
+import org.freedom.cleanprocess.service.ProcessMonitor;
+import org.freedom.cleanprocess.service.ProcessRuleStore;
+import org.freedom.cleanprocess.service.ProcessTerminator;
+import org.freedom.cleanprocess.service.WatchdogEngine;
+import org.freedom.cleanprocess.service.WatchdogPolicyStore;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 无界面（headless）模式入口，不加载 JavaFX 图形工具包，按固定间隔把进程指标输出到标准输出，
+ * 同时按 data/watchdog-policies.json 执行看门狗策略
+ * <p>
+ * 用法: java -cp cleanProcess.jar org.freedom.cleanprocess.cli.HeadlessApp [--interval=毫秒] [--format=json|table|none]
+ * [--count=次数] [--metrics-port=端口] [--metrics-bind=监听地址，默认只监听回环地址]
+ * <p>
+ * 回放: HeadlessApp --replay=yyyy-MM-dd，按行输出当天保存的分钟汇总
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class HeadlessApp {
+
+    private final long intervalMillis;
+    private final boolean json;
+    private final long count;
+    private final int metricsPort;
+    private final String metricsBind;
+    private final PrintStream out = new PrintStream(System.out, false, StandardCharsets.UTF_8);
+
+    /**
+     * 只提供 /metrics 端点，不向标准输出打印
+     */
+    private final boolean quiet;
+
+    private HeadlessApp(long intervalMillis, boolean json, boolean quiet, long count, int metricsPort,
+                        String metricsBind) {
+        this.intervalMillis = intervalMillis;
+        this.json = json;
+        this.quiet = quiet;
+        this.count = count;
+        this.metricsPort = metricsPort;
+        this.metricsBind = metricsBind;
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        // 标准输出留给采样数据，控制台日志改为输出到标准错误，必须在创建任何 Logger 之前设置
+        System.setProperty("cleanprocess.console.target", "SYSTEM_ERR");
+        long interval = 1000;
+        boolean json = true;
+        boolean quiet = false;
+        long count = 0;
+        int metricsPort = -1;
+        String metricsBind = null;
+        String replay = null;
+        for (String arg : args) {
+            if (arg.startsWith("--interval=")) {
+                interval = Long.parseLong(arg.substring("--interval=".length()));
+            } else if (arg.startsWith("--format=")) {
+                String format = arg.substring("--format=".length());
+                json = !"table".equalsIgnoreCase(format);
+                quiet = "none".equalsIgnoreCase(format);
+            } else if (arg.startsWith("--count=")) {
+                count = Long.parseLong(arg.substring("--count=".length()));
+            } else if (arg.startsWith("--metrics-port=")) {
+                metricsPort = Integer.parseInt(arg.substring("--metrics-port=".length()));
+            } else if (arg.startsWith("--metrics-bind=")) {
+                metricsBind = arg.substring("--metrics-bind=".length());
+            } else if (arg.startsWith("--replay=")) {
+                replay = arg.substring("--replay=".length());
+            } else if (arg.equals("--help")) {
+                System.out.println("用法: HeadlessApp [--interval=毫秒] [--format=json|table|none] [--count=次数] [--metrics-port=端口] [--metrics-bind=地址]");
+                System.out.println("      HeadlessApp --replay=yyyy-MM-dd");
+                return;
+            }
+        }
+        if (replay != null) {
+            new HeadlessApp(interval, true, false, 0, -1, null).replay(LocalDate.parse(replay));
+            return;
+        }
+        new HeadlessApp(interval, json, quiet, count, metricsPort, metricsBind).run();
+    }
+
+    private void run() throws InterruptedException {
+        MetricsExporter exporter = null;
+        Logger logger = LogManager.getLogger(HeadlessApp.class);
+        PerfDataReader perfDataReader = new PerfDataReader();
+        ProcessCollector collector = new ProcessCollector(ProcessDiscovery.defaultDiscovery(), perfDataReader,
+                new JvmInfoCache(perfDataReader));
+        collector.setFilter(new ProcessRuleStore().loadFilter());
+        ProcessMonitor monitor = new ProcessMonitor(collector);
+        WatchdogEngine watchdog = new WatchdogEngine();
+        new WatchdogPolicyStore().loadInto(watchdog);
+        if (watchdog.hasPolicies()) {
+            ProcessTerminator terminator = new ProcessTerminator();
+            watchdog.addListener(event -> {
+                if (event.shouldTerminate()) {
+                    // 策略判定到结束之间 PID 可能已被复用，带上快照的启动时间核对
+                    ProcessInfo target = event.getProcessInfo();
+                    terminator.terminate(target.getPid(), target.getStartTime()).thenAccept(result ->
+                            logger.warn("看门狗结束进程 {}: {}", result.getPid(), result.getOutcome()));
+                }
+            });
+            monitor.addListener(watchdog);
+        }
+        CountDownLatch finished = new CountDownLatch(1);
+        AtomicLong printed = new AtomicLong();
+        if (metricsPort >= 0) {
+            exporter = new MetricsExporter(metricsBind, metricsPort);
+            try {
+                exporter.start();
+            } catch (IOException e) {
+                logger.error("启动指标导出端点失败, port = {}", metricsPort, e);
+                return;
+            }
+            monitor.addListener(exporter);
+        }
+        MetricArchive archive = MetricArchive.fromSystemProperty();
+        if (archive != null) {
+            monitor.addListener(archive);
+        }
+        monitor.addListener(processes -> {
+            if (!quiet) {
+                print(processes);
+            }
+            if (count > 0 && printed.incrementAndGet() >= count) {
+                finished.countDown();
+            }
+        });
+        monitor.setIntervalMillis(intervalMillis);
+        monitor.start();
+        logger.info("headless 模式已启动，采样间隔 {} ms", monitor.getIntervalMillis());
+        finished.await();
+        monitor.shutdown();
+        collector.close();
+        if (exporter != null) {
+            exporter.stop();
+        }
+    }
+
+    private void print(List<ProcessInfo> processes) {
+        try {
+            if (json) {
+                writeJson(processes);
+            } else {
+                writeTable(processes);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * 每个快照输出一行 JSON
+     */
+    private void writeJson(List<ProcessInfo> processes) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        jsonWriter.beginObject();
+        jsonWriter.name("timestamp").value(System.currentTimeMillis());
+        jsonWriter.name("processes").beginArray();
+        for (ProcessInfo processInfo : processes) {
+            jsonWriter.beginObject();
+            jsonWriter.name("pid").value(processInfo.getPid());
+            jsonWriter.name("name").value(processInfo.getName());
+            jsonWriter.name("type").value(processInfo.getProcessType());
+            jsonWriter.name("startTime").value(processInfo.getStartTime());
+            jsonWriter.name("memory").value(processInfo.getMemory());
+            jsonWriter.name("heap").value(processInfo.getHeap());
+            jsonWriter.name("nonHeap").value(processInfo.getNonHeap());
+            jsonWriter.name("rss").value(processInfo.getRss());
+            jsonWriter.name("cpu").value(processInfo.getCpu());
+            jsonWriter.name("threads").value(processInfo.getThreads());
+            jsonWriter.name("youngGcRate").value(processInfo.getYoungGcRate());
+            jsonWriter.name("fullGcRate").value(processInfo.getFullGcRate());
+            jsonWriter.name("gcTimePercent").value(processInfo.getGcTimePercent());
+            jsonWriter.name("allocationRate").value(processInfo.getAllocationRate());
+            jsonWriter.name("promotionRate").value(processInfo.getPromotionRate());
+            jsonWriter.name("user").value(processInfo.getUser());
+            jsonWriter.name("jvm").value(processInfo.getJvm());
+            jsonWriter.endObject();
+        }
+        jsonWriter.endArray();
+        jsonWriter.endObject();
+        jsonWriter.flush();
+        writer.write('\n');
+        writer.flush();
+    }
+
+    /**
+     * 每个进程每分钟输出一行 JSON
+     */
+    private void replay(LocalDate day) {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        JsonWriter jsonWriter = new JsonWriter(writer);
+        try {
+            MetricArchive.readRollups(Paths.get("data", "metrics"), day, (timestamp, pid, startTime, name, values) -> {
+                try {
+                    jsonWriter.beginObject();
+                    jsonWriter.name("timestamp").value(timestamp);
+                    jsonWriter.name("pid").value(pid);
+                    jsonWriter.name("name").value(name);
+                    jsonWriter.name("startTime").value(startTime);
+                    jsonWriter.name("samples").value(values[MetricArchive.ROLLUP_COUNT]);
+                    jsonWriter.name("memory").value(values[MetricHistory.MEMORY]);
+                    jsonWriter.name("maxMemory").value(values[MetricArchive.ROLLUP_MAX + MetricHistory.MEMORY]);
+                    jsonWriter.name("heap").value(values[MetricHistory.HEAP]);
+                    jsonWriter.name("maxHeap").value(values[MetricArchive.ROLLUP_MAX + MetricHistory.HEAP]);
+                    jsonWriter.name("rss").value(values[MetricHistory.RSS]);
+                    jsonWriter.name("maxRss").value(values[MetricArchive.ROLLUP_MAX + MetricHistory.RSS]);
+                    jsonWriter.name("cpu").value(values[MetricHistory.CPU] / 100.0);
+                    jsonWriter.name("maxCpu").value(values[MetricArchive.ROLLUP_MAX + MetricHistory.CPU] / 100.0);
+                    jsonWriter.endObject();
+                    jsonWriter.flush();
+                    writer.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void writeTable(List<ProcessInfo> processes) {
+        StringBuilder builder = new StringBuilder(128 * (processes.size() + 2));
+        builder.append(String.format("%-8s %-30s %-7s %10s %10s %7s %7s %8s %7s %10s%n",
+                "PID", "NAME", "TYPE", "MEM(MB)", "RSS(MB)", "CPU%", "THREADS", "YGC/s", "GC%", "ALLOC MB/s"));
+        for (ProcessInfo processInfo : processes) {
+            builder.append(String.format("%-8d %-30.30s %-7s %10s %10d %7.1f %7d %8.2f %7.2f %10.1f%n",
+                    processInfo.getPid(), processInfo.getName(), processInfo.getProcessType(),
+                    processInfo.getMemory() < 0 ? "-" : String.valueOf(processInfo.getMemory() / 1024 / 1024),
+                    processInfo.getRss() / 1024 / 1024, processInfo.getCpu(), processInfo.getThreads(),
+                    processInfo.getYoungGcRate(), processInfo.getGcTimePercent(),
+                    processInfo.getAllocationRate() / 1024 / 1024));
+        }
+        builder.append(System.lineSeparator());
+        out.print(builder);
+        out.flush();
+    }
+}
@@ -0,0 +1,255 @@
+package org.freedom.cleanprocess.component;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * @description: UTF-8 文件数据源，按位置用 FileChannel.read 分块读取，不做内存映射：
+ * 映射区要等 GC 才会解除，Windows 上在此之前文件无法删除，而 close 之后这里不再持有任何文件资源。
+ * 后台线程顺序扫描建立稀疏行索引（每 64 行记录一个起始偏移），扫描过程中已索引的行即可显示；
+ * 读取某行时从所在块的检查点向后扫描，并缓存最近一个块的行边界和最近读取的 64KB 数据。
+ * 索引大小约为行数的 1/8 字节，1GB 的文件也只需要几 MB
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class FileTextSource implements TextSource {
+    private static final Logger logger = LogManager.getLogger(FileTextSource.class);
+
+    private static final int BLOCK = 64;
+    private static final int WINDOW_SIZE = 64 * 1024;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final long size;
+
+    private volatile long[] checkpoints = new long[1024];
+    private volatile int rowCount;
+    private volatile boolean complete;
+    private volatile boolean closed;
+
+    private int cachedBlock = -1;
+    private final long[] blockStarts = new long[BLOCK + 1];
+    /**
+     * 界面线程读取行内容用的缓存，索引线程使用自己的窗口
+     */
+    private final Window window;
+
+    private FileTextSource(Path path, FileChannel channel, long size) {
+        this.path = path;
+        this.channel = channel;
+        this.size = size;
+        this.window = new Window(channel);
+    }
+
+    /**
+     * 打开文件并在后台开始建索引
+     *
+     * @param onProgress 索引有进展时在后台线程上回调，调用方自行切换线程
+     */
+    public static FileTextSource open(Path path, Runnable onProgress) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            FileTextSource source = new FileTextSource(path, channel, channel.size());
+            Thread indexer = new Thread(() -> source.buildIndex(onProgress), "text-indexer");
+            indexer.setDaemon(true);
+            indexer.start();
+            return source;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public int rowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public boolean isComplete() {
+        return complete;
+    }
+
+    @Override
+    public synchronized String row(int index) {
+        try {
+            loadBlock(index / BLOCK);
+            long from = blockStarts[index % BLOCK];
+            long to = blockStarts[index % BLOCK + 1];
+            byte[] bytes = new byte[(int) (to - from)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = window.byteAt(from + i);
+            }
+            int length = bytes.length;
+            if (length > 0 && bytes[length - 1] == '\n') {
+                length--;
+            }
+            if (length > 0 && bytes[length - 1] == '\r') {
+                length--;
+            }
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            logger.warn("读取文件失败: {}: {}", path, e.toString());
+            return "";
+        }
+    }
+
+    @Override
+    public synchronized boolean endsLine(int index) {
+        try {
+            loadBlock(index / BLOCK);
+            long to = blockStarts[index % BLOCK + 1];
+            return to >= size || window.byteAt(to - 1) == '\n';
+        } catch (IOException e) {
+            logger.warn("读取文件失败: {}: {}", path, e.toString());
+            return true;
+        }
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        try {
+            channel.close();
+        } catch (IOException e) {
+            logger.warn("关闭文件失败: {}", path, e);
+        }
+    }
+
+    /**
+     * 从检查点向后扫描出一个块内各行的起始偏移
+     */
+    private void loadBlock(int block) throws IOException {
+        if (block == cachedBlock) {
+            return;
+        }
+        long start = checkpoints[block];
+        blockStarts[0] = start;
+        for (int i = 1; i <= BLOCK; i++) {
+            start = start < size ? nextRowStart(window, start) : size;
+            blockStarts[i] = start;
+        }
+        cachedBlock = block;
+    }
+
+    private void buildIndex(Runnable onProgress) {
+        Window view = new Window(channel);
+        long started = System.nanoTime();
+        long lastNotify = started;
+        long start = 0;
+        int rows = 0;
+        try {
+            while (start < size && !closed) {
+                if (rows % BLOCK == 0) {
+                    long[] current = checkpoints;
+                    int block = rows / BLOCK;
+                    if (block == current.length) {
+                        current = Arrays.copyOf(current, block * 2);
+                        checkpoints = current;
+                    }
+                    current[block] = start;
+                }
+                start = nextRowStart(view, start);
+                rows++;
+                if ((rows & 0xFFF) == 0) {
+                    rowCount = rows;
+                    long now = System.nanoTime();
+                    if (now - lastNotify > 100_000_000L) {
+                        lastNotify = now;
+                        onProgress.run();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            // 关闭数据源时通道被关闭，属于正常结束
+            if (!closed) {
+                logger.error("建立文件索引失败: {}", path, e);
+            }
+        }
+        rowCount = rows;
+        complete = true;
+        onProgress.run();
+        logger.info("文件 {} 索引完成: {} 行, 耗时 {} ms", path, rows, (System.nanoTime() - started) / 1_000_000);
+    }
+
+    /**
+     * 下一行的起始偏移，超长行只在 UTF-8 首字节处切开
+     */
+    private long nextRowStart(Window view, long start) throws IOException {
+        long p = start;
+        long rowLimit = start + MAX_ROW_LENGTH;
+        while (p < size) {
+            // 在窗口内用 int 下标扫描，越过窗口时再读下一段
+            view.load(p);
+            byte[] data = view.data;
+            long offset = view.offset;
+            for (int i = (int) (p - offset); i < view.length; i++) {
+                byte b = data[i];
+                if (b == '\n') {
+                    return offset + i + 1;
+                }
+                if (offset + i >= rowLimit && (b & 0xC0) != 0x80) {
+                    return offset + i;
+                }
+            }
+            p = offset + view.length;
+        }
+        return size;
+    }
+
+    /**
+     * 文件中一段连续字节的缓存
+     */
+    private static final class Window {
+        private final FileChannel channel;
+        private final byte[] data = new byte[WINDOW_SIZE];
+        private long offset;
+        private int length;
+
+        Window(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        /**
+         * 确保 position 处的字节在窗口内，窗口从 position 开始重新读取
+         */
+        void load(long position) throws IOException {
+            if (position >= offset && position < offset + length) {
+                return;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(data);
+            // 按位置读取不改变通道的当前位置，两个窗口可以在不同线程上同时读
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    break;
+                }
+            }
+            offset = position;
+            length = buffer.position();
+            if (length == 0) {
+                throw new IOException("文件在读取过程中被截断");
+            }
+        }
+
+        byte byteAt(long position) throws IOException {
+            load(position);
+            return data[(int) (position - offset)];
+        }
+    }
+}
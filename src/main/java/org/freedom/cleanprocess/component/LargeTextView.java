@@ -0,0 +1,234 @@
+package org.freedom.cleanprocess.component;
+
+import javafx.application.Platform;
+import javafx.collections.ObservableListBase;
+import javafx.scene.Node;
+import javafx.scene.control.Label;
+import javafx.scene.control.ListCell;
+import javafx.scene.control.ListView;
+import javafx.scene.control.SelectionMode;
+import javafx.scene.input.Clipboard;
+import javafx.scene.input.ClipboardContent;
+import javafx.scene.input.KeyCode;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+
+/**
+ * @description: 只读的大文本查看器，替代工具页中的 TextArea 显示结果。列表项只是行号，
+ * 单元格渲染时才向 {@link TextSource} 取对应行，界面上只存在可见的几十行；
+ * 文件按需分块读取，后台建索引的同时即可滚动查看。支持多选行后 Ctrl+C 复制
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class LargeTextView extends ListView<Integer> {
+    private final RowList rows = new RowList();
+    private final Label placeholder = new Label();
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+    private TextSource source;
+    private String text = "";
+    private Path file;
+    private BiFunction<Integer, String, Node> rowGraphicFactory;
+
+    public LargeTextView() {
+        setItems(rows);
+        setFixedCellSize(20);
+        setPlaceholder(placeholder);
+        placeholder.setStyle("-fx-text-fill: #a0aec0;");
+        getSelectionModel().setSelectionMode(SelectionMode.MULTIPLE);
+        setCellFactory(view -> new RowCell());
+        setOnKeyPressed(event -> {
+            if (event.isShortcutDown() && event.getCode() == KeyCode.C) {
+                copySelection();
+                event.consume();
+            }
+        });
+    }
+
+    public String getPromptText() {
+        return placeholder.getText();
+    }
+
+    public void setPromptText(String promptText) {
+        placeholder.setText(promptText);
+    }
+
+    /**
+     * 设置行渲染函数，参数为行号和行内容，返回 null 时按普通文本显示。
+     * 只对可见行调用，适合做高亮等按需计算
+     */
+    public void setRowGraphicFactory(BiFunction<Integer, String, Node> rowGraphicFactory) {
+        this.rowGraphicFactory = rowGraphicFactory;
+        refresh();
+    }
+
+    /**
+     * 显示内存中的文本
+     */
+    public void setText(String text) {
+        String value = text == null ? "" : text;
+        replace(new StringTextSource(value));
+        this.text = value;
+        this.file = null;
+    }
+
+    /**
+     * 当前显示的文本，显示的是文件时返回空字符串
+     */
+    public String getText() {
+        return text;
+    }
+
+    /**
+     * 当前数据源，没有显示内容时返回 null
+     */
+    public TextSource getSource() {
+        return source;
+    }
+
+    /**
+     * 当前显示的文件，显示的是内存文本时返回 null
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * 打开 UTF-8 文本文件，索引在后台建立，已索引的部分立即可见；切换内容或 clear 后文件句柄即被释放
+     */
+    public void openFile(Path path) throws IOException {
+        FileTextSource[] holder = new FileTextSource[1];
+        holder[0] = FileTextSource.open(path, () -> scheduleRefresh(holder[0]));
+        replace(holder[0]);
+        this.text = "";
+        this.file = path;
+    }
+
+    public void clear() {
+        replace(null);
+        text = "";
+        file = null;
+    }
+
+    /**
+     * 复制选中的行，没有选中时复制全部内存文本。超长行被切成的多个显示行按原样拼回一行
+     */
+    public void copySelection() {
+        if (source == null) {
+            return;
+        }
+        List<Integer> selected = new ArrayList<>(getSelectionModel().getSelectedIndices());
+        String content;
+        if (selected.isEmpty()) {
+            content = text;
+        } else {
+            selected.sort(null);
+            StringBuilder builder = new StringBuilder();
+            for (int i = 0; i < selected.size(); i++) {
+                int index = selected.get(i);
+                builder.append(source.row(index));
+                // 续行紧跟着被选中时不插入换行
+                boolean continued = !source.endsLine(index) && i + 1 < selected.size()
+                        && selected.get(i + 1) == index + 1;
+                if (!continued) {
+                    builder.append('\n');
+                }
+            }
+            content = builder.toString();
+        }
+        ClipboardContent clipboardContent = new ClipboardContent();
+        clipboardContent.putString(content);
+        Clipboard.getSystemClipboard().setContent(clipboardContent);
+    }
+
+    private void replace(TextSource newSource) {
+        if (source != null) {
+            source.close();
+        }
+        source = newSource;
+        getSelectionModel().clearSelection();
+        rows.setSize(newSource == null ? 0 : newSource.rowCount());
+        scrollTo(0);
+        refresh();
+    }
+
+    /**
+     * 索引线程汇报进展时合并成一次界面刷新
+     */
+    private void scheduleRefresh(TextSource indexing) {
+        if (refreshPending.compareAndSet(false, true)) {
+            Platform.runLater(() -> {
+                refreshPending.set(false);
+                if (source == indexing && indexing != null) {
+                    rows.setSize(indexing.rowCount());
+                }
+            });
+        }
+    }
+
+    private class RowCell extends ListCell<Integer> {
+        @Override
+        protected void updateItem(Integer item, boolean empty) {
+            super.updateItem(item, empty);
+            if (empty || item == null || source == null) {
+                setText(null);
+                setGraphic(null);
+                return;
+            }
+            String row = source.row(item);
+            Node graphic = rowGraphicFactory == null ? null : rowGraphicFactory.apply(item, row);
+            setGraphic(graphic);
+            setText(graphic == null ? row : null);
+        }
+    }
+
+    /**
+     * 元素就是下标本身的虚拟列表，不为每一行创建对象
+     */
+    private static final class RowList extends ObservableListBase<Integer> {
+        private int size;
+
+        @Override
+        public Integer get(int index) {
+            Objects.checkIndex(index, size);
+            return index;
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+
+        void setSize(int newSize) {
+            int oldSize = size;
+            if (newSize == oldSize) {
+                return;
+            }
+            beginChange();
+            if (newSize > oldSize) {
+                size = newSize;
+                nextAdd(oldSize, newSize);
+            } else {
+                size = newSize;
+                nextRemove(newSize, new AbstractList<Integer>() {
+                    @Override
+                    public Integer get(int index) {
+                        return newSize + index;
+                    }
+
+                    @Override
+                    public int size() {
+                        return oldSize - newSize;
+                    }
+                });
+            }
+            endChange();
+        }
+    }
+}
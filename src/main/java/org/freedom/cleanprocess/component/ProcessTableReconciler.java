@@ -0,0 +1,60 @@
+package org.freedom.cleanprocess.component;
+
+import javafx.collections.ObservableList;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @description: 进程表格增量更新：以 PID + 启动时间为键，只新增、移除行，已有行原地更新变化的字段，
+ * 保留选中状态和滚动位置
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ProcessTableReconciler {
+
+    private ProcessTableReconciler() {
+    }
+
+    /**
+     * 把最新采集结果合并到表格数据中，必须在 JavaFX 应用线程调用
+     *
+     * @return 发生变化的行数
+     */
+    public static int reconcile(ObservableList<ProcessInfo> items, List<ProcessInfo> latest) {
+        Map<String, ProcessInfo> pending = new LinkedHashMap<>(latest.size() * 2);
+        for (ProcessInfo processInfo : latest) {
+            pending.put(key(processInfo), processInfo);
+        }
+
+        // removeAll 会对每一行调用 contains，使用按引用比较的 Set 保证整体为 O(n)
+        Set<ProcessInfo> vanished = Collections.newSetFromMap(new IdentityHashMap<>());
+        int updated = 0;
+        for (ProcessInfo current : items) {
+            ProcessInfo fresh = pending.remove(key(current));
+            if (fresh == null) {
+                vanished.add(current);
+            } else if (current.update(fresh)) {
+                // 已有行原地更新属性，绑定的单元格自动刷新，不产生列表变更事件
+                updated++;
+            }
+        }
+        // 删除和新增都批量执行，每一步只产生一次列表变更事件
+        if (!vanished.isEmpty()) {
+            items.removeAll(vanished);
+        }
+        if (!pending.isEmpty()) {
+            items.addAll(pending.values());
+        }
+        return updated + vanished.size() + pending.size();
+    }
+
+    private static String key(ProcessInfo processInfo) {
+        return processInfo.getPid() + "@" + processInfo.getStartTime();
+    }
+}
@@ -0,0 +1,87 @@
+package org.freedom.cleanprocess.component;
+
+import javafx.beans.value.ChangeListener;
+import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.control.TableCell;
+import javafx.scene.paint.Color;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.service.MetricHistory;
+import org.freedom.cleanprocess.service.MetricHistoryStore;
+
+/**
+ * @description: 迷你趋势图单元格，绘制进程某项指标的最近历史；画布和采样缓冲区随单元格复用。
+ * 每次历史追加后都重绘，指标本身没有变化时趋势也会继续向前推进
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class SparklineTableCell extends TableCell<ProcessInfo, Number> {
+    private static final double WIDTH = 110;
+    private static final double HEIGHT = 22;
+
+    private final MetricHistoryStore store;
+    private final int metric;
+    private final Canvas canvas = new Canvas(WIDTH, HEIGHT);
+    private final long[] points = new long[(int) WIDTH];
+    /**
+     * 强引用由单元格持有，计数属性上只挂弱引用，表格丢弃单元格后不会因为这个监听器而无法回收
+     */
+    private final ChangeListener<Number> revisionListener = (obs, oldValue, newValue) -> redraw();
+
+    /**
+     * @param revision 历史每追加一次就变化一次的计数，变化时重绘
+     */
+    public SparklineTableCell(MetricHistoryStore store, int metric, ObservableValue<? extends Number> revision) {
+        this.store = store;
+        this.metric = metric;
+        revision.addListener(new WeakChangeListener<>(revisionListener));
+    }
+
+    @Override
+    protected void updateItem(Number item, boolean empty) {
+        super.updateItem(item, empty);
+        redraw();
+    }
+
+    private void redraw() {
+        ProcessInfo processInfo = isEmpty() || getTableRow() == null ? null : getTableRow().getItem();
+        MetricHistory history = processInfo == null ? null : store.get(processInfo.getPid());
+        if (history == null || history.size() < 2) {
+            setGraphic(null);
+            return;
+        }
+        draw(history);
+        setGraphic(canvas);
+    }
+
+    private void draw(MetricHistory history) {
+        int count = history.copyTo(metric, points);
+        long min = Long.MAX_VALUE;
+        long max = Long.MIN_VALUE;
+        for (int i = 0; i < count; i++) {
+            min = Math.min(min, points[i]);
+            max = Math.max(max, points[i]);
+        }
+        double range = Math.max(1, max - min);
+        double step = WIDTH / (points.length - 1);
+        double offset = WIDTH - (count - 1) * step;
+
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.clearRect(0, 0, WIDTH, HEIGHT);
+        gc.setStroke(Color.web("#667eea"));
+        gc.setLineWidth(1.2);
+        gc.beginPath();
+        for (int i = 0; i < count; i++) {
+            double x = offset + i * step;
+            double y = HEIGHT - 2 - (points[i] - min) / range * (HEIGHT - 4);
+            if (i == 0) {
+                gc.moveTo(x, y);
+            } else {
+                gc.lineTo(x, y);
+            }
+        }
+        gc.stroke();
+    }
+}
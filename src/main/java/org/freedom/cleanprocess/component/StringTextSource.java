@@ -0,0 +1,74 @@
+package org.freedom.cleanprocess.component;
+
+import java.util.Arrays;
+
+/**
+ * @description: 内存字符串数据源，构造时一次性扫描出每行的起始下标
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class StringTextSource implements TextSource {
+    private final String text;
+    private int[] starts = new int[256];
+    private int rows;
+
+    public StringTextSource(String text) {
+        this.text = text;
+        int start = 0;
+        while (start < text.length()) {
+            if (rows == starts.length) {
+                starts = Arrays.copyOf(starts, rows * 2);
+            }
+            starts[rows++] = start;
+            start = nextRowStart(start);
+        }
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    @Override
+    public int rowCount() {
+        return rows;
+    }
+
+    @Override
+    public String row(int index) {
+        int from = starts[index];
+        int to = index + 1 < rows ? starts[index + 1] : text.length();
+        if (to > from && text.charAt(to - 1) == '\n') {
+            to--;
+        }
+        if (to > from && text.charAt(to - 1) == '\r') {
+            to--;
+        }
+        return text.substring(from, to);
+    }
+
+    @Override
+    public boolean endsLine(int index) {
+        return index + 1 >= rows || text.charAt(starts[index + 1] - 1) == '\n';
+    }
+
+    @Override
+    public boolean isComplete() {
+        return true;
+    }
+
+    /**
+     * 下一行的起始下标，超长行不在代理对中间切开
+     */
+    private int nextRowStart(int start) {
+        for (int p = start; p < text.length(); p++) {
+            char c = text.charAt(p);
+            if (c == '\n') {
+                return p + 1;
+            }
+            if (p - start >= MAX_ROW_LENGTH && !Character.isLowSurrogate(c)) {
+                return p;
+            }
+        }
+        return text.length();
+    }
+}
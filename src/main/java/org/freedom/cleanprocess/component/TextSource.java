@@ -0,0 +1,40 @@
+package org.freedom.cleanprocess.component;
+
+import java.io.Closeable;
+
+/**
+ * @description: 大文本查看器的数据源，按“显示行”访问：遇到换行或单行超过 {@link #MAX_ROW_LENGTH} 个字符/字节时
+ * 切分为新的一行，避免一个超长行（如压缩后的 JSON）撑爆单元格
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public interface TextSource extends Closeable {
+    /**
+     * 单个显示行的最大长度
+     */
+    int MAX_ROW_LENGTH = 4096;
+
+    /**
+     * 当前已知的行数，后台建索引时会逐渐增长
+     */
+    int rowCount();
+
+    /**
+     * 第 index 行的内容，不含换行符
+     */
+    String row(int index);
+
+    /**
+     * 第 index 行是否以换行结束（或是最后一行）；返回 false 表示该行是超长行被切开的前半段，下一行是它的续行
+     */
+    boolean endsLine(int index);
+
+    /**
+     * 索引是否已经建完
+     */
+    boolean isComplete();
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,36 @@
+package org.freedom.cleanprocess.entiy;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.Map;
+
+/**
+ * @description: JVM 启动信息，进程生命周期内不会变化
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+@Data
+@Builder
+public class JvmInfo {
+    /**
+     * 主类或 jar 路径
+     */
+    private String mainClass;
+    /**
+     * 完整命令（主类及程序参数）
+     */
+    private String command;
+    /**
+     * JVM 启动参数
+     */
+    private String vmArgs;
+    /**
+     * 通过 .hotspotrc 等方式设置的 JVM 标志
+     */
+    private String vmFlags;
+    /**
+     * 系统属性（仅包含 JVM 发布到性能计数器中的部分）
+     */
+    private Map<String, String> systemProperties;
+}
@@ -1,38 +1,432 @@
 package org.freedom.cleanprocess.entiy;
 
-import javafx.scene.control.Button;
+import javafx.beans.property.DoubleProperty;
+import javafx.beans.property.IntegerProperty;
+import javafx.beans.property.LongProperty;
+import javafx.beans.property.SimpleDoubleProperty;
+import javafx.beans.property.SimpleIntegerProperty;
+import javafx.beans.property.SimpleLongProperty;
+import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.StringProperty;
 import lombok.Builder;
-import lombok.Data;
+
+import java.util.Objects;
 
 
 /**
- * @description: 进程信息
+ * @description: 进程信息，字段以 JavaFX 属性暴露，表格列直接绑定属性，刷新时原地更新
  * @author: freedom
  * @date: 2025/3/14
  */
-@Data
-@Builder
 public class ProcessInfo {
+    /**
+     * 内存未知时的取值
+     */
+    public static final long UNKNOWN = -1;
+
     /**
      * 进程名称
      */
-    private String name;
+    private final StringProperty name = new SimpleStringProperty(this, "name");
+    /**
+     * 主类或 jar 路径（非 Java 进程为空），供过滤规则使用
+     */
+    private final StringProperty mainClass = new SimpleStringProperty(this, "mainClass");
+    /**
+     * 完整命令行（发现阶段能拿到的部分），供过滤规则使用
+     */
+    private final StringProperty command = new SimpleStringProperty(this, "command");
     /**
      * 进程ID
      */
-    private String pid;
+    private final LongProperty pid = new SimpleLongProperty(this, "pid");
+    /**
+     * 进程启动时间（毫秒时间戳），与 PID 一起唯一标识一个进程
+     */
+    private final LongProperty startTime = new SimpleLongProperty(this, "startTime");
+    /**
+     * 内存使用（字节）
+     */
+    private final LongProperty memory = new SimpleLongProperty(this, "memory", UNKNOWN);
     /**
-     * 内存使用
+     * 已使用堆内存（字节）
      */
-    private String memory;
+    private final LongProperty heap = new SimpleLongProperty(this, "heap", UNKNOWN);
+    /**
+     * 已使用非堆内存（字节）
+     */
+    private final LongProperty nonHeap = new SimpleLongProperty(this, "nonHeap", UNKNOWN);
     /**
      * 进程类型
      */
-    private String processType;
+    private final StringProperty processType = new SimpleStringProperty(this, "processType");
     /**
      * jvm参数
      */
-    private String jvm;
-    private Button button;
+    private final StringProperty jvm = new SimpleStringProperty(this, "jvm");
+    /**
+     * 常驻内存（字节）
+     */
+    private final LongProperty rss = new SimpleLongProperty(this, "rss");
+    /**
+     * CPU 使用率（%）
+     */
+    private final DoubleProperty cpu = new SimpleDoubleProperty(this, "cpu");
+    /**
+     * 线程数
+     */
+    private final IntegerProperty threads = new SimpleIntegerProperty(this, "threads");
+    /**
+     * 所属用户
+     */
+    private final StringProperty user = new SimpleStringProperty(this, "user");
+    /**
+     * Young GC 频率（次/秒）
+     */
+    private final DoubleProperty youngGcRate = new SimpleDoubleProperty(this, "youngGcRate");
+    /**
+     * Full GC 频率（次/秒）
+     */
+    private final DoubleProperty fullGcRate = new SimpleDoubleProperty(this, "fullGcRate");
+    /**
+     * GC 耗时占比（%）
+     */
+    private final DoubleProperty gcTimePercent = new SimpleDoubleProperty(this, "gcTimePercent");
+    /**
+     * 分配速率（字节/秒）
+     */
+    private final DoubleProperty allocationRate = new SimpleDoubleProperty(this, "allocationRate");
+    /**
+     * 晋升速率（字节/秒）
+     */
+    private final DoubleProperty promotionRate = new SimpleDoubleProperty(this, "promotionRate");
+
+    @Builder
+    private ProcessInfo(String name, String mainClass, String command, long pid, long startTime, Long memory,
+                        String processType, String jvm, long rss, double cpu, int threads, String user) {
+        this.name.set(name);
+        this.mainClass.set(mainClass);
+        this.command.set(command);
+        this.pid.set(pid);
+        this.startTime.set(startTime);
+        this.memory.set(memory == null ? UNKNOWN : memory);
+        this.processType.set(processType);
+        this.jvm.set(jvm);
+        this.rss.set(rss);
+        this.cpu.set(cpu);
+        this.threads.set(threads);
+        this.user.set(user);
+    }
+
+    /**
+     * 用同一进程的最新采样更新当前对象，只有值变化的属性会触发通知
+     *
+     * @return 是否有字段发生变化
+     */
+    public boolean update(ProcessInfo latest) {
+        boolean changed = false;
+        if (!Objects.equals(getName(), latest.getName())) {
+            setName(latest.getName());
+            changed = true;
+        }
+        if (!Objects.equals(getMainClass(), latest.getMainClass())) {
+            setMainClass(latest.getMainClass());
+            changed = true;
+        }
+        if (!Objects.equals(getCommand(), latest.getCommand())) {
+            setCommand(latest.getCommand());
+            changed = true;
+        }
+        if (getMemory() != latest.getMemory()) {
+            setMemory(latest.getMemory());
+            changed = true;
+        }
+        if (getHeap() != latest.getHeap()) {
+            setHeap(latest.getHeap());
+            changed = true;
+        }
+        if (getNonHeap() != latest.getNonHeap()) {
+            setNonHeap(latest.getNonHeap());
+            changed = true;
+        }
+        if (!Objects.equals(getProcessType(), latest.getProcessType())) {
+            setProcessType(latest.getProcessType());
+            changed = true;
+        }
+        if (!Objects.equals(getJvm(), latest.getJvm())) {
+            setJvm(latest.getJvm());
+            changed = true;
+        }
+        if (getRss() != latest.getRss()) {
+            setRss(latest.getRss());
+            changed = true;
+        }
+        if (getCpu() != latest.getCpu()) {
+            setCpu(latest.getCpu());
+            changed = true;
+        }
+        if (getThreads() != latest.getThreads()) {
+            setThreads(latest.getThreads());
+            changed = true;
+        }
+        if (!Objects.equals(getUser(), latest.getUser())) {
+            setUser(latest.getUser());
+            changed = true;
+        }
+        if (getYoungGcRate() != latest.getYoungGcRate()) {
+            setYoungGcRate(latest.getYoungGcRate());
+            changed = true;
+        }
+        if (getFullGcRate() != latest.getFullGcRate()) {
+            setFullGcRate(latest.getFullGcRate());
+            changed = true;
+        }
+        if (getGcTimePercent() != latest.getGcTimePercent()) {
+            setGcTimePercent(latest.getGcTimePercent());
+            changed = true;
+        }
+        if (getAllocationRate() != latest.getAllocationRate()) {
+            setAllocationRate(latest.getAllocationRate());
+            changed = true;
+        }
+        if (getPromotionRate() != latest.getPromotionRate()) {
+            setPromotionRate(latest.getPromotionRate());
+            changed = true;
+        }
+        return changed;
+    }
+
+    public String getName() {
+        return name.get();
+    }
+
+    public void setName(String name) {
+        this.name.set(name);
+    }
+
+    public StringProperty nameProperty() {
+        return name;
+    }
+
+    public String getMainClass() {
+        return mainClass.get();
+    }
+
+    public void setMainClass(String mainClass) {
+        this.mainClass.set(mainClass);
+    }
+
+    public StringProperty mainClassProperty() {
+        return mainClass;
+    }
+
+    public String getCommand() {
+        return command.get();
+    }
+
+    public void setCommand(String command) {
+        this.command.set(command);
+    }
+
+    public StringProperty commandProperty() {
+        return command;
+    }
+
+    public long getPid() {
+        return pid.get();
+    }
+
+    public void setPid(long pid) {
+        this.pid.set(pid);
+    }
+
+    public LongProperty pidProperty() {
+        return pid;
+    }
+
+    public long getStartTime() {
+        return startTime.get();
+    }
+
+    public void setStartTime(long startTime) {
+        this.startTime.set(startTime);
+    }
+
+    public LongProperty startTimeProperty() {
+        return startTime;
+    }
+
+    public long getMemory() {
+        return memory.get();
+    }
+
+    public void setMemory(long memory) {
+        this.memory.set(memory);
+    }
+
+    public LongProperty memoryProperty() {
+        return memory;
+    }
+
+    public long getHeap() {
+        return heap.get();
+    }
+
+    public void setHeap(long heap) {
+        this.heap.set(heap);
+    }
+
+    public LongProperty heapProperty() {
+        return heap;
+    }
+
+    public long getNonHeap() {
+        return nonHeap.get();
+    }
+
+    public void setNonHeap(long nonHeap) {
+        this.nonHeap.set(nonHeap);
+    }
+
+    public LongProperty nonHeapProperty() {
+        return nonHeap;
+    }
+
+    public String getProcessType() {
+        return processType.get();
+    }
+
+    public void setProcessType(String processType) {
+        this.processType.set(processType);
+    }
+
+    public StringProperty processTypeProperty() {
+        return processType;
+    }
+
+    public String getJvm() {
+        return jvm.get();
+    }
+
+    public void setJvm(String jvm) {
+        this.jvm.set(jvm);
+    }
+
+    public StringProperty jvmProperty() {
+        return jvm;
+    }
+
+    public long getRss() {
+        return rss.get();
+    }
+
+    public void setRss(long rss) {
+        this.rss.set(rss);
+    }
+
+    public LongProperty rssProperty() {
+        return rss;
+    }
+
+    public double getCpu() {
+        return cpu.get();
+    }
+
+    public void setCpu(double cpu) {
+        this.cpu.set(cpu);
+    }
+
+    public DoubleProperty cpuProperty() {
+        return cpu;
+    }
+
+    public int getThreads() {
+        return threads.get();
+    }
+
+    public void setThreads(int threads) {
+        this.threads.set(threads);
+    }
+
+    public IntegerProperty threadsProperty() {
+        return threads;
+    }
+
+    public String getUser() {
+        return user.get();
+    }
+
+    public void setUser(String user) {
+        this.user.set(user);
+    }
+
+    public StringProperty userProperty() {
+        return user;
+    }
+
+    public double getYoungGcRate() {
+        return youngGcRate.get();
+    }
+
+    public void setYoungGcRate(double youngGcRate) {
+        this.youngGcRate.set(youngGcRate);
+    }
+
+    public DoubleProperty youngGcRateProperty() {
+        return youngGcRate;
+    }
+
+    public double getFullGcRate() {
+        return fullGcRate.get();
+    }
+
+    public void setFullGcRate(double fullGcRate) {
+        this.fullGcRate.set(fullGcRate);
+    }
+
+    public DoubleProperty fullGcRateProperty() {
+        return fullGcRate;
+    }
+
+    public double getGcTimePercent() {
+        return gcTimePercent.get();
+    }
+
+    public void setGcTimePercent(double gcTimePercent) {
+        this.gcTimePercent.set(gcTimePercent);
+    }
+
+    public DoubleProperty gcTimePercentProperty() {
+        return gcTimePercent;
+    }
+
+    public double getAllocationRate() {
+        return allocationRate.get();
+    }
+
+    public void setAllocationRate(double allocationRate) {
+        this.allocationRate.set(allocationRate);
+    }
+
+    public DoubleProperty allocationRateProperty() {
+        return allocationRate;
+    }
+
+    public double getPromotionRate() {
+        return promotionRate.get();
+    }
+
+    public void setPromotionRate(double promotionRate) {
+        this.promotionRate.set(promotionRate);
+    }
+
+    public DoubleProperty promotionRateProperty() {
+        return promotionRate;
+    }
 
+    @Override
+    public String toString() {
+        return "ProcessInfo(name=" + getName() + ", pid=" + getPid() + ", memory=" + getMemory()
+                + ", processType=" + getProcessType() + ")";
+    }
 }
@@ -0,0 +1,61 @@
+package org.freedom.cleanprocess.entiy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @description: 进程过滤规则，一条规则内已设置的条件需要同时满足；未设置的条件不参与匹配
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProcessRule {
+
+    public enum Action {
+        /**
+         * 存在启用的包含规则时，只保留至少匹配一条包含规则的进程
+         */
+        INCLUDE,
+        /**
+         * 匹配任意一条排除规则的进程被跳过
+         */
+        EXCLUDE
+    }
+
+    /**
+     * 规则说明
+     */
+    private String name;
+    @Builder.Default
+    private boolean enabled = true;
+    private Action action;
+    /**
+     * 主类或 jar 路径的正则（查找匹配）
+     */
+    private String mainClass;
+    /**
+     * 命令行的正则（查找匹配）
+     */
+    private String args;
+    /**
+     * 所属用户的正则（完整匹配）
+     */
+    private String user;
+    /**
+     * 进程类型，Java 或 Native
+     */
+    private String processType;
+    /**
+     * 常驻内存不低于该值（MB）；发现阶段拿不到常驻内存的进程视为不满足
+     */
+    private Long minMemoryMb;
+    /**
+     * 常驻内存不高于该值（MB）；发现阶段拿不到常驻内存的进程视为不满足
+     */
+    private Long maxMemoryMb;
+}
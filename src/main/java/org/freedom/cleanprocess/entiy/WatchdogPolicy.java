@@ -0,0 +1,82 @@
+package org.freedom.cleanprocess.entiy;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * @description: 看门狗策略：指标持续超过阈值达到指定时长后触发动作，回落到解除阈值以下才会重新计时
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WatchdogPolicy {
+
+    public enum Metric {
+        /**
+         * 已使用堆内存（MB）
+         */
+        HEAP,
+        /**
+         * 内存占用（MB），与表格“内存使用”列一致
+         */
+        MEMORY,
+        /**
+         * 常驻内存（MB）
+         */
+        RSS,
+        /**
+         * CPU 使用率（%）
+         */
+        CPU,
+        /**
+         * GC 耗时占比（%）
+         */
+        GC_TIME
+    }
+
+    public enum Action {
+        /**
+         * 只发送通知
+         */
+        NOTIFY,
+        /**
+         * 结束进程
+         */
+        TERMINATE
+    }
+
+    /**
+     * 策略说明
+     */
+    private String name;
+    @Builder.Default
+    private boolean enabled = true;
+    private Metric metric;
+    /**
+     * 触发阈值，内存类指标单位为 MB，其余为 %
+     */
+    private double threshold;
+    /**
+     * 持续超过阈值多少秒后触发
+     */
+    private long durationSeconds;
+    /**
+     * 回差百分比：触发后指标需回落到 threshold * (1 - hysteresisPercent / 100) 以下才重新计时
+     */
+    @Builder.Default
+    private double hysteresisPercent = 10;
+    private Action action;
+    /**
+     * 只对主类或 jar 路径匹配该正则的进程生效，为空时对所有进程生效；TERMINATE 策略只作用于 Java 进程
+     */
+    private String mainClass;
+    /**
+     * 演练模式：只通知将要执行的动作，不真正结束进程
+     */
+    private boolean dryRun;
+}
@@ -0,0 +1,54 @@
+package org.freedom.cleanprocess.service;
+
+import com.sun.tools.attach.VirtualMachine;
+import com.sun.tools.attach.VirtualMachineDescriptor;
+import com.sun.tools.attach.spi.AttachProvider;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 基于 attach API 的进程发现，直接读取 hsperfdata 目录，不需要启动 jps 子进程
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class AttachProcessDiscovery implements ProcessDiscovery {
+    private static final Logger logger = LogManager.getLogger(AttachProcessDiscovery.class);
+
+    @Override
+    public boolean isAvailable() {
+        try {
+            return !AttachProvider.providers().isEmpty();
+        } catch (Throwable e) {
+            logger.warn("attach API 不可用: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public List<ProcessInfo> discover() {
+        List<VirtualMachineDescriptor> descriptors = VirtualMachine.list();
+        List<ProcessInfo> processes = new ArrayList<>(descriptors.size());
+        for (VirtualMachineDescriptor descriptor : descriptors) {
+            // displayName 与 jps -l 的输出一致：主类或 jar 路径，后面可能跟着程序参数
+            String displayName = descriptor.displayName();
+            String mainClass = displayName;
+            int space = displayName.indexOf(' ');
+            if (space > 0) {
+                mainClass = displayName.substring(0, space);
+            }
+            String name = ProcessDiscovery.toDisplayName(mainClass);
+            if (name == null) {
+                continue;
+            }
+            processes.add(ProcessInfo.builder().name(name).mainClass(mainClass).command(displayName)
+                    .pid(Long.parseLong(descriptor.id()))
+                    .processType("Java").jvm("")
+                    .build());
+        }
+        return processes;
+    }
+}
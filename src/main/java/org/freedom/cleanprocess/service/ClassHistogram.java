@@ -0,0 +1,135 @@
+package org.freedom.cleanprocess.service;
+
+import java.util.Arrays;
+
+/**
+ * @description: 一份类直方图，按列存放在基本类型数组中（类 ID / 实例数 / 字节数），
+ * 附带以类 ID 为键的开放寻址索引，5 万以上的类也不产生装箱对象。
+ * 不同类加载器加载的同名类在 jcmd 输出中各占一行，这里按类 ID 合并为一行，保证对比时一一对应
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ClassHistogram {
+
+    private final ClassNameTable names;
+    private final long timestamp;
+    private int size;
+    private int[] classIds;
+    private long[] instances;
+    private long[] bytes;
+    private long totalInstances;
+    private long totalBytes;
+
+    /**
+     * 类 ID -> 行号 + 1 的开放寻址表，0 表示空槽，随 add 增量维护
+     */
+    private int[] slots;
+
+    public ClassHistogram(ClassNameTable names, long timestamp) {
+        this.names = names;
+        this.timestamp = timestamp;
+        this.classIds = new int[1024];
+        this.instances = new long[1024];
+        this.bytes = new long[1024];
+        this.slots = new int[2048];
+    }
+
+    /**
+     * 追加一行，类 ID 已存在时（同名类由不同类加载器加载）累加到已有行
+     */
+    void add(int classId, long instanceCount, long byteCount) {
+        totalInstances += instanceCount;
+        totalBytes += byteCount;
+        int existing = indexOf(classId);
+        if (existing >= 0) {
+            instances[existing] += instanceCount;
+            bytes[existing] += byteCount;
+            return;
+        }
+        if (size == classIds.length) {
+            int capacity = size * 2;
+            classIds = Arrays.copyOf(classIds, capacity);
+            instances = Arrays.copyOf(instances, capacity);
+            bytes = Arrays.copyOf(bytes, capacity);
+        }
+        classIds[size] = classId;
+        instances[size] = instanceCount;
+        bytes[size] = byteCount;
+        size++;
+        // 装载因子保持在 1/2 以下
+        if (size * 2 > slots.length) {
+            slots = new int[slots.length * 2];
+            for (int i = 0; i < size - 1; i++) {
+                insert(i);
+            }
+        }
+        insert(size - 1);
+    }
+
+    private void insert(int index) {
+        int mask = slots.length - 1;
+        int slot = mix(classIds[index]) & mask;
+        while (slots[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        slots[slot] = index + 1;
+    }
+
+    /**
+     * 返回类 ID 所在的行号，不存在时返回 -1
+     */
+    public int indexOf(int classId) {
+        int[] table = slots;
+        int mask = table.length - 1;
+        for (int slot = mix(classId) & mask; ; slot = (slot + 1) & mask) {
+            int entry = table[slot];
+            if (entry == 0) {
+                return -1;
+            }
+            if (classIds[entry - 1] == classId) {
+                return entry - 1;
+            }
+        }
+    }
+
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    public ClassNameTable getNames() {
+        return names;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int classId(int index) {
+        return classIds[index];
+    }
+
+    public String className(int index) {
+        return names.name(classIds[index]);
+    }
+
+    public long instances(int index) {
+        return instances[index];
+    }
+
+    public long bytes(int index) {
+        return bytes[index];
+    }
+
+    public long getTotalInstances() {
+        return totalInstances;
+    }
+
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+}
@@ -0,0 +1,183 @@
+package org.freedom.cleanprocess.service;
+
+/**
+ * @description: 两份类直方图按类 ID 对齐后的差异，按列存放在基本类型数组中；
+ * 两次快照中只出现一次的类也会计入（新出现为正增长，消失为负增长）
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ClassHistogramDiff {
+
+    private final ClassNameTable names;
+    private final int size;
+    private final int[] classIds;
+    private final long[] instances;
+    private final long[] bytes;
+    private final long[] instancesDelta;
+    private final long[] bytesDelta;
+
+    private ClassHistogramDiff(ClassNameTable names, int size, int[] classIds, long[] instances, long[] bytes,
+                               long[] instancesDelta, long[] bytesDelta) {
+        this.names = names;
+        this.size = size;
+        this.classIds = classIds;
+        this.instances = instances;
+        this.bytes = bytes;
+        this.instancesDelta = instancesDelta;
+        this.bytesDelta = bytesDelta;
+    }
+
+    /**
+     * 计算 after 相对 before 的差异，两份直方图必须来自同一个类名表
+     */
+    public static ClassHistogramDiff between(ClassHistogram before, ClassHistogram after) {
+        if (before.getNames() != after.getNames()) {
+            throw new IllegalArgumentException("两份直方图的类名表不同，无法对比");
+        }
+        int capacity = before.size() + after.size();
+        int[] classIds = new int[capacity];
+        long[] instances = new long[capacity];
+        long[] bytes = new long[capacity];
+        long[] instancesDelta = new long[capacity];
+        long[] bytesDelta = new long[capacity];
+        int size = 0;
+        for (int i = 0; i < after.size(); i++) {
+            int classId = after.classId(i);
+            int old = before.indexOf(classId);
+            classIds[size] = classId;
+            instances[size] = after.instances(i);
+            bytes[size] = after.bytes(i);
+            instancesDelta[size] = after.instances(i) - (old < 0 ? 0 : before.instances(old));
+            bytesDelta[size] = after.bytes(i) - (old < 0 ? 0 : before.bytes(old));
+            size++;
+        }
+        for (int i = 0; i < before.size(); i++) {
+            if (after.indexOf(before.classId(i)) < 0) {
+                classIds[size] = before.classId(i);
+                instancesDelta[size] = -before.instances(i);
+                bytesDelta[size] = -before.bytes(i);
+                size++;
+            }
+        }
+        return new ClassHistogramDiff(after.getNames(), size, classIds, instances, bytes, instancesDelta, bytesDelta);
+    }
+
+    /**
+     * 直方图本身视为与空快照的差异，便于界面用同一套列展示
+     */
+    public static ClassHistogramDiff of(ClassHistogram histogram) {
+        int size = histogram.size();
+        int[] classIds = new int[size];
+        long[] instances = new long[size];
+        long[] bytes = new long[size];
+        for (int i = 0; i < size; i++) {
+            classIds[i] = histogram.classId(i);
+            instances[i] = histogram.instances(i);
+            bytes[i] = histogram.bytes(i);
+        }
+        return new ClassHistogramDiff(histogram.getNames(), size, classIds, instances, bytes,
+                new long[size], new long[size]);
+    }
+
+    /**
+     * 按字节增长降序排列的行号
+     */
+    public int[] topByBytes() {
+        return sortDescending(bytesDelta);
+    }
+
+    /**
+     * 按实例数增长降序排列的行号
+     */
+    public int[] topByInstances() {
+        return sortDescending(instancesDelta);
+    }
+
+    /**
+     * 按当前占用字节降序排列的行号
+     */
+    public int[] topByRetainedBytes() {
+        return sortDescending(bytes);
+    }
+
+    private int[] sortDescending(long[] keys) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) {
+            order[i] = i;
+        }
+        quickSort(order, keys, 0, size - 1);
+        return order;
+    }
+
+    /**
+     * 对行号数组按 keys 降序排序，不装箱
+     */
+    private static void quickSort(int[] order, long[] keys, int low, int high) {
+        while (high - low > 16) {
+            int middle = (low + high) >>> 1;
+            long pivot = median(keys[order[low]], keys[order[middle]], keys[order[high]]);
+            int i = low;
+            int j = high;
+            while (i <= j) {
+                while (keys[order[i]] > pivot) {
+                    i++;
+                }
+                while (keys[order[j]] < pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            // 先递归较小的一半，栈深度不超过 log n
+            if (j - low < high - i) {
+                quickSort(order, keys, low, j);
+                low = i;
+            } else {
+                quickSort(order, keys, i, high);
+                high = j;
+            }
+        }
+        for (int i = low + 1; i <= high; i++) {
+            int value = order[i];
+            int j = i - 1;
+            while (j >= low && keys[order[j]] < keys[value]) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            order[j + 1] = value;
+        }
+    }
+
+    private static long median(long a, long b, long c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public String className(int index) {
+        return names.name(classIds[index]);
+    }
+
+    public long instances(int index) {
+        return instances[index];
+    }
+
+    public long bytes(int index) {
+        return bytes[index];
+    }
+
+    public long instancesDelta(int index) {
+        return instancesDelta[index];
+    }
+
+    public long bytesDelta(int index) {
+        return bytesDelta[index];
+    }
+}
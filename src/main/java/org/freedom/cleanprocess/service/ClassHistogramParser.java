@@ -0,0 +1,68 @@
+package org.freedom.cleanprocess.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * @description: GC.class_histogram 输出的流式解析器，逐行解析 "序号: 实例数 字节数 类名 (模块)"，
+ * 类名去掉模块后缀后写入类名表
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ClassHistogramParser {
+
+    private final ClassNameTable names;
+
+    public ClassHistogramParser(ClassNameTable names) {
+        this.names = names;
+    }
+
+    public ClassHistogram parse(BufferedReader reader, long timestamp) throws IOException {
+        ClassHistogram histogram = new ClassHistogram(names, timestamp);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            int length = line.length();
+            int i = skipSpaces(line, 0);
+            int start = i;
+            while (i < length && Character.isDigit(line.charAt(i))) {
+                i++;
+            }
+            if (i == start || i >= length || line.charAt(i) != ':') {
+                // 表头、分隔线与 Total 行
+                continue;
+            }
+            i = skipSpaces(line, i + 1);
+            start = i;
+            long instances = 0;
+            for (; i < length && Character.isDigit(line.charAt(i)); i++) {
+                instances = instances * 10 + (line.charAt(i) - '0');
+            }
+            if (i == start) {
+                continue;
+            }
+            i = skipSpaces(line, i);
+            start = i;
+            long bytes = 0;
+            for (; i < length && Character.isDigit(line.charAt(i)); i++) {
+                bytes = bytes * 10 + (line.charAt(i) - '0');
+            }
+            if (i == start) {
+                continue;
+            }
+            start = skipSpaces(line, i);
+            int end = line.indexOf(' ', start);
+            if (start >= length) {
+                continue;
+            }
+            histogram.add(names.intern(line.substring(start, end < 0 ? length : end)), instances, bytes);
+        }
+        return histogram;
+    }
+
+    private static int skipSpaces(String line, int i) {
+        while (i < line.length() && line.charAt(i) == ' ') {
+            i++;
+        }
+        return i;
+    }
+}
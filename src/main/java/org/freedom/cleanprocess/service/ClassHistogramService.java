@@ -0,0 +1,58 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.JMException;
+import javax.management.MBeanServerConnection;
+import javax.management.ObjectName;
+import javax.management.remote.JMXConnector;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+
+/**
+ * @description: 类直方图采集：目标已开启 JMX 代理时调用 DiagnosticCommand 的 gcClassHistogram，
+ * 否则改用 jcmd GC.class_histogram 并直接解析子进程输出流；同一个服务实例采集的直方图共用类名表，可以互相对比
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ClassHistogramService {
+    private static final Logger logger = LogManager.getLogger(ClassHistogramService.class);
+
+    private static final String DIAGNOSTIC_COMMAND = "com.sun.management:type=DiagnosticCommand";
+
+    private final ClassNameTable names = new ClassNameTable();
+
+    /**
+     * 采集一次类直方图
+     *
+     * @param all 为 true 时包含不可达对象（-all），不会先触发 Full GC
+     */
+    public ClassHistogram capture(long pid, boolean all) throws IOException {
+        String[] options = all ? new String[]{"-all"} : new String[0];
+        try (JMXConnector connector = JvmDiagnostics.connectExisting(pid)) {
+            if (connector != null) {
+                MBeanServerConnection connection = connector.getMBeanServerConnection();
+                long timestamp = System.currentTimeMillis();
+                Object output = connection.invoke(new ObjectName(DIAGNOSTIC_COMMAND), "gcClassHistogram",
+                        new Object[]{options}, new String[]{String[].class.getName()});
+                return parse(new BufferedReader(new StringReader(String.valueOf(output))), timestamp);
+            }
+        } catch (IOException | JMException | RuntimeException e) {
+            logger.warn("通过 JMX 获取类直方图失败，改用 jcmd, pid = {}: {}", pid, e.toString());
+        }
+        long timestamp = System.currentTimeMillis();
+        String[] command = all ? new String[]{"GC.class_histogram", "-all"} : new String[]{"GC.class_histogram"};
+        ClassHistogram histogram = JvmDiagnostics.jcmd(pid, JvmDiagnostics.JCMD_TIMEOUT_MILLIS,
+                reader -> parse(reader, timestamp), command);
+        if (histogram.size() == 0) {
+            throw new IOException("jcmd 未返回类直方图, pid = " + pid);
+        }
+        return histogram;
+    }
+
+    public ClassHistogram parse(BufferedReader reader, long timestamp) throws IOException {
+        return new ClassHistogramParser(names).parse(reader, timestamp);
+    }
+}
@@ -0,0 +1,35 @@
+package org.freedom.cleanprocess.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 类名与整数 ID 的双向映射，同一个表内的多份直方图用 ID 对齐，差异计算时不再比较字符串
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ClassNameTable {
+
+    private final Map<String, Integer> ids = new HashMap<>();
+    private final List<String> names = new ArrayList<>();
+
+    public synchronized int intern(String name) {
+        Integer id = ids.get(name);
+        if (id == null) {
+            id = names.size();
+            names.add(name);
+            ids.put(name, id);
+        }
+        return id;
+    }
+
+    public synchronized String name(int id) {
+        return names.get(id);
+    }
+
+    public synchronized int size() {
+        return names.size();
+    }
+}
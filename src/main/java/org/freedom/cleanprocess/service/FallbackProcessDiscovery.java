@@ -0,0 +1,52 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.List;
+
+/**
+ * @description: 组合多个进程发现实现，按顺序尝试，前一个失败时使用下一个
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class FallbackProcessDiscovery implements ProcessDiscovery {
+    private static final Logger logger = LogManager.getLogger(FallbackProcessDiscovery.class);
+
+    private final ProcessDiscovery[] delegates;
+
+    public FallbackProcessDiscovery(ProcessDiscovery... delegates) {
+        this.delegates = delegates;
+    }
+
+    @Override
+    public boolean isAvailable() {
+        for (ProcessDiscovery delegate : delegates) {
+            if (delegate.isAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public List<ProcessInfo> discover() throws Exception {
+        Exception last = null;
+        for (ProcessDiscovery delegate : delegates) {
+            if (!delegate.isAvailable()) {
+                continue;
+            }
+            try {
+                return delegate.discover();
+            } catch (Exception | LinkageError e) {
+                logger.warn("{} 枚举进程失败，尝试下一个实现", delegate.getClass().getSimpleName(), e);
+                last = e instanceof Exception ? (Exception) e : new IllegalStateException(e);
+            }
+        }
+        if (last == null) {
+            throw new IllegalStateException("没有可用的进程发现实现");
+        }
+        throw last;
+    }
+}
@@ -0,0 +1,428 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+
+/**
+ * @description: 文件 / 目录对比。两侧都是目录时递归列出所有普通文件，只在一侧存在的直接列出；
+ * 大小不同的文件必然不同，大小相同的在线程池中并行用 Files.mismatch 逐字节比较，内容相同即跳过，
+ * 剩下的文件才逐行读入计算差异：行边读边映射为 ID，两个文件中内容相同的行只保存一份字符串。
+ * 无法读取的文件单独报告一行，不影响其余文件的对比。结果按路径顺序以 unified diff 格式流式写出，不在内存中拼接整份结果
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class FileTreeDiff {
+    private static final Logger logger = LogManager.getLogger(FileTreeDiff.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * 与 GNU diff 相同，前 8000 字节中出现 NUL 字节即按二进制文件处理
+     */
+    private static final int BINARY_PROBE = 8000;
+    private static final int PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final ExecutorService EXECUTOR = createExecutor();
+
+    /**
+     * 对比统计
+     */
+    public static final class Summary {
+        private int filesLeft;
+        private int filesRight;
+        private int same;
+        private int modified;
+        private int onlyLeft;
+        private int onlyRight;
+        private long deletedLines;
+        private long insertedLines;
+        private int unreadable;
+
+        public int getFilesLeft() {
+            return filesLeft;
+        }
+
+        public int getFilesRight() {
+            return filesRight;
+        }
+
+        public int getSame() {
+            return same;
+        }
+
+        public int getModified() {
+            return modified;
+        }
+
+        public int getOnlyLeft() {
+            return onlyLeft;
+        }
+
+        public int getOnlyRight() {
+            return onlyRight;
+        }
+
+        public long getDeletedLines() {
+            return deletedLines;
+        }
+
+        public long getInsertedLines() {
+            return insertedLines;
+        }
+
+        /**
+         * 无法读取而没有参与对比的文件数
+         */
+        public int getUnreadable() {
+            return unreadable;
+        }
+    }
+
+    private FileTreeDiff() {
+    }
+
+    /**
+     * 对比两个文件或两个目录，把差异写到 out，out 由调用方关闭
+     */
+    public static Summary compare(Path left, Path right, boolean ignoreWhitespace, boolean ignoreCase,
+                                  Writer out) throws IOException {
+        long begin = System.currentTimeMillis();
+        Map<String, Long> filesLeft;
+        Map<String, Long> filesRight;
+        List<String> listingErrors = new ArrayList<>();
+        if (Files.isRegularFile(left) && Files.isRegularFile(right)) {
+            filesLeft = Map.of("", Files.size(left));
+            filesRight = Map.of("", Files.size(right));
+        } else if (Files.isDirectory(left) && Files.isDirectory(right)) {
+            filesLeft = listFiles(left, "A/", listingErrors);
+            filesRight = listFiles(right, "B/", listingErrors);
+        } else {
+            throw new IOException("只能对比两个文件或两个目录: " + left + " / " + right);
+        }
+
+        Summary summary = new Summary();
+        summary.filesLeft = filesLeft.size();
+        summary.filesRight = filesRight.size();
+        summary.unreadable = listingErrors.size();
+        for (String error : listingErrors) {
+            out.write(error);
+        }
+        TreeSet<String> paths = new TreeSet<>(filesLeft.keySet());
+        paths.addAll(filesRight.keySet());
+
+        // 第一步：大小相同的文件并行逐字节比较，找出内容完全相同的文件
+        Map<String, CompletableFuture<Boolean>> identical = new TreeMap<>();
+        for (String path : paths) {
+            Long sizeLeft = filesLeft.get(path);
+            if (sizeLeft != null && sizeLeft.equals(filesRight.get(path))) {
+                Path fileLeft = resolve(left, path);
+                Path fileRight = resolve(right, path);
+                identical.put(path, sizeLeft == 0 ? CompletableFuture.completedFuture(true)
+                        : CompletableFuture.supplyAsync(() -> sameContent(fileLeft, fileRight), EXECUTOR));
+            }
+        }
+
+        // 第二步：按路径顺序输出，需要逐行对比的文件提交到线程池，保持有限个在途任务以控制内存
+        // 不忽略任何差异时行内容本身就是比较的键
+        UnaryOperator<String> key = ignoreWhitespace || ignoreCase
+                ? LineDiff.normalizer(ignoreWhitespace, ignoreCase) : null;
+        Deque<CompletableFuture<FileResult>> pending = new ArrayDeque<>();
+        for (String path : paths) {
+            boolean inLeft = filesLeft.containsKey(path);
+            boolean inRight = filesRight.containsKey(path);
+            if (!inRight) {
+                summary.onlyLeft++;
+                pending.add(CompletableFuture.completedFuture(new FileResult("只在 A 中: " + path + "\n")));
+            } else if (!inLeft) {
+                summary.onlyRight++;
+                pending.add(CompletableFuture.completedFuture(new FileResult("只在 B 中: " + path + "\n")));
+            } else {
+                CompletableFuture<Boolean> hashed = identical.get(path);
+                if (hashed != null && join(hashed)) {
+                    summary.same++;
+                    continue;
+                }
+                Path fileLeft = resolve(left, path);
+                Path fileRight = resolve(right, path);
+                String nameLeft = path.isEmpty() ? left.toString() : "A/" + path;
+                String nameRight = path.isEmpty() ? right.toString() : "B/" + path;
+                pending.add(CompletableFuture.supplyAsync(
+                        () -> diffFile(fileLeft, fileRight, nameLeft, nameRight, key), EXECUTOR));
+            }
+            while (pending.size() > PARALLELISM * 2) {
+                write(join(pending.poll()), summary, out);
+            }
+        }
+        while (!pending.isEmpty()) {
+            write(join(pending.poll()), summary, out);
+        }
+        if (summary.modified == 0 && summary.onlyLeft == 0 && summary.onlyRight == 0 && summary.unreadable == 0) {
+            out.write("没有差异\n");
+        }
+        out.flush();
+        logger.info("文件对比完成: A {} 个文件, B {} 个文件, 逐字节比较 {} 对, 耗时 {} ms", summary.filesLeft,
+                summary.filesRight, identical.size(), System.currentTimeMillis() - begin);
+        return summary;
+    }
+
+    private static void write(FileResult result, Summary summary, Writer out) throws IOException {
+        if (result.unreadable) {
+            summary.unreadable++;
+        } else if (result.modified) {
+            summary.modified++;
+            summary.deletedLines += result.deleted;
+            summary.insertedLines += result.inserted;
+        } else if (result.text.isEmpty()) {
+            // 字节不同但按忽略选项比较后相同
+            summary.same++;
+            return;
+        }
+        out.write(result.text);
+    }
+
+    /**
+     * 读入两个文件并计算差异，二进制文件只报告不同，读取失败时报告无法读取
+     */
+    private static FileResult diffFile(Path left, Path right, String nameLeft, String nameRight,
+                                       UnaryOperator<String> key) {
+        String current = nameLeft;
+        try {
+            boolean binary = isBinary(left);
+            current = nameRight;
+            if (binary || isBinary(right)) {
+                FileResult result = new FileResult("二进制文件 " + nameLeft + " 和 " + nameRight + " 不同\n");
+                result.modified = true;
+                return result;
+            }
+            LineTable table = new LineTable(key);
+            current = nameLeft;
+            int[] linesLeft = table.read(left);
+            current = nameRight;
+            int[] linesRight = table.read(right);
+            List<LineDiff.Edit> edits = LineDiff.diff(table.keys(linesLeft), table.keys(linesRight));
+            if (edits.isEmpty()) {
+                return new FileResult("");
+            }
+            StringBuilder text = new StringBuilder("diff -u ").append(nameLeft).append(' ').append(nameRight).append('\n');
+            UnifiedDiff.write(nameLeft, nameRight, table.lines(linesLeft), table.lines(linesRight), edits,
+                    UnifiedDiff.DEFAULT_CONTEXT, text);
+            FileResult result = new FileResult(text.toString());
+            result.modified = true;
+            for (LineDiff.Edit edit : edits) {
+                result.deleted += edit.getEndA() - edit.getBeginA();
+                result.inserted += edit.getEndB() - edit.getBeginB();
+            }
+            return result;
+        } catch (IOException e) {
+            logger.warn("无法读取 {}: {}", current, e.toString());
+            FileResult result = new FileResult("无法读取 " + current + ": " + e.getMessage() + "\n");
+            result.unreadable = true;
+            return result;
+        }
+    }
+
+    /**
+     * 递归列出目录下的普通文件，返回 相对路径（以 / 分隔）-> 文件大小
+     */
+    private static Map<String, Long> listFiles(Path root, String prefix, List<String> errors) throws IOException {
+        Map<String, Long> files = new TreeMap<>();
+        Files.walkFileTree(root, new SimpleFileVisitor<>() {
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (attributes.isRegularFile()) {
+                    files.put(root.relativize(file).toString().replace('\\', '/'), attributes.size());
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                logger.warn("无法读取 {}: {}", file, e.getMessage());
+                errors.add("无法读取 " + prefix + root.relativize(file).toString().replace('\\', '/') + ": "
+                        + e.getMessage() + "\n");
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return files;
+    }
+
+    private static Path resolve(Path root, String path) {
+        return path.isEmpty() ? root : root.resolve(path);
+    }
+
+    /**
+     * 大小相同的两个文件内容是否完全一致；读取失败时返回 false，留给逐行对比阶段报告
+     */
+    private static boolean sameContent(Path left, Path right) {
+        try {
+            return Files.mismatch(left, right) < 0;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static boolean isBinary(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] probe = in.readNBytes(BINARY_PROBE);
+            for (byte b : probe) {
+                if (b == 0) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * 等待任务完成，把任务中的 IO 异常还原出来
+     */
+    private static <T> T join(CompletableFuture<T> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static ExecutorService createExecutor() {
+        AtomicInteger index = new AtomicInteger();
+        return Executors.newFixedThreadPool(PARALLELISM, runnable -> {
+            Thread thread = new Thread(runnable, "file-diff-" + index.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 单个文件的输出和统计
+     */
+    private static final class FileResult {
+        private final String text;
+        private boolean modified;
+        private boolean unreadable;
+        private long deleted;
+        private long inserted;
+
+        FileResult(String text) {
+            this.text = text;
+        }
+    }
+
+    /**
+     * 一对文件共用的行表：内容相同的行只保存一个字符串，文件以行号数组表示；
+     * 忽略空白或大小写时，再把每种行内容映射到比较用的键 ID
+     */
+    private static final class LineTable {
+        private final UnaryOperator<String> key;
+        private final Map<String, Integer> textIds = new HashMap<>();
+        private final List<String> texts = new ArrayList<>();
+        private final Map<String, Integer> keyIds = new HashMap<>();
+        private int[] keyOfText = new int[1024];
+
+        /**
+         * @param key 比较用的键，为 null 时直接按行内容比较
+         */
+        LineTable(UnaryOperator<String> key) {
+            this.key = key;
+        }
+
+        /**
+         * 按 UTF-8 流式读取文件，非法字节替换为 U+FFFD 而不是抛出异常
+         *
+         * @return 每一行的行号
+         */
+        int[] read(Path file) throws IOException {
+            int[] lines = new int[1024];
+            int size = 0;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (size == lines.length) {
+                        lines = Arrays.copyOf(lines, size * 2);
+                    }
+                    lines[size++] = intern(line);
+                }
+            }
+            return Arrays.copyOf(lines, size);
+        }
+
+        private int intern(String line) {
+            Integer existing = textIds.get(line);
+            if (existing != null) {
+                return existing;
+            }
+            int id = texts.size();
+            texts.add(line);
+            textIds.put(line, id);
+            if (key != null) {
+                if (id == keyOfText.length) {
+                    keyOfText = Arrays.copyOf(keyOfText, id * 2);
+                }
+                Integer keyId = keyIds.putIfAbsent(key.apply(line), keyIds.size());
+                keyOfText[id] = keyId != null ? keyId : keyIds.size() - 1;
+            }
+            return id;
+        }
+
+        /**
+         * 行号数组转换为比较用的键 ID
+         */
+        int[] keys(int[] lines) {
+            if (key == null) {
+                return lines;
+            }
+            int[] keys = new int[lines.length];
+            for (int i = 0; i < lines.length; i++) {
+                keys[i] = keyOfText[lines[i]];
+            }
+            return keys;
+        }
+
+        /**
+         * 行号数组对应的行内容视图，不复制字符串
+         */
+        List<String> lines(int[] lines) {
+            return new AbstractList<>() {
+                @Override
+                public String get(int index) {
+                    return texts.get(lines[index]);
+                }
+
+                @Override
+                public int size() {
+                    return lines.length;
+                }
+            };
+        }
+    }
+}
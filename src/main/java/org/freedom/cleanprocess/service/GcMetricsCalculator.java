@@ -0,0 +1,82 @@
+package org.freedom.cleanprocess.service;
+
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 根据相邻两次采样计算 GC 频率、GC 耗时占比、分配速率和晋升速率，每个 PID 只保留上一次采样
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class GcMetricsCalculator {
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final Map<Long, Previous> previousSamples = new HashMap<>(256);
+
+    /**
+     * 用最新采样计算指标并写入 ProcessInfo，首次采样时指标为 0
+     */
+    public synchronized void apply(ProcessInfo processInfo, JvmMemorySample current) {
+        Previous previous = previousSamples.get(processInfo.getPid());
+        previousSamples.put(processInfo.getPid(), new Previous(processInfo.getStartTime(), current));
+        if (previous == null || previous.startTime != processInfo.getStartTime()) {
+            return;
+        }
+        JvmMemorySample last = previous.sample;
+        double seconds = (current.timestamp - last.timestamp) / NANOS_PER_SECOND;
+        if (seconds <= 0) {
+            return;
+        }
+        long youngGcs = Math.max(0, current.ygc - last.ygc);
+        long fullGcs = Math.max(0, current.fgc - last.fgc);
+        long gcNanos = Math.max(0, current.ygct - last.ygct) + Math.max(0, current.fgct - last.fgct);
+
+        processInfo.setYoungGcRate(youngGcs / seconds);
+        processInfo.setFullGcRate(fullGcs / seconds);
+        processInfo.setGcTimePercent(Math.min(100, gcNanos / (seconds * NANOS_PER_SECOND) * 100));
+        processInfo.setAllocationRate(allocated(last, current, youngGcs + fullGcs) / seconds);
+        // 只有 Young GC 时老年代的增长来自晋升，发生 Full GC 时无法区分
+        long promoted = youngGcs > 0 && fullGcs == 0 ? Math.max(0, current.ou - last.ou) : 0;
+        processInfo.setPromotionRate(promoted / seconds);
+    }
+
+    /**
+     * 估算两次采样间分配的字节数：没有 GC 时为 Eden 增量，
+     * 发生 GC 时为上次采样后 Eden 剩余空间 + 中间被回收的整个 Eden + 本次 Eden 已使用
+     */
+    private static long allocated(JvmMemorySample last, JvmMemorySample current, long gcs) {
+        if (gcs == 0) {
+            return Math.max(0, current.eu - last.eu);
+        }
+        long allocated = Math.max(0, last.ec - last.eu) + current.eu + (gcs - 1) * current.ec;
+        return Math.max(0, allocated);
+    }
+
+    /**
+     * 清理已退出进程的上一次采样
+     */
+    public synchronized void retain(List<ProcessInfo> processes) {
+        Map<Long, Previous> alive = new HashMap<>(processes.size() * 2);
+        for (ProcessInfo processInfo : processes) {
+            Previous previous = previousSamples.get(processInfo.getPid());
+            if (previous != null) {
+                alive.put(processInfo.getPid(), previous);
+            }
+        }
+        previousSamples.clear();
+        previousSamples.putAll(alive);
+    }
+
+    private static final class Previous {
+        private final long startTime;
+        private final JvmMemorySample sample;
+
+        private Previous(long startTime, JvmMemorySample sample) {
+            this.startTime = startTime;
+            this.sample = sample;
+        }
+    }
+}
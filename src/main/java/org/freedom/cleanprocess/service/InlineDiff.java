@@ -0,0 +1,169 @@
+package org.freedom.cleanprocess.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.UnaryOperator;
+
+/**
+ * @description: 行内差异。先把一对改动行切成单词、空白和标点，按词计算差异；
+ * 被替换的片段较短时再按字符细化，公共字符不足一半则保留整词高亮，避免把两个不相干的词拆得支离破碎。
+ * 结果是两侧需要高亮的字符区间
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class InlineDiff {
+    /**
+     * 被替换片段两侧都不超过该字符数时才按字符细化
+     */
+    private static final int CHAR_REFINE_LIMIT = 64;
+
+    private InlineDiff() {
+    }
+
+    /**
+     * 计算两行中发生变化的字符区间
+     *
+     * @return [A 的区间, B 的区间]，每个数组按 start, end 成对排列，区间左闭右开、按位置排序且互不相邻
+     */
+    public static int[][] changedRanges(String a, String b, boolean ignoreWhitespace, boolean ignoreCase) {
+        UnaryOperator<String> key = LineDiff.normalizer(false, ignoreCase);
+        int[] tokensA = tokenize(a, ignoreWhitespace);
+        int[] tokensB = tokenize(b, ignoreWhitespace);
+        int[][] ids = LineDiff.intern(substrings(a, tokensA), substrings(b, tokensB), key);
+        Ranges rangesA = new Ranges();
+        Ranges rangesB = new Ranges();
+        for (LineDiff.Edit edit : LineDiff.diff(ids[0], ids[1])) {
+            int startA = edit.getBeginA() < edit.getEndA() ? tokensA[2 * edit.getBeginA()] : -1;
+            int endA = edit.getBeginA() < edit.getEndA() ? tokensA[2 * edit.getEndA() - 1] : -1;
+            int startB = edit.getBeginB() < edit.getEndB() ? tokensB[2 * edit.getBeginB()] : -1;
+            int endB = edit.getBeginB() < edit.getEndB() ? tokensB[2 * edit.getEndB() - 1] : -1;
+            if (startA >= 0 && startB >= 0 && endA - startA <= CHAR_REFINE_LIMIT && endB - startB <= CHAR_REFINE_LIMIT
+                    && refine(a, startA, endA, b, startB, endB, ignoreWhitespace, key, rangesA, rangesB)) {
+                continue;
+            }
+            if (startA >= 0) {
+                rangesA.add(startA, endA);
+            }
+            if (startB >= 0) {
+                rangesB.add(startB, endB);
+            }
+        }
+        return new int[][]{rangesA.toArray(), rangesB.toArray()};
+    }
+
+    /**
+     * 按字符细化一段替换，公共字符太少时返回 false 且不写入任何区间
+     */
+    private static boolean refine(String a, int startA, int endA, String b, int startB, int endB,
+                                  boolean ignoreWhitespace, UnaryOperator<String> key, Ranges rangesA, Ranges rangesB) {
+        int[] charsA = chars(a, startA, endA, ignoreWhitespace);
+        int[] charsB = chars(b, startB, endB, ignoreWhitespace);
+        int[][] ids = LineDiff.intern(substrings(a, charsA), substrings(b, charsB), key);
+        List<LineDiff.Edit> edits = LineDiff.diff(ids[0], ids[1]);
+        int changed = 0;
+        for (LineDiff.Edit edit : edits) {
+            changed += edit.getEndA() - edit.getBeginA();
+        }
+        int common = ids[0].length - changed;
+        if (common * 2 < Math.min(ids[0].length, ids[1].length)) {
+            return false;
+        }
+        for (LineDiff.Edit edit : edits) {
+            if (edit.getBeginA() < edit.getEndA()) {
+                rangesA.add(charsA[2 * edit.getBeginA()], charsA[2 * edit.getEndA() - 1]);
+            }
+            if (edit.getBeginB() < edit.getEndB()) {
+                rangesB.add(charsB[2 * edit.getBeginB()], charsB[2 * edit.getEndB() - 1]);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 切分为单词（字母、数字、下划线的连续段）、空白段和单个标点
+     *
+     * @return 按 start, end 成对排列的片段区间，忽略空白时不包含空白段
+     */
+    static int[] tokenize(String line, boolean ignoreWhitespace) {
+        Ranges tokens = new Ranges();
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            int start = i;
+            char c = line.charAt(i++);
+            if (isWordChar(c)) {
+                while (i < length && isWordChar(line.charAt(i))) {
+                    i++;
+                }
+            } else if (LineDiff.isWhitespace(c)) {
+                while (i < length && LineDiff.isWhitespace(line.charAt(i))) {
+                    i++;
+                }
+                if (ignoreWhitespace) {
+                    continue;
+                }
+            } else if (Character.isHighSurrogate(c) && i < length && Character.isLowSurrogate(line.charAt(i))) {
+                i++;
+            }
+            tokens.append(start, i);
+        }
+        return tokens.toArray();
+    }
+
+    private static int[] chars(String line, int from, int to, boolean ignoreWhitespace) {
+        Ranges chars = new Ranges();
+        for (int i = from; i < to; i++) {
+            if (!ignoreWhitespace || !LineDiff.isWhitespace(line.charAt(i))) {
+                chars.append(i, i + 1);
+            }
+        }
+        return chars.toArray();
+    }
+
+    private static boolean isWordChar(char c) {
+        return c == '_' || Character.isLetterOrDigit(c);
+    }
+
+    private static List<String> substrings(String line, int[] ranges) {
+        List<String> result = new ArrayList<>(ranges.length / 2);
+        for (int i = 0; i < ranges.length; i += 2) {
+            result.add(line.substring(ranges[i], ranges[i + 1]));
+        }
+        return result;
+    }
+
+    /**
+     * 按 start, end 成对存放的区间列表
+     */
+    private static final class Ranges {
+        private int[] values = new int[16];
+        private int size;
+
+        void append(int start, int end) {
+            if (size + 2 > values.length) {
+                int[] grown = new int[values.length * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = start;
+            values[size++] = end;
+        }
+
+        /**
+         * 追加区间，与上一个区间相接时合并
+         */
+        void add(int start, int end) {
+            if (size > 0 && values[size - 1] >= start) {
+                values[size - 1] = Math.max(values[size - 1], end);
+            } else {
+                append(start, end);
+            }
+        }
+
+        int[] toArray() {
+            int[] result = new int[size];
+            System.arraycopy(values, 0, result, 0, size);
+            return result;
+        }
+    }
+}
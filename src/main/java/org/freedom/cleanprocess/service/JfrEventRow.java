@@ -0,0 +1,140 @@
+package org.freedom.cleanprocess.service;
+
+import jdk.jfr.consumer.RecordedClass;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordedThread;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @description: 展示用的 JFR 事件行，只保留界面需要的字段，RecordedEvent 本身不在读取线程之外保留
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class JfrEventRow {
+
+    public static final String ALLOCATION_SAMPLE = "jdk.ObjectAllocationSample";
+    public static final String GARBAGE_COLLECTION = "jdk.GarbageCollection";
+    public static final String EXECUTION_SAMPLE = "jdk.ExecutionSample";
+
+    /**
+     * 事件分类
+     */
+    public enum Category {
+        ALLOCATION("分配"), GC("GC 暂停"), CPU("CPU 采样"), OTHER("其他");
+
+        private final String label;
+
+        Category(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public static Category of(String eventType) {
+            switch (eventType) {
+                case ALLOCATION_SAMPLE:
+                    return ALLOCATION;
+                case GARBAGE_COLLECTION:
+                    return GC;
+                case EXECUTION_SAMPLE:
+                    return CPU;
+                default:
+                    return OTHER;
+            }
+        }
+    }
+
+    private final long timestamp;
+    private final Category category;
+    private final String thread;
+    private final String detail;
+    /**
+     * 分配事件为字节数，GC 事件为暂停微秒数，其余为持续微秒数
+     */
+    private final long value;
+
+    public JfrEventRow(long timestamp, Category category, String thread, String detail, long value) {
+        this.timestamp = timestamp;
+        this.category = category;
+        this.thread = thread;
+        this.detail = detail;
+        this.value = value;
+    }
+
+    /**
+     * 把 RecordedEvent 转换为展示行，必须在事件所属的读取线程中调用
+     */
+    public static JfrEventRow of(RecordedEvent event) {
+        String type = event.getEventType().getName();
+        Category category = Category.of(type);
+        long timestamp = event.getStartTime().toEpochMilli();
+        switch (category) {
+            case ALLOCATION: {
+                RecordedClass objectClass = event.getClass("objectClass");
+                long weight = event.getLong("weight");
+                return new JfrEventRow(timestamp, category, threadName(event.getThread("eventThread")),
+                        (objectClass == null ? "?" : objectClass.getName()) + " " + topFrame(event.getStackTrace()),
+                        weight);
+            }
+            case GC: {
+                Duration pauses = event.getDuration("sumOfPauses");
+                return new JfrEventRow(timestamp, category, "",
+                        event.getString("name") + " (" + event.getString("cause") + ")",
+                        pauses.toNanos() / 1000);
+            }
+            case CPU:
+                return new JfrEventRow(timestamp, category, threadName(event.getThread("sampledThread")),
+                        topFrame(event.getStackTrace()), 0);
+            default:
+                return new JfrEventRow(timestamp, category, threadName(event.getThread()),
+                        event.getEventType().getLabel() + " [" + type + "]", event.getDuration().toNanos() / 1000);
+        }
+    }
+
+    private static String threadName(RecordedThread thread) {
+        if (thread == null) {
+            return "";
+        }
+        return thread.getJavaName() != null ? thread.getJavaName() : thread.getOSName();
+    }
+
+    private static String topFrame(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        for (RecordedFrame frame : frames) {
+            if (frame.isJavaFrame()) {
+                return frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + ":" + frame.getLineNumber();
+            }
+        }
+        return "";
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public Category getCategory() {
+        return category;
+    }
+
+    public String getThread() {
+        return thread;
+    }
+
+    public String getDetail() {
+        return detail;
+    }
+
+    public long getValue() {
+        return value;
+    }
+}
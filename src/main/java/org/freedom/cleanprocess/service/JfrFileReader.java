@@ -0,0 +1,61 @@
+package org.freedom.cleanprocess.service;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @description: .jfr 文件的分页读取器：RecordingFile 按 chunk 顺序解析，每次只读出一页事件，
+ * 打开几百 MB 的录制文件时内存中也只有当前 chunk 与已展示的行
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class JfrFileReader implements Closeable {
+
+    private final RecordingFile recordingFile;
+    private long readCount;
+
+    public JfrFileReader(Path path) throws IOException {
+        this.recordingFile = new RecordingFile(path);
+    }
+
+    /**
+     * 读取下一页，只保留指定分类的事件
+     *
+     * @return 本页的事件，文件读完时返回空列表
+     */
+    public synchronized List<JfrEventRow> nextPage(int pageSize, Set<JfrEventRow.Category> categories)
+            throws IOException {
+        List<JfrEventRow> rows = new ArrayList<>(pageSize);
+        while (rows.size() < pageSize && recordingFile.hasMoreEvents()) {
+            RecordedEvent event = recordingFile.readEvent();
+            readCount++;
+            if (categories.contains(JfrEventRow.Category.of(event.getEventType().getName()))) {
+                rows.add(JfrEventRow.of(event));
+            }
+        }
+        return rows;
+    }
+
+    public synchronized boolean hasMore() {
+        return recordingFile.hasMoreEvents();
+    }
+
+    /**
+     * 已经扫描过的事件数（包括被过滤掉的）
+     */
+    public synchronized long getReadCount() {
+        return readCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        recordingFile.close();
+    }
+}
@@ -0,0 +1,75 @@
+package org.freedom.cleanprocess.service;
+
+import jdk.management.jfr.RemoteRecordingStream;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.remote.JMXConnector;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.function.Consumer;
+
+/**
+ * @description: 对目标 JVM 的一次远程 JFR 录制：通过 attach 得到的 JMX 连接启动 RemoteRecordingStream，
+ * 只开启分配采样、GC 与 CPU 采样事件，事件在流线程中转换为展示行后交给监听者
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class JfrLiveSession implements Closeable {
+    private static final Logger logger = LogManager.getLogger(JfrLiveSession.class);
+
+    private final JMXConnector connector;
+    private final RemoteRecordingStream stream;
+
+    private JfrLiveSession(JMXConnector connector, RemoteRecordingStream stream) {
+        this.connector = connector;
+        this.stream = stream;
+    }
+
+    /**
+     * 开始录制，监听者在 JFR 流线程中被调用
+     */
+    public static JfrLiveSession start(long pid, Consumer<JfrEventRow> listener) throws IOException {
+        JMXConnector connector = JvmDiagnostics.connect(pid);
+        RemoteRecordingStream stream;
+        try {
+            stream = new RemoteRecordingStream(connector.getMBeanServerConnection());
+        } catch (IOException | RuntimeException e) {
+            connector.close();
+            throw e;
+        }
+        stream.enable(JfrEventRow.ALLOCATION_SAMPLE).with("throttle", "150/s").withStackTrace();
+        stream.enable(JfrEventRow.GARBAGE_COLLECTION);
+        stream.enable(JfrEventRow.EXECUTION_SAMPLE).withPeriod(Duration.ofMillis(20));
+        stream.onEvent(event -> listener.accept(JfrEventRow.of(event)));
+        stream.onError(e -> logger.error("JFR 事件流异常, pid = {}", pid, e));
+        stream.startAsync();
+        logger.info("已开始 JFR 录制, pid = {}", pid);
+        return new JfrLiveSession(connector, stream);
+    }
+
+    /**
+     * 把目前为止录制的数据保存为 .jfr 文件，已存在的文件会被覆盖
+     */
+    public void dump(Path path) throws IOException {
+        // RemoteRecordingStream 不会覆盖已有文件
+        Files.deleteIfExists(path);
+        stream.dump(path);
+    }
+
+    /**
+     * 停止录制并断开连接
+     */
+    @Override
+    public void close() {
+        stream.close();
+        try {
+            connector.close();
+        } catch (IOException e) {
+            logger.warn("关闭 JMX 连接失败: {}", e.toString());
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 基于 jps -l 命令的进程发现，作为 attach API 不可用时的兜底方案
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class JpsProcessDiscovery implements ProcessDiscovery {
+    private static final Logger logger = LogManager.getLogger(JpsProcessDiscovery.class);
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase().contains("win");
+
+    @Override
+    public boolean isAvailable() {
+        return true;
+    }
+
+    @Override
+    public List<ProcessInfo> discover() throws IOException {
+        Process process = Runtime.getRuntime().exec(WINDOWS ? "cmd /c jps -l" : "jps -l");
+        List<ProcessInfo> processes = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                logger.debug("line = {}", line);
+                String[] parts = line.split("\\s+");
+                if (parts.length >= 2 && isNumber(parts[0])) {
+                    String name = ProcessDiscovery.toDisplayName(parts[1]);
+                    if (name == null) {
+                        continue;
+                    }
+                    processes.add(ProcessInfo.builder().name(name).mainClass(parts[1]).command(parts[1])
+                            .pid(Long.parseLong(parts[0]))
+                            .processType("Java").jvm("")
+                            .build());
+                }
+            }
+        }
+        return processes;
+    }
+
+    private static boolean isNumber(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return !value.isEmpty();
+    }
+}
@@ -0,0 +1,115 @@
+package org.freedom.cleanprocess.service;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonParseException;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * @description: 以 JSON 数组保存在单个文件中的配置列表（过滤规则、看门狗策略等），
+ * 负责读写、解析与校验；文件不存在或内容非法时使用 {@link #defaults()}
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public abstract class JsonListStore<T> {
+    private static final Logger logger = LogManager.getLogger(JsonListStore.class);
+
+    private final Gson gson = new GsonBuilder().setPrettyPrinting().create();
+    private final Path path;
+    private final Type listType;
+    private final String description;
+
+    /**
+     * @param listType    List&lt;T&gt; 的完整泛型类型
+     * @param description 配置名称，用于日志和错误信息
+     */
+    protected JsonListStore(Path path, Type listType, String description) {
+        this.path = path;
+        this.listType = listType;
+        this.description = description;
+    }
+
+    /**
+     * 文件不存在或内容非法时使用的列表
+     */
+    protected abstract List<T> defaults();
+
+    /**
+     * 校验列表能否生效，非法时抛出 IllegalArgumentException
+     */
+    protected abstract void validate(List<T> items);
+
+    public String getDescription() {
+        return description;
+    }
+
+    /**
+     * 读取列表，文件不存在、内容损坏或含有空元素时返回默认值；不做 {@link #validate} 校验
+     */
+    public List<T> load() {
+        if (!Files.exists(path)) {
+            return defaults();
+        }
+        try (Reader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            List<T> items = gson.fromJson(reader, listType);
+            if (items == null) {
+                return defaults();
+            }
+            requireNoNulls(items);
+            return items;
+        } catch (IOException | JsonParseException | IllegalArgumentException e) {
+            logger.error("读取{}失败，使用默认值: {}", description, path, e);
+            return defaults();
+        }
+    }
+
+    public void save(List<T> items) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        try (Writer writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8)) {
+            gson.toJson(items, listType, writer);
+        }
+    }
+
+    public String toJson(List<T> items) {
+        return gson.toJson(items, listType);
+    }
+
+    /**
+     * 解析 JSON 文本并校验能否生效，供界面编辑后保存
+     */
+    public List<T> parse(String json) {
+        List<T> items;
+        try {
+            items = gson.fromJson(json, listType);
+        } catch (JsonParseException e) {
+            throw new IllegalArgumentException(description + " JSON 格式错误: " + e.getMessage(), e);
+        }
+        if (items == null) {
+            items = List.of();
+        }
+        requireNoNulls(items);
+        validate(items);
+        return items;
+    }
+
+    private void requireNoNulls(List<T> items) {
+        for (int i = 0; i < items.size(); i++) {
+            if (items.get(i) == null) {
+                throw new IllegalArgumentException(description + "第 " + (i + 1) + " 项为空");
+            }
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.freedom.cleanprocess.service;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * @description: 基于 JsonReader / JsonWriter 的流式 JSON 格式化与压缩，逐个 token 从输入复制到输出，
+ * 不构建 JsonElement 树，内存占用与文档大小无关（只与单个字符串或数字 token 的长度有关）。
+ * 数字按原文输出，不做精度转换
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class JsonStreamFormatter {
+    /**
+     * 每处理多少个 token 汇报一次进度并检查是否取消
+     */
+    private static final int CHECK_INTERVAL = 4096;
+
+    private JsonStreamFormatter() {
+    }
+
+    /**
+     * 把 in 中的一个 JSON 文档写到 out，out 由调用方关闭
+     *
+     * @param indent    缩进字符串，空字符串表示压缩输出
+     * @param progress  已读取的字符数
+     * @param cancelled 返回 true 时抛出 CancellationException 中止处理
+     * @return 处理的 token 数
+     */
+    public static long format(Reader in, Writer out, String indent, LongConsumer progress,
+                              BooleanSupplier cancelled) throws IOException {
+        CountingReader counting = new CountingReader(in);
+        JsonReader reader = new JsonReader(counting);
+        // 与 JsonParser.parseString 一致，接受注释、单引号等宽松写法
+        reader.setLenient(true);
+        JsonWriter writer = new JsonWriter(out);
+        writer.setIndent(indent);
+        writer.setSerializeNulls(true);
+        long tokens = 0;
+        int depth = 0;
+        do {
+            JsonToken token = reader.peek();
+            switch (token) {
+                case BEGIN_OBJECT:
+                    reader.beginObject();
+                    writer.beginObject();
+                    depth++;
+                    break;
+                case END_OBJECT:
+                    reader.endObject();
+                    writer.endObject();
+                    depth--;
+                    break;
+                case BEGIN_ARRAY:
+                    reader.beginArray();
+                    writer.beginArray();
+                    depth++;
+                    break;
+                case END_ARRAY:
+                    reader.endArray();
+                    writer.endArray();
+                    depth--;
+                    break;
+                case NAME:
+                    writer.name(reader.nextName());
+                    break;
+                case STRING:
+                    writer.value(reader.nextString());
+                    break;
+                case NUMBER:
+                    writer.jsonValue(reader.nextString());
+                    break;
+                case BOOLEAN:
+                    writer.value(reader.nextBoolean());
+                    break;
+                case NULL:
+                    reader.nextNull();
+                    writer.nullValue();
+                    break;
+                default:
+                    throw new IOException("JSON 内容为空");
+            }
+            if (++tokens % CHECK_INTERVAL == 0) {
+                if (cancelled.getAsBoolean()) {
+                    throw new CancellationException();
+                }
+                progress.accept(counting.count);
+            }
+        } while (depth > 0);
+        if (reader.peek() != JsonToken.END_DOCUMENT) {
+            throw new IOException("JSON 文档结束后还有多余内容: " + reader);
+        }
+        writer.flush();
+        progress.accept(counting.count);
+        return tokens;
+    }
+
+    /**
+     * 统计已读取的字符数，用于计算进度
+     */
+    private static final class CountingReader extends FilterReader {
+        private long count;
+
+        CountingReader(Reader in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int c = super.read();
+            if (c >= 0) {
+                count++;
+            }
+            return c;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int n = super.read(buffer, offset, length);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
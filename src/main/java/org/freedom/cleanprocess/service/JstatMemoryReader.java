@@ -0,0 +1,108 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 通过 jstat -gc 命令读取内存指标，仅在 hsperfdata 不可读时使用
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class JstatMemoryReader {
+    private static final Logger logger = LogManager.getLogger(JstatMemoryReader.class);
+
+    private final long timeoutMillis;
+
+    /**
+     * @param timeoutMillis jstat 运行超过该时间即强制结束
+     */
+    public JstatMemoryReader(long timeoutMillis) {
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 返回内存采样（字节），读取失败或超时时返回 null
+     */
+    public JvmMemorySample read(long pid) throws IOException {
+        // 执行 jstat 命令
+        Process process = new ProcessBuilder("jstat", "-gc", String.valueOf(pid)).redirectErrorStream(true).start();
+        try {
+            // jstat -gc 只输出两行，先等待进程结束再读取，挂起时不会一直占用采样线程
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                logger.warn("jstat -gc {} 超过 {} ms 未结束，已强制结束", pid, timeoutMillis);
+                return null;
+            }
+            return parse(process);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    private static JvmMemorySample parse(Process process) throws IOException {
+        JvmMemorySample sample = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            // 读取命令输出
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.trim().isEmpty()) {
+                    continue;
+                }
+                // 解析 jstat 输出：S0C S1C S0U S1U EC EU OC OU MC MU CCSC CCSU YGC YGCT FGC FGCT ...（KB / 秒）
+                String[] parts = line.trim().split("\\s+");
+                if (parts.length >= 16) {
+                    long s0u = parseKilobytes(parts[2]);
+                    long s1u = parseKilobytes(parts[3]);
+                    long eu = parseKilobytes(parts[5]);
+                    long ou = parseKilobytes(parts[7]);
+                    long mu = parseKilobytes(parts[9]);
+                    if (s0u < 0 || s1u < 0 || eu < 0 || ou < 0 || mu < 0) {
+                        logger.info("Invalid jstat line: {}", line);
+                        continue; // 跳过非法数据（包括表头）
+                    }
+                    sample = new JvmMemorySample(s0u, s1u, eu, ou, mu, parseKilobytes(parts[4]),
+                            parseCount(parts[12]), parseSeconds(parts[13]),
+                            parseCount(parts[14]), parseSeconds(parts[15]), System.nanoTime());
+                }
+            }
+        }
+        return sample;
+    }
+
+    private static long parseCount(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return (long) (Double.parseDouble(value) * 1e9);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 把 KB 数值转换为字节，非法数据返回 -1
+     */
+    private static long parseKilobytes(String value) {
+        if (value == null || value.isEmpty()) {
+            return -1;
+        }
+        try {
+            return (long) (Double.parseDouble(value) * 1024);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
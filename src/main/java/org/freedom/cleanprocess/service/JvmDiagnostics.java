@@ -0,0 +1,127 @@
+package org.freedom.cleanprocess.service;
+
+import com.sun.tools.attach.AttachNotSupportedException;
+import com.sun.tools.attach.VirtualMachine;
+
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * @description: 目标 JVM 的诊断通道：只读的诊断（线程转储、类直方图）仅在目标已经开启本地 JMX 代理时走 JMX，
+ * 否则由调用方退回到 jcmd 命令，避免在被诊断的进程里留下一个一直存活的管理代理；JFR 实时录制必须使用 JMX，会按需启动代理
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class JvmDiagnostics {
+
+    private static final boolean WINDOWS = System.getProperty("os.name", "").toLowerCase().contains("win");
+    private static final String LOCAL_CONNECTOR_ADDRESS = "com.sun.management.jmxremote.localConnectorAddress";
+    /**
+     * jcmd 默认超时，类直方图在大堆上需要先做一次 Full GC，给得比较宽
+     */
+    public static final long JCMD_TIMEOUT_MILLIS = 60_000;
+
+    /**
+     * 逐行解析 jcmd 输出
+     */
+    @FunctionalInterface
+    public interface OutputParser<T> {
+        T parse(BufferedReader reader) throws IOException;
+    }
+
+    private JvmDiagnostics() {
+    }
+
+    /**
+     * attach 到目标进程，启动（或复用已启动的）本地管理代理并返回 JMX 连接，使用完毕后由调用方关闭。
+     * 代理启动后会一直留在目标进程中，只用于必须走 JMX 的功能
+     */
+    public static JMXConnector connect(long pid) throws IOException {
+        VirtualMachine vm = attach(pid);
+        String address;
+        try {
+            address = vm.startLocalManagementAgent();
+        } finally {
+            vm.detach();
+        }
+        return JMXConnectorFactory.connect(new JMXServiceURL(address));
+    }
+
+    /**
+     * 目标进程已经开启本地管理代理时返回 JMX 连接，否则返回 null，不会在目标进程中启动代理
+     */
+    public static JMXConnector connectExisting(long pid) throws IOException {
+        VirtualMachine vm = attach(pid);
+        String address;
+        try {
+            address = vm.getAgentProperties().getProperty(LOCAL_CONNECTOR_ADDRESS);
+        } finally {
+            vm.detach();
+        }
+        return address == null ? null : JMXConnectorFactory.connect(new JMXServiceURL(address));
+    }
+
+    /**
+     * 执行 jcmd 并在当前线程流式解析输出，标准错误合并到标准输出。
+     * 超过 timeoutMillis 仍未结束时强制结束子进程并抛出 IOException，挂住的 jcmd 不会一直占着调用线程
+     */
+    public static <T> T jcmd(long pid, long timeoutMillis, OutputParser<T> parser, String... command)
+            throws IOException {
+        List<String> args = new ArrayList<>();
+        args.add(jcmdExecutable());
+        args.add(String.valueOf(pid));
+        args.addAll(List.of(command));
+        Process process = new ProcessBuilder(args).redirectErrorStream(true).start();
+        AtomicBoolean timedOut = new AtomicBoolean();
+        // 读取输出时阻塞在 readLine 上，由定时任务结束子进程使读取端遇到 EOF
+        CompletableFuture.delayedExecutor(timeoutMillis, TimeUnit.MILLISECONDS).execute(() -> {
+            if (process.isAlive()) {
+                timedOut.set(true);
+                process.destroyForcibly();
+            }
+        });
+        try {
+            T result;
+            try (BufferedReader reader = new BufferedReader(
+                    new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8), 64 * 1024)) {
+                result = parser.parse(reader);
+            }
+            if (!process.waitFor(timeoutMillis, TimeUnit.MILLISECONDS) || timedOut.get()) {
+                throw new IOException("jcmd " + String.join(" ", command) + " 超时, pid = " + pid);
+            }
+            return result;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("等待 jcmd 时被中断, pid = " + pid, e);
+        } finally {
+            process.destroyForcibly();
+        }
+    }
+
+    private static VirtualMachine attach(long pid) throws IOException {
+        try {
+            return VirtualMachine.attach(String.valueOf(pid));
+        } catch (AttachNotSupportedException e) {
+            throw new IOException("无法 attach 到进程 " + pid + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * 优先使用当前运行时自带的 jcmd，找不到时交给 PATH 解析
+     */
+    private static String jcmdExecutable() {
+        File file = new File(System.getProperty("java.home"), "bin" + File.separator + (WINDOWS ? "jcmd.exe" : "jcmd"));
+        return file.isFile() ? file.getPath() : "jcmd";
+    }
+}
@@ -0,0 +1,75 @@
+package org.freedom.cleanprocess.service;
+
+import org.freedom.cleanprocess.entiy.JvmInfo;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: JVM 启动信息缓存，按 PID + 启动时间缓存，每个进程只从 hsperfdata 读取一次
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class JvmInfoCache {
+    private final PerfDataReader perfDataReader;
+    private final Map<String, JvmInfo> cache = new ConcurrentHashMap<>(128);
+
+    public JvmInfoCache(PerfDataReader perfDataReader) {
+        this.perfDataReader = perfDataReader;
+    }
+
+    /**
+     * 获取 JVM 启动信息，首次访问时从性能计数器读取，读取不到时返回 null（下次会重试）
+     */
+    public JvmInfo get(long pid, long startTime) {
+        String key = key(pid, startTime);
+        JvmInfo info = cache.get(key);
+        if (info != null) {
+            return info;
+        }
+        PerfDataFile file = perfDataReader.file(pid);
+        if (file == null || !file.isAccessible()) {
+            return null;
+        }
+        String command = file.getString("sun.rt.javaCommand");
+        String mainClass = command;
+        if (command != null && command.indexOf(' ') > 0) {
+            mainClass = command.substring(0, command.indexOf(' '));
+        }
+        info = JvmInfo.builder()
+                .mainClass(mainClass)
+                .command(command)
+                .vmArgs(file.getString("java.rt.vmArgs"))
+                .vmFlags(file.getString("java.rt.vmFlags"))
+                .systemProperties(file.getStrings("java.property."))
+                .build();
+        cache.put(key, info);
+        return info;
+    }
+
+    /**
+     * 只读取缓存，不触发文件访问，供界面线程使用
+     */
+    public JvmInfo peek(long pid, long startTime) {
+        return cache.get(key(pid, startTime));
+    }
+
+    /**
+     * 清理已退出进程的缓存
+     */
+    public void retain(List<ProcessInfo> processes) {
+        Set<String> alive = new HashSet<>(processes.size() * 2);
+        for (ProcessInfo processInfo : processes) {
+            alive.add(key(processInfo.getPid(), processInfo.getStartTime()));
+        }
+        cache.keySet().retainAll(alive);
+    }
+
+    private static String key(long pid, long startTime) {
+        return pid + "@" + startTime;
+    }
+}
@@ -0,0 +1,86 @@
+package org.freedom.cleanprocess.service;
+
+/**
+ * @description: 一次内存与 GC 采样结果，字段含义与 jstat -gc 的同名列一致，内存单位为字节，时间单位为纳秒
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class JvmMemorySample {
+    /**
+     * Survivor 0 已使用
+     */
+    public final long s0u;
+    /**
+     * Survivor 1 已使用
+     */
+    public final long s1u;
+    /**
+     * Eden 已使用
+     */
+    public final long eu;
+    /**
+     * 老年代已使用
+     */
+    public final long ou;
+    /**
+     * 元空间已使用
+     */
+    public final long mu;
+    /**
+     * Eden 容量
+     */
+    public final long ec;
+    /**
+     * Young GC 次数
+     */
+    public final long ygc;
+    /**
+     * Young GC 累计耗时
+     */
+    public final long ygct;
+    /**
+     * Full GC 次数
+     */
+    public final long fgc;
+    /**
+     * Full GC 累计耗时
+     */
+    public final long fgct;
+    /**
+     * 采样时刻（System.nanoTime）
+     */
+    public final long timestamp;
+
+    public JvmMemorySample(long s0u, long s1u, long eu, long ou, long mu) {
+        this(s0u, s1u, eu, ou, mu, 0, 0, 0, 0, 0, System.nanoTime());
+    }
+
+    public JvmMemorySample(long s0u, long s1u, long eu, long ou, long mu, long ec,
+                           long ygc, long ygct, long fgc, long fgct, long timestamp) {
+        this.s0u = s0u;
+        this.s1u = s1u;
+        this.eu = eu;
+        this.ou = ou;
+        this.mu = mu;
+        this.ec = ec;
+        this.ygc = ygc;
+        this.ygct = ygct;
+        this.fgc = fgc;
+        this.fgct = fgct;
+        this.timestamp = timestamp;
+    }
+
+    /**
+     * 已使用堆内存
+     */
+    public long heapUsed() {
+        return s0u + s1u + eu + ou;
+    }
+
+    /**
+     * 已使用非堆内存
+     */
+    public long nonHeapUsed() {
+        return mu;
+    }
+}
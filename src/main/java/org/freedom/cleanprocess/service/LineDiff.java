@@ -0,0 +1,337 @@
+package org.freedom.cleanprocess.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * @description: 行级差异算法。先把每一行映射为整数 ID，再在 int 数组上计算差异：
+ * 每个区间先去掉公共前后缀，然后用线性空间的 Myers O(ND) 算法寻找中间蛇形分割；
+ * 编辑距离超过与区间大小相关的上限时，改用 histogram 思路按出现次数最少、且最靠近中点的公共行切分区间。
+ * 区间用显式栈处理，不会因为递归过深而栈溢出，额外内存与行数成线性关系
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class LineDiff {
+    /**
+     * histogram 切分时锚点行在 A 中允许的最大出现次数，超过时整个区间视为替换
+     */
+    private static final int MAX_CHAIN = 64;
+    /**
+     * 两侧行数之和不超过该值的区间不限制编辑距离，总能得到最短编辑序列
+     */
+    private static final int SMALL_REGION = 256;
+
+    /**
+     * 一次差异编辑：A 的 [beginA, endA) 被替换为 B 的 [beginB, endB)
+     */
+    public static final class Edit {
+        private final int beginA;
+        private final int endA;
+        private final int beginB;
+        private final int endB;
+
+        public Edit(int beginA, int endA, int beginB, int endB) {
+            this.beginA = beginA;
+            this.endA = endA;
+            this.beginB = beginB;
+            this.endB = endB;
+        }
+
+        public int getBeginA() {
+            return beginA;
+        }
+
+        public int getEndA() {
+            return endA;
+        }
+
+        public int getBeginB() {
+            return beginB;
+        }
+
+        public int getEndB() {
+            return endB;
+        }
+
+        @Override
+        public String toString() {
+            return "Edit(" + beginA + "-" + endA + ", " + beginB + "-" + endB + ")";
+        }
+    }
+
+    private final int[] a;
+    private final int[] b;
+    private final int[] counts;
+    private final int[] firstInA;
+    private final List<Edit> edits = new ArrayList<>();
+    /**
+     * 待处理区间，每 4 个元素为 aLo, aHi, bLo, bHi
+     */
+    private int[] stack = new int[64];
+    private int stackSize;
+    private int[] forward = new int[0];
+    private int[] backward = new int[0];
+    private final int[] snake = new int[4];
+
+    private LineDiff(int[] a, int[] b, int idCount) {
+        this.a = a;
+        this.b = b;
+        this.counts = new int[idCount];
+        this.firstInA = new int[idCount];
+    }
+
+    /**
+     * 按 key 把两侧的行映射为整数 ID，key 相同的行视为相同
+     *
+     * @return [A 的 ID 数组, B 的 ID 数组]
+     */
+    public static int[][] intern(List<String> left, List<String> right, UnaryOperator<String> key) {
+        Map<String, Integer> ids = new HashMap<>(Math.max(16, (left.size() + right.size()) / 2));
+        return new int[][]{intern(left, key, ids), intern(right, key, ids)};
+    }
+
+    private static int[] intern(List<String> lines, UnaryOperator<String> key, Map<String, Integer> ids) {
+        int[] result = new int[lines.size()];
+        for (int i = 0; i < result.length; i++) {
+            Integer id = ids.putIfAbsent(key.apply(lines.get(i)), ids.size());
+            result[i] = id == null ? ids.size() - 1 : id;
+        }
+        return result;
+    }
+
+    /**
+     * 返回按选项忽略空白和大小写的行键函数，两个选项都关闭时返回原行
+     */
+    public static UnaryOperator<String> normalizer(boolean ignoreWhitespace, boolean ignoreCase) {
+        if (!ignoreWhitespace && !ignoreCase) {
+            return UnaryOperator.identity();
+        }
+        return line -> normalize(line, ignoreWhitespace, ignoreCase);
+    }
+
+    /**
+     * 一次遍历完成去空白和转小写，不使用正则；行中没有需要改写的字符时直接返回原字符串，不产生新对象
+     */
+    static String normalize(String line, boolean ignoreWhitespace, boolean ignoreCase) {
+        int length = line.length();
+        int i = 0;
+        while (i < length) {
+            char c = line.charAt(i);
+            if (ignoreWhitespace && isWhitespace(c) || ignoreCase && Character.toLowerCase(c) != c) {
+                break;
+            }
+            i++;
+        }
+        if (i == length) {
+            return line;
+        }
+        StringBuilder builder = new StringBuilder(length).append(line, 0, i);
+        for (; i < length; i++) {
+            char c = line.charAt(i);
+            if (ignoreWhitespace && isWhitespace(c)) {
+                continue;
+            }
+            builder.append(ignoreCase ? Character.toLowerCase(c) : c);
+        }
+        return builder.toString();
+    }
+
+    /**
+     * 与正则 \s 的字符集合一致
+     */
+    static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == 0x0B || c == '\f' || c == '\r';
+    }
+
+    /**
+     * 计算把 a 变为 b 的编辑列表，按位置排序且相邻编辑已合并
+     */
+    public static List<Edit> diff(int[] a, int[] b) {
+        int idCount = 0;
+        for (int id : a) {
+            idCount = Math.max(idCount, id + 1);
+        }
+        for (int id : b) {
+            idCount = Math.max(idCount, id + 1);
+        }
+        LineDiff diff = new LineDiff(a, b, idCount);
+        diff.push(0, a.length, 0, b.length);
+        while (diff.stackSize > 0) {
+            diff.stackSize -= 4;
+            int base = diff.stackSize;
+            diff.process(diff.stack[base], diff.stack[base + 1], diff.stack[base + 2], diff.stack[base + 3]);
+        }
+        return merge(diff.edits);
+    }
+
+    private void process(int aLo, int aHi, int bLo, int bHi) {
+        while (aLo < aHi && bLo < bHi && a[aLo] == b[bLo]) {
+            aLo++;
+            bLo++;
+        }
+        while (aLo < aHi && bLo < bHi && a[aHi - 1] == b[bHi - 1]) {
+            aHi--;
+            bHi--;
+        }
+        if (aLo == aHi || bLo == bHi) {
+            if (aLo < aHi || bLo < bHi) {
+                edits.add(new Edit(aLo, aHi, bLo, bHi));
+            }
+            return;
+        }
+        int n = aHi - aLo;
+        int m = bHi - bLo;
+        // 小区间直接求最优解；大区间上失败的 Myers 尝试代价约为 limit 的平方，按 sqrt(n + m) 取上限，保证每层切分的总代价是线性的
+        int limit = n + m <= SMALL_REGION ? n + m : (int) Math.max(16, Math.min(512, 2 * Math.sqrt(n + m)));
+        if (middleSnake(aLo, n, bLo, m, limit)) {
+            push(aLo, aLo + snake[0], bLo, bLo + snake[1]);
+            push(aLo + snake[2], aHi, bLo + snake[3], bHi);
+        } else {
+            histogramSplit(aLo, aHi, bLo, bHi);
+        }
+    }
+
+    /**
+     * 线性空间 Myers 算法寻找中间蛇形，结果写入 snake（相对区间起点的 xStart, yStart, xEnd, yEnd）
+     *
+     * @return 编辑距离在 2 * limit 以内时返回 true
+     */
+    private boolean middleSnake(int aLo, int n, int bLo, int m, int limit) {
+        int max = Math.min(limit, (n + m + 1) / 2);
+        int size = 2 * max + 3;
+        if (forward.length < size) {
+            forward = new int[size];
+            backward = new int[size];
+        }
+        int offset = max + 1;
+        int delta = n - m;
+        boolean odd = (delta & 1) != 0;
+        forward[offset + 1] = 0;
+        backward[offset + 1] = 0;
+        for (int d = 0; d <= max; d++) {
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && forward[offset + k - 1] < forward[offset + k + 1])
+                        ? forward[offset + k + 1] : forward[offset + k - 1] + 1;
+                int y = x - k;
+                int x0 = x;
+                int y0 = y;
+                while (x < n && y < m && a[aLo + x] == b[bLo + y]) {
+                    x++;
+                    y++;
+                }
+                forward[offset + k] = x;
+                int reverse = delta - k;
+                if (odd && reverse >= -(d - 1) && reverse <= d - 1 && x + backward[offset + reverse] >= n) {
+                    snake[0] = x0;
+                    snake[1] = y0;
+                    snake[2] = x;
+                    snake[3] = y;
+                    return true;
+                }
+            }
+            for (int k = -d; k <= d; k += 2) {
+                int x = k == -d || (k != d && backward[offset + k - 1] < backward[offset + k + 1])
+                        ? backward[offset + k + 1] : backward[offset + k - 1] + 1;
+                int y = x - k;
+                int x0 = x;
+                int y0 = y;
+                while (x < n && y < m && a[aLo + n - 1 - x] == b[bLo + m - 1 - y]) {
+                    x++;
+                    y++;
+                }
+                backward[offset + k] = x;
+                int straight = delta - k;
+                if (!odd && straight >= -d && straight <= d && x + forward[offset + straight] >= n) {
+                    snake[0] = n - x;
+                    snake[1] = m - y;
+                    snake[2] = n - x0;
+                    snake[3] = m - y0;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 以 B 中在 A 区间里出现次数最少的行为锚点切分区间，并向两侧扩展成一段公共行
+     */
+    private void histogramSplit(int aLo, int aHi, int bLo, int bHi) {
+        for (int i = aHi - 1; i >= aLo; i--) {
+            counts[a[i]]++;
+            firstInA[a[i]] = i;
+        }
+        // 出现次数最少者优先，次数相同时取最靠近 B 区间中点的行，保证切分均衡，避免退化成平方复杂度
+        int anchor = -1;
+        int best = MAX_CHAIN + 1;
+        int middle = (bLo + bHi) >>> 1;
+        for (int j = bLo; j < bHi; j++) {
+            int count = counts[b[j]];
+            if (count > 0 && (count < best || (count == best && Math.abs(j - middle) < Math.abs(anchor - middle)))) {
+                best = count;
+                anchor = j;
+            }
+        }
+        int anchorA = anchor < 0 ? -1 : firstInA[b[anchor]];
+        for (int i = aLo; i < aHi; i++) {
+            counts[a[i]] = 0;
+        }
+        if (anchor < 0) {
+            edits.add(new Edit(aLo, aHi, bLo, bHi));
+            return;
+        }
+        int startA = anchorA;
+        int startB = anchor;
+        while (startA > aLo && startB > bLo && a[startA - 1] == b[startB - 1]) {
+            startA--;
+            startB--;
+        }
+        int endA = anchorA + 1;
+        int endB = anchor + 1;
+        while (endA < aHi && endB < bHi && a[endA] == b[endB]) {
+            endA++;
+            endB++;
+        }
+        push(aLo, startA, bLo, startB);
+        push(endA, aHi, endB, bHi);
+    }
+
+    private void push(int aLo, int aHi, int bLo, int bHi) {
+        if (aLo == aHi && bLo == bHi) {
+            return;
+        }
+        if (stackSize + 4 > stack.length) {
+            int[] grown = new int[stack.length * 2];
+            System.arraycopy(stack, 0, grown, 0, stackSize);
+            stack = grown;
+        }
+        stack[stackSize++] = aLo;
+        stack[stackSize++] = aHi;
+        stack[stackSize++] = bLo;
+        stack[stackSize++] = bHi;
+    }
+
+    private static List<Edit> merge(List<Edit> edits) {
+        edits.sort((left, right) -> left.beginA != right.beginA
+                ? Integer.compare(left.beginA, right.beginA) : Integer.compare(left.beginB, right.beginB));
+        List<Edit> merged = new ArrayList<>(edits.size());
+        Edit current = null;
+        for (Edit edit : edits) {
+            if (current != null && current.endA == edit.beginA && current.endB == edit.beginB) {
+                current = new Edit(current.beginA, edit.endA, current.beginB, edit.endB);
+            } else {
+                if (current != null) {
+                    merged.add(current);
+                }
+                current = edit;
+            }
+        }
+        if (current != null) {
+            merged.add(current);
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,392 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @description: Linux 原生进程后端，直接解析 /proc/&lt;pid&gt;/stat、status、cmdline（RSS 取自 stat 中与 statm 相同的字段），
+ * 同时列出 Java 与非 Java 进程，并补充 RSS、CPU 使用率、线程数及完整 JVM 参数。
+ * 是否为 Java 进程以 /tmp/hsperfdata_&lt;user&gt;/&lt;pid&gt; 是否存在为准（自定义启动器、jpackage 产物同样能识别），
+ * 关闭了 UsePerfData 的 JVM 再按 argv[0] 是否为 java 兜底
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class LinuxProcBackend implements ProcessDiscovery {
+    private static final Logger logger = LogManager.getLogger(LinuxProcBackend.class);
+
+    private static final File PROC = new File("/proc");
+    /**
+     * HotSpot 在 Linux 下固定把 hsperfdata 写到 /tmp，与 java.io.tmpdir 无关
+     */
+    private static final File PERF_DATA_ROOT = new File("/tmp");
+    private static final String PERF_DATA_PREFIX = "hsperfdata_";
+    /**
+     * USER_HZ，Linux 上固定为 100
+     */
+    private static final long CLOCK_TICKS = 100;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    /**
+     * 这些 java 启动参数的值是单独的一个参数，解析主类时需要一起跳过
+     */
+    private static final Set<String> OPTIONS_WITH_VALUE = Set.of("-cp", "-classpath", "--class-path",
+            "-p", "--module-path", "--upgrade-module-path", "--add-modules", "--limit-modules",
+            "--add-opens", "--add-exports", "--add-reads", "--patch-module");
+
+    /**
+     * 复用的读取缓冲区，discover 在单线程中执行
+     */
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final long[] statFields = new long[25];
+    /**
+     * PID -> {启动时间, 上次 CPU ticks, 上次采样时间(ns)}，用于计算两次扫描间的 CPU 使用率
+     */
+    private final Map<Integer, long[]> cpuHistory = new HashMap<>(1024);
+    private final long pageSize = readPageSize();
+    private final long bootTimeMillis = readBootTime();
+    private Map<Integer, String> userNames;
+
+    @Override
+    public boolean isAvailable() {
+        return System.getProperty("os.name", "").toLowerCase().contains("linux") && PROC.isDirectory();
+    }
+
+    @Override
+    public synchronized List<ProcessInfo> discover() throws IOException {
+        String[] entries = PROC.list();
+        if (entries == null) {
+            throw new IOException("无法读取 /proc");
+        }
+        long now = System.nanoTime();
+        double uptimeSeconds = readUptime();
+        Map<Integer, long[]> seen = new HashMap<>(entries.length * 2);
+        Set<Integer> jvmPids = perfDataPids();
+        List<ProcessInfo> processes = new ArrayList<>(entries.length);
+        for (String entry : entries) {
+            int pid = parsePid(entry);
+            if (pid <= 0) {
+                continue;
+            }
+            try {
+                ProcessInfo processInfo = readProcess(pid, entry, now, uptimeSeconds, seen, jvmPids);
+                if (processInfo != null) {
+                    processes.add(processInfo);
+                }
+            } catch (IOException e) {
+                // 进程在扫描过程中退出属于正常情况
+                logger.trace("读取进程 {} 失败: {}", pid, e.getMessage());
+            }
+        }
+        cpuHistory.clear();
+        cpuHistory.putAll(seen);
+        return processes;
+    }
+
+    private ProcessInfo readProcess(int pid, String entry, long now, double uptimeSeconds,
+                                    Map<Integer, long[]> seen, Set<Integer> jvmPids) throws IOException {
+        String dir = "/proc/" + entry + "/";
+
+        // stat: pid (comm) state ppid ... utime(14) stime(15) ... num_threads(20) ... starttime(22) vsize(23) rss(24)
+        int length = read(dir + "stat");
+        int open = indexOf((byte) '(', 0, length);
+        int close = lastIndexOf((byte) ')', length);
+        if (open < 0 || close < 0) {
+            return null;
+        }
+        String comm = new String(buffer, open + 1, close - open - 1, StandardCharsets.UTF_8);
+        long[] fields = statFields;
+        int field = 3;
+        int pos = close + 2;
+        while (pos < length && field <= 24) {
+            int end = indexOf((byte) ' ', pos, length);
+            if (end < 0) {
+                end = length;
+            }
+            if (field == 14 || field == 15 || field == 20 || field == 22 || field == 24) {
+                fields[field] = parseLong(pos, end);
+            }
+            field++;
+            pos = end + 1;
+        }
+        long cpuTicks = fields[14] + fields[15];
+        long startTicks = fields[22];
+        int threads = (int) fields[20];
+        // rss 与 statm 的 resident 列相同（单位：页），直接取自 stat，省去一次文件读取
+        long rss = fields[24] * pageSize;
+
+        // status: 只需要 Uid 行
+        length = read(dir + "status");
+        int uid = -1;
+        int uidLine = indexOf("\nUid:", length);
+        if (uidLine >= 0) {
+            int start = uidLine + 5;
+            while (start < length && (buffer[start] == ' ' || buffer[start] == '\t')) {
+                start++;
+            }
+            int end = start;
+            while (end < length && buffer[end] >= '0' && buffer[end] <= '9') {
+                end++;
+            }
+            uid = (int) parseLong(start, end);
+        }
+
+        // cmdline: 以 \0 分隔的参数，内核线程为空
+        length = read(dir + "cmdline");
+        List<String> args = splitArgs(length);
+
+        double cpu = cpuPercent(pid, startTicks, cpuTicks, now, uptimeSeconds, seen);
+
+        String name = comm;
+        String mainClass = null;
+        String processType = "Native";
+        String jvm = "";
+        long memory = rss;
+        boolean launcher = !args.isEmpty() && isJavaLauncher(args.get(0));
+        if (launcher || jvmPids.contains(pid)) {
+            if (launcher) {
+                // 只有标准启动器的参数格式是已知的；java @argfile 等解析不出主类时保留进程名，
+                // 主类由采集阶段从 hsperfdata 的 sun.rt.javaCommand 补充
+                StringBuilder jvmArgs = new StringBuilder();
+                mainClass = parseJavaArgs(args, jvmArgs);
+                jvm = jvmArgs.toString();
+            }
+            String displayName = ProcessDiscovery.toDisplayName(mainClass);
+            if (displayName != null) {
+                name = displayName;
+            }
+            processType = "Java";
+            memory = ProcessInfo.UNKNOWN;
+        }
+        long startTime = bootTimeMillis + startTicks * 1000 / CLOCK_TICKS;
+        return ProcessInfo.builder().name(name).mainClass(mainClass).command(String.join(" ", args))
+                .pid(pid).startTime(startTime).memory(memory)
+                .processType(processType).jvm(jvm)
+                .rss(rss).cpu(cpu).threads(threads).user(userName(uid))
+                .build();
+    }
+
+    private double cpuPercent(int pid, long startTicks, long cpuTicks, long now, double uptimeSeconds,
+                              Map<Integer, long[]> seen) {
+        seen.put(pid, new long[]{startTicks, cpuTicks, now});
+        long[] previous = cpuHistory.get(pid);
+        if (previous != null && previous[0] == startTicks && now > previous[2]) {
+            double seconds = (now - previous[2]) / 1e9;
+            return (cpuTicks - previous[1]) / (double) CLOCK_TICKS / seconds * 100;
+        }
+        // 首次扫描时使用进程生命周期内的平均值
+        double lifetime = uptimeSeconds - startTicks / (double) CLOCK_TICKS;
+        return lifetime > 0 ? cpuTicks / (double) CLOCK_TICKS / lifetime * 100 : 0;
+    }
+
+    /**
+     * 列出所有用户 hsperfdata 目录下的 PID 文件，每次扫描只读取一次目录
+     */
+    private static Set<Integer> perfDataPids() {
+        Set<Integer> pids = new HashSet<>(64);
+        File[] dirs = PERF_DATA_ROOT.listFiles((dir, name) -> name.startsWith(PERF_DATA_PREFIX));
+        if (dirs == null) {
+            return pids;
+        }
+        for (File dir : dirs) {
+            String[] files = dir.list();
+            if (files == null) {
+                continue;
+            }
+            for (String file : files) {
+                int pid = parsePid(file);
+                if (pid > 0) {
+                    pids.add(pid);
+                }
+            }
+        }
+        return pids;
+    }
+
+    private static boolean isJavaLauncher(String executable) {
+        return executable.equals("java") || executable.endsWith("/java");
+    }
+
+    /**
+     * 解析 java 命令行，返回主类（或 jar），同时收集 JVM 参数；解析不出主类时返回 null
+     */
+    private static String parseJavaArgs(List<String> args, StringBuilder jvmArgs) {
+        for (int i = 1; i < args.size(); i++) {
+            String arg = args.get(i);
+            if (arg.startsWith("@")) {
+                // @argfile 的内容只有启动器知道，之后的参数无法可靠定位主类
+                return null;
+            }
+            if (arg.equals("-jar") || arg.equals("-m") || arg.equals("--module")) {
+                return i + 1 < args.size() ? args.get(i + 1) : null;
+            }
+            if (!arg.startsWith("-")) {
+                return arg;
+            }
+            if (OPTIONS_WITH_VALUE.contains(arg)) {
+                i++;
+                continue;
+            }
+            if (jvmArgs.length() > 0) {
+                jvmArgs.append(' ');
+            }
+            jvmArgs.append(arg);
+        }
+        return null;
+    }
+
+    private List<String> splitArgs(int length) {
+        List<String> args = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i < length; i++) {
+            if (buffer[i] == 0) {
+                args.add(new String(buffer, start, i - start, StandardCharsets.UTF_8));
+                start = i + 1;
+            }
+        }
+        if (start < length) {
+            args.add(new String(buffer, start, length - start, StandardCharsets.UTF_8));
+        }
+        return args;
+    }
+
+    private int read(String path) throws IOException {
+        try (FileInputStream in = new FileInputStream(path)) {
+            int total = 0;
+            int n;
+            while (total < buffer.length && (n = in.read(buffer, total, buffer.length - total)) > 0) {
+                total += n;
+            }
+            return total;
+        }
+    }
+
+    private int indexOf(byte b, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int lastIndexOf(byte b, int to) {
+        for (int i = to - 1; i >= 0; i--) {
+            if (buffer[i] == b) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(String ascii, int to) {
+        outer:
+        for (int i = 0; i + ascii.length() <= to; i++) {
+            for (int j = 0; j < ascii.length(); j++) {
+                if (buffer[i + j] != ascii.charAt(j)) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private long parseLong(int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            byte b = buffer[i];
+            if (b < '0' || b > '9') {
+                break;
+            }
+            value = value * 10 + (b - '0');
+        }
+        return value;
+    }
+
+    private static int parsePid(String name) {
+        int pid = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            pid = pid * 10 + (c - '0');
+        }
+        return pid;
+    }
+
+    private static double readUptime() {
+        try {
+            String uptime = Files.readString(Path.of("/proc/uptime"));
+            return Double.parseDouble(uptime.substring(0, uptime.indexOf(' ')));
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 从 /proc/stat 的 btime 行读取系统启动时间
+     */
+    private static long readBootTime() {
+        try (var lines = Files.lines(Path.of("/proc/stat"))) {
+            return lines.filter(line -> line.startsWith("btime "))
+                    .findFirst()
+                    .map(line -> Long.parseLong(line.substring(6).trim()) * 1000)
+                    .orElse(0L);
+        } catch (IOException | RuntimeException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 从 /proc/self/smaps 读取内核页大小，读取失败时按 4 KB 处理
+     */
+    private static long readPageSize() {
+        try (var lines = Files.lines(Path.of("/proc/self/smaps"))) {
+            return lines.filter(line -> line.startsWith("KernelPageSize:"))
+                    .findFirst()
+                    .map(line -> Long.parseLong(line.replaceAll("\\D", "")) * 1024)
+                    .orElse(4096L);
+        } catch (IOException | RuntimeException e) {
+            return 4096;
+        }
+    }
+
+    private String userName(int uid) {
+        if (uid < 0) {
+            return "";
+        }
+        if (userNames == null) {
+            userNames = new HashMap<>(64);
+            try {
+                // /etc/passwd: name:x:uid:gid:...
+                for (String line : Files.readAllLines(Path.of("/etc/passwd"))) {
+                    String[] parts = line.split(":");
+                    if (parts.length > 2) {
+                        try {
+                            userNames.put(Integer.parseInt(parts[2]), parts[0]);
+                        } catch (NumberFormatException ignored) {
+                            // 跳过格式错误的行
+                        }
+                    }
+                }
+            } catch (IOException e) {
+                logger.debug("读取 /etc/passwd 失败", e);
+            }
+        }
+        return userNames.computeIfAbsent(uid, String::valueOf);
+    }
+}
@@ -0,0 +1,305 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * @description: 指标历史的持久化存储，保存在 data/metrics（与日志目录 data/logs 并列）。
+ * 每天一个原始采样段 raw-日期.seg 和一个按分钟汇总的段 rollup-日期.seg；原始数据默认保留 2 天，分钟汇总保留 30 天。
+ * 原始段的指标顺序与 {@link MetricHistory} 一致；汇总段依次为 5 个平均值、5 个最大值和采样次数
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class MetricArchive implements Consumer<List<ProcessInfo>>, Closeable {
+    private static final Logger logger = LogManager.getLogger(MetricArchive.class);
+
+    /**
+     * 设为 false 时不保存指标历史
+     */
+    public static final String ENABLED_PROPERTY = "cleanprocess.metrics.archive";
+
+    public static final int RAW_METRICS = 5;
+    /**
+     * 汇总段中最大值的起始下标
+     */
+    public static final int ROLLUP_MAX = RAW_METRICS;
+    /**
+     * 汇总段中采样次数的下标
+     */
+    public static final int ROLLUP_COUNT = RAW_METRICS * 2;
+    public static final int ROLLUP_METRICS = ROLLUP_COUNT + 1;
+
+    public static final long BUCKET_MILLIS = 60_000;
+
+    private static final String RAW_PREFIX = "raw-";
+    private static final String ROLLUP_PREFIX = "rollup-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private final int rawRetentionDays;
+    private final int rollupRetentionDays;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    private LocalDate currentDay;
+    private MetricSegment raw;
+    private MetricSegment rollup;
+    private boolean failed;
+
+    private final long[] values = new long[RAW_METRICS];
+    private final long[] rollupValues = new long[ROLLUP_METRICS];
+    private long currentBucket = -1;
+    /**
+     * 当前分钟内各进程的累计值
+     */
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    public MetricArchive(Path directory, int rawRetentionDays, int rollupRetentionDays) {
+        this.directory = directory;
+        this.rawRetentionDays = rawRetentionDays;
+        this.rollupRetentionDays = rollupRetentionDays;
+    }
+
+    /**
+     * 默认存储，系统属性关闭时返回 null；JVM 退出时自动刷盘
+     */
+    public static MetricArchive fromSystemProperty() {
+        if ("false".equalsIgnoreCase(System.getProperty(ENABLED_PROPERTY))) {
+            return null;
+        }
+        MetricArchive archive = new MetricArchive(Paths.get("data", "metrics"), 2, 30);
+        Runtime.getRuntime().addShutdownHook(new Thread(archive::close, "metric-archive-close"));
+        return archive;
+    }
+
+    @Override
+    public void accept(List<ProcessInfo> processes) {
+        append(processes, System.currentTimeMillis());
+    }
+
+    /**
+     * 追加一次快照，跨分钟时写出上一分钟的汇总，跨天时切换段文件并清理过期数据
+     */
+    public synchronized void append(List<ProcessInfo> processes, long timestamp) {
+        if (failed) {
+            return;
+        }
+        try {
+            LocalDate day = Instant.ofEpochMilli(timestamp).atZone(zone).toLocalDate();
+            long bucket = timestamp / BUCKET_MILLIS;
+            if (bucket != currentBucket) {
+                flushBucket();
+                currentBucket = bucket;
+            }
+            if (!day.equals(currentDay)) {
+                openDay(day);
+            }
+            raw.beginFrame(timestamp);
+            for (ProcessInfo processInfo : processes) {
+                values[MetricHistory.HEAP] = processInfo.getHeap();
+                values[MetricHistory.NON_HEAP] = processInfo.getNonHeap();
+                values[MetricHistory.RSS] = processInfo.getRss();
+                values[MetricHistory.CPU] = Math.round(processInfo.getCpu() * 100);
+                values[MetricHistory.MEMORY] = processInfo.getMemory() >= 0 ? processInfo.getMemory()
+                        : processInfo.getRss();
+                raw.add(processInfo.getPid(), processInfo.getStartTime(), processInfo.getName(), values);
+                Bucket accumulator = buckets.get(processInfo.getPid());
+                if (accumulator == null || accumulator.startTime != processInfo.getStartTime()) {
+                    if (accumulator != null) {
+                        writeBucket(accumulator);
+                    }
+                    accumulator = new Bucket(processInfo.getPid(), processInfo.getStartTime(), processInfo.getName());
+                    buckets.put(processInfo.getPid(), accumulator);
+                }
+                accumulator.add(values);
+            }
+            raw.endFrame();
+        } catch (MetricSegment.LockedException e) {
+            // 另一个实例（如同时运行的 headless 模式）正在写同一天的段，两边交替追加会互相破坏增量编码
+            logger.warn("{}，本实例不保存指标历史", e.getMessage());
+            failed = true;
+            closeSegments();
+        } catch (IOException | RuntimeException e) {
+            logger.error("写入指标历史失败，停止保存", e);
+            failed = true;
+            close();
+        }
+    }
+
+    /**
+     * 回放某一天的原始采样
+     */
+    public synchronized void replay(LocalDate day, MetricSegment.Visitor visitor) throws IOException {
+        if (day.equals(currentDay) && raw != null) {
+            raw.replay(visitor);
+        } else {
+            readIfExists(directory.resolve(RAW_PREFIX + day + SUFFIX), RAW_METRICS, visitor);
+        }
+    }
+
+    /**
+     * 回放某一天的分钟汇总，时间戳为分钟起点；当前分钟尚未写出
+     */
+    public synchronized void replayRollups(LocalDate day, MetricSegment.Visitor visitor) throws IOException {
+        if (day.equals(currentDay) && rollup != null) {
+            rollup.replay(visitor);
+        } else {
+            readIfExists(directory.resolve(ROLLUP_PREFIX + day + SUFFIX), ROLLUP_METRICS, visitor);
+        }
+    }
+
+    /**
+     * 不经过写入端直接回放某天的分钟汇总，供另一个进程（如 headless 回放）读取
+     */
+    public static void readRollups(Path directory, LocalDate day, MetricSegment.Visitor visitor) throws IOException {
+        readIfExists(directory.resolve(ROLLUP_PREFIX + day + SUFFIX), ROLLUP_METRICS, visitor);
+    }
+
+    private static void readIfExists(Path path, int metrics, MetricSegment.Visitor visitor) throws IOException {
+        if (Files.exists(path)) {
+            MetricSegment.read(path, metrics, visitor);
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            if (!failed) {
+                flushBucket();
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.error("写入指标汇总失败", e);
+        }
+        closeSegments();
+    }
+
+    private void openDay(LocalDate day) throws IOException {
+        closeSegments();
+        Files.createDirectories(directory);
+        raw = MetricSegment.open(directory.resolve(RAW_PREFIX + day + SUFFIX), RAW_METRICS);
+        rollup = MetricSegment.open(directory.resolve(ROLLUP_PREFIX + day + SUFFIX), ROLLUP_METRICS);
+        currentDay = day;
+        applyRetention(day);
+    }
+
+    private void closeSegments() {
+        for (MetricSegment segment : new MetricSegment[]{raw, rollup}) {
+            if (segment == null) {
+                continue;
+            }
+            try {
+                segment.close();
+            } catch (IOException e) {
+                logger.error("关闭指标段失败: {}", segment.getPath(), e);
+            }
+        }
+        raw = null;
+        rollup = null;
+        currentDay = null;
+    }
+
+    /**
+     * 按文件名中的日期删除过期段
+     */
+    private void applyRetention(LocalDate today) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SUFFIX)) {
+            for (Path path : stream) {
+                String fileName = path.getFileName().toString();
+                int retention;
+                String date;
+                if (fileName.startsWith(RAW_PREFIX)) {
+                    retention = rawRetentionDays;
+                    date = fileName.substring(RAW_PREFIX.length(), fileName.length() - SUFFIX.length());
+                } else if (fileName.startsWith(ROLLUP_PREFIX)) {
+                    retention = rollupRetentionDays;
+                    date = fileName.substring(ROLLUP_PREFIX.length(), fileName.length() - SUFFIX.length());
+                } else {
+                    continue;
+                }
+                try {
+                    if (LocalDate.parse(date).isBefore(today.minusDays(retention - 1L))) {
+                        Files.deleteIfExists(path);
+                        logger.info("删除过期指标段: {}", path);
+                    }
+                } catch (DateTimeParseException e) {
+                    logger.warn("无法识别的指标段文件: {}", path);
+                }
+            }
+        }
+    }
+
+    /**
+     * 写出上一分钟的汇总帧
+     */
+    private void flushBucket() throws IOException {
+        if (buckets.isEmpty() || rollup == null) {
+            buckets.clear();
+            return;
+        }
+        rollup.beginFrame(currentBucket * BUCKET_MILLIS);
+        for (Bucket bucket : buckets.values()) {
+            bucket.fill(rollupValues);
+            rollup.add(bucket.pid, bucket.startTime, bucket.name, rollupValues);
+        }
+        rollup.endFrame();
+        buckets.clear();
+    }
+
+    /**
+     * PID 在同一分钟内被复用时，旧进程的汇总单独写一帧
+     */
+    private void writeBucket(Bucket bucket) throws IOException {
+        rollup.beginFrame(currentBucket * BUCKET_MILLIS);
+        bucket.fill(rollupValues);
+        rollup.add(bucket.pid, bucket.startTime, bucket.name, rollupValues);
+        rollup.endFrame();
+    }
+
+    private static final class Bucket {
+        private final long pid;
+        private final long startTime;
+        private final String name;
+        private final long[] sum = new long[RAW_METRICS];
+        private final long[] max = new long[RAW_METRICS];
+        private long count;
+
+        Bucket(long pid, long startTime, String name) {
+            this.pid = pid;
+            this.startTime = startTime;
+            this.name = name;
+            Arrays.fill(max, Long.MIN_VALUE);
+        }
+
+        void add(long[] values) {
+            for (int m = 0; m < RAW_METRICS; m++) {
+                sum[m] += values[m];
+                max[m] = Math.max(max[m], values[m]);
+            }
+            count++;
+        }
+
+        void fill(long[] target) {
+            for (int m = 0; m < RAW_METRICS; m++) {
+                target[m] = sum[m] / count;
+                target[ROLLUP_MAX + m] = max[m];
+            }
+            target[ROLLUP_COUNT] = count;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.freedom.cleanprocess.service;
+
+/**
+ * @description: 单个进程的指标环形缓冲区，使用定长 long 数组保存最近 N 次采样，容量固定，内存占用不随运行时间增长
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class MetricHistory {
+    /**
+     * 已使用堆内存（字节）
+     */
+    public static final int HEAP = 0;
+    /**
+     * 已使用非堆内存（字节）
+     */
+    public static final int NON_HEAP = 1;
+    /**
+     * 常驻内存（字节）
+     */
+    public static final int RSS = 2;
+    /**
+     * CPU 使用率，放大 100 倍后取整保存
+     */
+    public static final int CPU = 3;
+    /**
+     * 堆 + 非堆内存，非 Java 进程取 RSS
+     */
+    public static final int MEMORY = 4;
+
+    private static final int METRICS = 5;
+
+    private final long startTime;
+    private final int capacity;
+    private final long[] timestamps;
+    private final long[][] values;
+    private int head;
+    private int size;
+
+    public MetricHistory(long startTime, int capacity) {
+        this.startTime = startTime;
+        this.capacity = capacity;
+        this.timestamps = new long[capacity];
+        this.values = new long[METRICS][capacity];
+    }
+
+    public long getStartTime() {
+        return startTime;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 追加一次采样，缓冲区满时覆盖最旧的数据
+     */
+    public void add(long timestamp, long heap, long nonHeap, long rss, double cpu, long memory) {
+        timestamps[head] = timestamp;
+        values[HEAP][head] = heap;
+        values[NON_HEAP][head] = nonHeap;
+        values[RSS][head] = rss;
+        values[CPU][head] = Math.round(cpu * 100);
+        values[MEMORY][head] = memory;
+        head = (head + 1) % capacity;
+        if (size < capacity) {
+            size++;
+        }
+    }
+
+    /**
+     * 按时间顺序读取第 index 个采样（0 为最旧）
+     */
+    public long get(int metric, int index) {
+        return values[metric][physical(index)];
+    }
+
+    public long timestamp(int index) {
+        return timestamps[physical(index)];
+    }
+
+    /**
+     * 按时间顺序把某项指标复制到目标数组，返回复制的个数
+     */
+    public int copyTo(int metric, long[] target) {
+        int count = Math.min(size, target.length);
+        int start = size - count;
+        for (int i = 0; i < count; i++) {
+            target[i] = values[metric][physical(start + i)];
+        }
+        return count;
+    }
+
+    private int physical(int index) {
+        return (head - size + index + capacity) % capacity;
+    }
+}
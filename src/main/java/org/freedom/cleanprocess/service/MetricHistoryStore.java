@@ -0,0 +1,57 @@
+package org.freedom.cleanprocess.service;
+
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 所有进程的指标历史，进程退出后对应缓冲区随之释放，总内存只与当前进程数有关
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class MetricHistoryStore {
+    /**
+     * 默认保留最近 600 次采样（1 秒间隔约 10 分钟）
+     */
+    public static final int DEFAULT_CAPACITY = 600;
+
+    private final int capacity;
+    private final Map<Long, MetricHistory> histories = new HashMap<>(256);
+
+    public MetricHistoryStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public MetricHistoryStore(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * 记录一次完整快照，并丢弃已经不存在的进程的历史
+     */
+    public synchronized void record(List<ProcessInfo> processes, long timestamp) {
+        Map<Long, MetricHistory> alive = new HashMap<>(processes.size() * 2);
+        for (ProcessInfo processInfo : processes) {
+            MetricHistory history = histories.get(processInfo.getPid());
+            // PID 被复用时启动时间不同，重新开始记录
+            if (history == null || history.getStartTime() != processInfo.getStartTime()) {
+                history = new MetricHistory(processInfo.getStartTime(), capacity);
+            }
+            long memory = processInfo.getMemory() >= 0 ? processInfo.getMemory() : processInfo.getRss();
+            history.add(timestamp, processInfo.getHeap(), processInfo.getNonHeap(), processInfo.getRss(),
+                    processInfo.getCpu(), memory);
+            alive.put(processInfo.getPid(), history);
+        }
+        histories.clear();
+        histories.putAll(alive);
+    }
+
+    /**
+     * 获取进程历史，不存在时返回 null
+     */
+    public synchronized MetricHistory get(long pid) {
+        return histories.get(pid);
+    }
+}
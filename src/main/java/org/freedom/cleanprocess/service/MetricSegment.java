@@ -0,0 +1,442 @@
+package org.freedom.cleanprocess.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 只追加的指标段文件，按位置写入通道（每帧一次系统调用，不随文件增长反复重新映射）。文件由若干帧组成，每帧是一次快照：
+ * [int32 帧长][zigzag 时间戳增量][条目...]，条目为 [varint 序列号][变化位图][各变化指标的 zigzag 增量]，
+ * 序列号第一次出现时附带 PID、启动时间和名称。指标相对同一序列的上一次取值做增量编码，未变化的指标不占空间。
+ * 帧长最后写入，进程中途退出时末尾的半帧长度为 0，重新打开时会被丢弃。回放时才以只读方式映射已写入的部分。
+ * 同一时间只允许一个写入端：打开时对文件加排他锁，已被其他进程或本进程的另一个实例持有时抛出 {@link LockedException}
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class MetricSegment implements Closeable {
+    private static final int MAGIC = 0x504D5453;
+    private static final byte VERSION = 1;
+    private static final int HEADER = 8;
+    /**
+     * 重新打开时清理残留字节使用的块大小
+     */
+    private static final int ZERO_CHUNK = 64 * 1024;
+    /**
+     * 写入锁加在文件末尾之外的一个字节上：Windows 的文件锁是强制锁，锁住数据区会让其他进程无法只读回放
+     */
+    private static final long LOCK_POSITION = Long.MAX_VALUE - 1;
+
+    /**
+     * 段文件已被其他写入端打开
+     */
+    public static class LockedException extends IOException {
+        public LockedException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * 回放回调，values 数组会被复用，需要保存时自行复制
+     */
+    public interface Visitor {
+        void sample(long timestamp, long pid, long startTime, String name, long[] values);
+    }
+
+    private final Path path;
+    private final int metrics;
+    private final FileChannel channel;
+    private final Decoder state;
+    /**
+     * pid -> 当前序列号
+     */
+    private final Map<Long, Integer> seriesByPid = new HashMap<>();
+    private final ByteBuffer lengthBuffer = ByteBuffer.allocate(4);
+    private int position;
+
+    private byte[] frame = new byte[64 * 1024];
+    private int frameSize;
+    private long frameTimestamp;
+
+    private MetricSegment(Path path, int metrics, FileChannel channel, Decoder state, int position) {
+        this.path = path;
+        this.metrics = metrics;
+        this.channel = channel;
+        this.state = state;
+        this.position = position;
+        for (int i = 0; i < state.series.size(); i++) {
+            seriesByPid.put(state.series.get(i).pid, i);
+        }
+    }
+
+    /**
+     * 打开或创建段文件用于追加，已有文件会先完整解码一遍以恢复增量编码的状态
+     *
+     * @param metrics 每个条目的指标个数，必须与文件中记录的一致
+     */
+    public static MetricSegment open(Path path, int metrics) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            lock(channel, path);
+            long size = channel.size();
+            Decoder decoder = new Decoder(metrics);
+            int position = HEADER;
+            if (size >= HEADER) {
+                if (size > Integer.MAX_VALUE) {
+                    throw new IOException("指标段文件过大: " + path);
+                }
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                checkHeader(buffer, metrics, path);
+                position = decoder.decode(buffer, null);
+                // 清掉恢复点之后的残留字节（半帧或旧版本预分配的空间），避免以后把旧数据误读成新帧
+                zero(channel, position, size);
+            } else {
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                header.putInt(0, MAGIC);
+                header.put(4, VERSION);
+                header.put(5, (byte) metrics);
+                write(channel, header, 0);
+            }
+            return new MetricSegment(path, metrics, channel, decoder, position);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * 加排他锁，锁随通道关闭释放
+     */
+    private static void lock(FileChannel channel, Path path) throws IOException {
+        FileLock lock;
+        try {
+            lock = channel.tryLock(LOCK_POSITION, 1, false);
+        } catch (OverlappingFileLockException e) {
+            // 本进程内已有实例持有该文件的锁
+            lock = null;
+        }
+        if (lock == null) {
+            throw new LockedException("指标段文件正被其他实例写入: " + path);
+        }
+    }
+
+    /**
+     * 以只读映射回放整个段文件
+     */
+    public static void read(Path path, int metrics, Visitor visitor) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER) {
+                return;
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            checkHeader(buffer, metrics, path);
+            new Decoder(metrics).decode(buffer, visitor);
+        }
+    }
+
+    private static void zero(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer zeros = ByteBuffer.allocate((int) Math.min(ZERO_CHUNK, to - from));
+        for (long offset = from; offset < to; offset += zeros.capacity()) {
+            zeros.clear().limit((int) Math.min(zeros.capacity(), to - offset));
+            write(channel, zeros, offset);
+        }
+    }
+
+    private static void write(FileChannel channel, ByteBuffer source, long offset) throws IOException {
+        while (source.hasRemaining()) {
+            offset += channel.write(source, offset);
+        }
+    }
+
+    private static void checkHeader(ByteBuffer buffer, int metrics, Path path) throws IOException {
+        if (buffer.getInt(0) != MAGIC || buffer.get(4) != VERSION || buffer.get(5) != metrics) {
+            throw new IOException("不是有效的指标段文件: " + path);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 已写入的字节数
+     */
+    public int size() {
+        return position;
+    }
+
+    /**
+     * 开始一帧，随后调用 {@link #add} 写入条目，最后调用 {@link #endFrame}
+     */
+    public void beginFrame(long timestamp) {
+        frameSize = 0;
+        frameTimestamp = timestamp;
+        putVarLong(zigzag(timestamp - state.lastTimestamp));
+    }
+
+    public void add(long pid, long startTime, String name, long[] values) {
+        Integer id = seriesByPid.get(pid);
+        Series series = id == null ? null : state.series.get(id);
+        if (series == null || series.startTime != startTime) {
+            id = state.series.size();
+            series = new Series(pid, startTime, name == null ? "" : name, metrics);
+            state.series.add(series);
+            seriesByPid.put(pid, id);
+            putVarLong(id);
+            putVarLong(pid);
+            putVarLong(startTime);
+            byte[] bytes = series.name.getBytes(StandardCharsets.UTF_8);
+            putVarLong(bytes.length);
+            ensureFrame(bytes.length);
+            System.arraycopy(bytes, 0, frame, frameSize, bytes.length);
+            frameSize += bytes.length;
+        } else {
+            putVarLong(id);
+        }
+        long mask = 0;
+        for (int m = 0; m < metrics; m++) {
+            if (values[m] != series.values[m]) {
+                mask |= 1L << m;
+            }
+        }
+        putVarLong(mask);
+        for (int m = 0; m < metrics; m++) {
+            if ((mask & (1L << m)) != 0) {
+                putVarLong(zigzag(values[m] - series.values[m]));
+                series.values[m] = values[m];
+            }
+        }
+    }
+
+    /**
+     * 把整帧写入文件，帧长最后写入
+     */
+    public void endFrame() throws IOException {
+        if ((long) position + 4 + frameSize > Integer.MAX_VALUE) {
+            throw new IOException("指标段文件已满: " + path);
+        }
+        write(channel, ByteBuffer.wrap(frame, 0, frameSize), position + 4);
+        lengthBuffer.clear();
+        lengthBuffer.putInt(0, frameSize);
+        write(channel, lengthBuffer, position);
+        position += 4 + frameSize;
+        state.lastTimestamp = frameTimestamp;
+    }
+
+    /**
+     * 回放当前正在写入的段，只映射已写入的部分
+     */
+    public void replay(Visitor visitor) throws IOException {
+        new Decoder(metrics).decode(channel.map(FileChannel.MapMode.READ_ONLY, 0, position), visitor);
+    }
+
+    /**
+     * 把已写入的数据刷到磁盘
+     */
+    public void force() throws IOException {
+        channel.force(false);
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            force();
+        } finally {
+            channel.close();
+        }
+    }
+
+    private void putVarLong(long value) {
+        ensureFrame(10);
+        while ((value & ~0x7FL) != 0) {
+            frame[frameSize++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        frame[frameSize++] = (byte) value;
+    }
+
+    private void ensureFrame(int extra) {
+        if (frameSize + extra > frame.length) {
+            byte[] grown = new byte[Math.max(frame.length * 2, frameSize + extra)];
+            System.arraycopy(frame, 0, grown, 0, frameSize);
+            frame = grown;
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long getVarLong(ByteBuffer buffer) {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = buffer.get();
+            result |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return result;
+            }
+        }
+        throw new BufferUnderflowException();
+    }
+
+    private static final class Series {
+        private final long pid;
+        private final long startTime;
+        private final String name;
+        private final long[] values;
+
+        Series(long pid, long startTime, String name, int metrics) {
+            this.pid = pid;
+            this.startTime = startTime;
+            this.name = name;
+            this.values = new long[metrics];
+        }
+    }
+
+    /**
+     * 顺序解码帧，同时维护各序列的上一次取值；写入端恢复状态和回放共用。
+     * 每帧先解码到暂存区，整帧解析成功后才并入状态并回调，损坏的帧不会留下半个新序列或半份增量
+     */
+    private static final class Decoder {
+        private final int metrics;
+        private final List<Series> series = new ArrayList<>();
+        private long lastTimestamp;
+
+        /**
+         * 当前帧新声明的序列
+         */
+        private final List<Series> pendingSeries = new ArrayList<>();
+        /**
+         * 当前帧各条目对应的序列和解码后的取值，取值按条目顺序平铺
+         */
+        private final List<Series> pendingEntries = new ArrayList<>();
+        private long[] pendingValues = new long[0];
+        private final long[] scratch;
+
+        Decoder(int metrics) {
+            this.metrics = metrics;
+            this.scratch = new long[metrics];
+        }
+
+        /**
+         * @return 最后一个完整帧之后的位置
+         */
+        int decode(ByteBuffer buffer, Visitor visitor) {
+            int capacity = buffer.capacity();
+            int pos = HEADER;
+            while (pos + 4 <= capacity) {
+                int length = buffer.getInt(pos);
+                // 损坏的帧长可能接近 Integer.MAX_VALUE，先比较再相加以免溢出
+                if (length <= 0 || length > capacity - pos - 4) {
+                    break;
+                }
+                int end = pos + 4 + length;
+                buffer.limit(end).position(pos + 4);
+                long timestamp;
+                try {
+                    timestamp = stage(buffer);
+                } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalStateException e) {
+                    // 帧内容损坏，停在上一个完整帧
+                    break;
+                } finally {
+                    buffer.limit(capacity);
+                }
+                commit(timestamp, visitor);
+                pos = end;
+            }
+            return pos;
+        }
+
+        /**
+         * 把一帧解码到暂存区，不修改已提交的状态
+         *
+         * @return 帧时间戳
+         */
+        private long stage(ByteBuffer buffer) {
+            pendingSeries.clear();
+            pendingEntries.clear();
+            long timestamp = lastTimestamp + unzigzag(getVarLong(buffer));
+            while (buffer.hasRemaining()) {
+                int id = (int) getVarLong(buffer);
+                int next = series.size() + pendingSeries.size();
+                Series current;
+                if (id == next) {
+                    long pid = getVarLong(buffer);
+                    long startTime = getVarLong(buffer);
+                    long nameLength = getVarLong(buffer);
+                    if (nameLength < 0 || nameLength > buffer.remaining()) {
+                        throw new BufferUnderflowException();
+                    }
+                    byte[] name = new byte[(int) nameLength];
+                    buffer.get(name);
+                    current = new Series(pid, startTime, new String(name, StandardCharsets.UTF_8), metrics);
+                    pendingSeries.add(current);
+                } else if (id >= 0 && id < series.size()) {
+                    current = series.get(id);
+                } else if (id >= series.size() && id < next) {
+                    current = pendingSeries.get(id - series.size());
+                } else {
+                    throw new IllegalStateException("序列号越界: " + id);
+                }
+                // 同一帧内重复出现的序列以本帧上一次的取值为基准
+                int base = -1;
+                for (int e = pendingEntries.size() - 1; e >= 0; e--) {
+                    if (pendingEntries.get(e) == current) {
+                        base = e * metrics;
+                        break;
+                    }
+                }
+                int offset = pendingEntries.size() * metrics;
+                if (offset + metrics > pendingValues.length) {
+                    pendingValues = Arrays.copyOf(pendingValues, Math.max(metrics * 64, pendingValues.length * 2));
+                }
+                if (base >= 0) {
+                    System.arraycopy(pendingValues, base, pendingValues, offset, metrics);
+                } else {
+                    System.arraycopy(current.values, 0, pendingValues, offset, metrics);
+                }
+                long mask = getVarLong(buffer);
+                for (int m = 0; m < metrics; m++) {
+                    if ((mask & (1L << m)) != 0) {
+                        pendingValues[offset + m] += unzigzag(getVarLong(buffer));
+                    }
+                }
+                pendingEntries.add(current);
+            }
+            return timestamp;
+        }
+
+        /**
+         * 整帧解析成功后并入状态并回调
+         */
+        private void commit(long timestamp, Visitor visitor) {
+            series.addAll(pendingSeries);
+            for (int e = 0; e < pendingEntries.size(); e++) {
+                Series current = pendingEntries.get(e);
+                System.arraycopy(pendingValues, e * metrics, current.values, 0, metrics);
+                if (visitor != null) {
+                    System.arraycopy(current.values, 0, scratch, 0, metrics);
+                    visitor.sample(timestamp, current.pid, current.startTime, current.name, scratch);
+                }
+            }
+            lastTimestamp = timestamp;
+        }
+    }
+}
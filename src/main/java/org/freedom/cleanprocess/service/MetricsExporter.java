@@ -0,0 +1,294 @@
+package org.freedom.cleanprocess.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * @description: Prometheus 文本格式的指标导出端点（/metrics），数据来自采样器的最新快照；
+ * 响应体按快照版本缓存为字节数组，只有快照变化后的第一次抓取才重新编码，抓取请求从不触发进程发现。
+ * 默认只监听本机回环地址，需要被其他机器抓取时显式配置监听地址。
+ * 图形界面未开启实时监控时快照不会自动更新，抓取方可根据 processmanager_snapshot_timestamp_seconds 判断数据是否过期
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class MetricsExporter implements Consumer<List<ProcessInfo>> {
+    private static final Logger logger = LogManager.getLogger(MetricsExporter.class);
+
+    /**
+     * 通过该系统属性指定端口后，图形界面启动时同时开启导出端点
+     */
+    public static final String PORT_PROPERTY = "cleanprocess.metrics.port";
+    /**
+     * 监听地址，未配置时只监听回环地址，配置为 0.0.0.0 时监听所有网卡
+     */
+    public static final String BIND_PROPERTY = "cleanprocess.metrics.bind";
+
+    private static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+    private static final String PREFIX = "processmanager_";
+
+    private final String bindAddress;
+    private final int port;
+    private HttpServer server;
+    private ExecutorService executor;
+
+    private volatile List<ProcessInfo> snapshot = List.of();
+    /**
+     * 快照的采集时间，尚未收到快照时为 0
+     */
+    private volatile long snapshotMillis;
+    private final AtomicLong snapshotVersion = new AtomicLong();
+
+    private long encodedVersion = -1;
+    private byte[] plain = new byte[0];
+    private byte[] gzip;
+    private final StringBuilder buffer = new StringBuilder(16 * 1024);
+
+    public MetricsExporter(int port) {
+        this(null, port);
+    }
+
+    /**
+     * @param bindAddress 监听地址，为 null 或空时只监听回环地址
+     */
+    public MetricsExporter(String bindAddress, int port) {
+        this.bindAddress = bindAddress == null || bindAddress.isBlank() ? null : bindAddress.trim();
+        this.port = port;
+    }
+
+    /**
+     * 根据系统属性创建并启动导出端点，未配置端口时返回 null
+     */
+    public static MetricsExporter fromSystemProperty() {
+        Integer port = Integer.getInteger(PORT_PROPERTY);
+        if (port == null) {
+            return null;
+        }
+        MetricsExporter exporter = new MetricsExporter(System.getProperty(BIND_PROPERTY), port);
+        try {
+            exporter.start();
+            return exporter;
+        } catch (IOException e) {
+            logger.error("启动指标导出端点失败, port = {}", port, e);
+            return null;
+        }
+    }
+
+    public synchronized void start() throws IOException {
+        if (server != null) {
+            return;
+        }
+        executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "metrics-exporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        InetAddress address = bindAddress == null ? InetAddress.getLoopbackAddress() : InetAddress.getByName(bindAddress);
+        server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        server.createContext("/metrics", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("指标导出端点已启动: http://{}:{}/metrics", address.getHostAddress(), server.getAddress().getPort());
+    }
+
+    public synchronized void stop() {
+        if (server == null) {
+            return;
+        }
+        server.stop(0);
+        executor.shutdownNow();
+        server = null;
+        executor = null;
+    }
+
+    /**
+     * 接收采样快照，只保存引用并递增版本号，编码推迟到下一次抓取
+     */
+    @Override
+    public void accept(List<ProcessInfo> processes) {
+        snapshot = processes;
+        snapshotMillis = System.currentTimeMillis();
+        snapshotVersion.incrementAndGet();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            if (!"GET".equals(method) && !"HEAD".equals(method)) {
+                exchange.sendResponseHeaders(405, -1);
+                return;
+            }
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean useGzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            byte[] body = body(useGzip);
+            exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+            if (useGzip) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            if ("HEAD".equals(method)) {
+                exchange.sendResponseHeaders(200, -1);
+                return;
+            }
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    /**
+     * 返回当前快照的编码结果，快照未变化时直接复用缓存
+     */
+    private synchronized byte[] body(boolean useGzip) throws IOException {
+        long version = snapshotVersion.get();
+        if (version != encodedVersion) {
+            plain = encode(snapshot, snapshotMillis).getBytes(StandardCharsets.UTF_8);
+            gzip = null;
+            encodedVersion = version;
+        }
+        if (!useGzip) {
+            return plain;
+        }
+        if (gzip == null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(plain.length / 4 + 64);
+            try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+                out.write(plain);
+            }
+            gzip = bytes.toByteArray();
+        }
+        return gzip;
+    }
+
+    private String encode(List<ProcessInfo> processes, long millis) {
+        StringBuilder sb = buffer;
+        sb.setLength(0);
+        if (millis > 0) {
+            sb.append("# HELP ").append(PREFIX).append("snapshot_timestamp_seconds 最近一次采样的时间（Unix 秒）\n");
+            sb.append("# TYPE ").append(PREFIX).append("snapshot_timestamp_seconds gauge\n");
+            sb.append(PREFIX).append("snapshot_timestamp_seconds ").append(millis / 1000).append('.');
+            long fraction = millis % 1000;
+            if (fraction < 100) {
+                sb.append(fraction < 10 ? "00" : "0");
+            }
+            sb.append(fraction).append('\n');
+        }
+        family(sb, processes, "memory_bytes", "gauge", "进程内存占用（Java 进程为堆 + 非堆）", Metric.MEMORY);
+        family(sb, processes, "resident_memory_bytes", "gauge", "进程常驻内存", Metric.RSS);
+        family(sb, processes, "cpu_percent", "gauge", "进程 CPU 使用率", Metric.CPU);
+        family(sb, processes, "threads", "gauge", "进程线程数", Metric.THREADS);
+        family(sb, processes, "jvm_heap_used_bytes", "gauge", "JVM 已使用堆内存", Metric.HEAP);
+        family(sb, processes, "jvm_non_heap_used_bytes", "gauge", "JVM 已使用非堆内存", Metric.NON_HEAP);
+        family(sb, processes, "jvm_gc_young_per_second", "gauge", "Young GC 频率", Metric.YOUNG_GC);
+        family(sb, processes, "jvm_gc_full_per_second", "gauge", "Full GC 频率", Metric.FULL_GC);
+        family(sb, processes, "jvm_gc_time_percent", "gauge", "GC 耗时占比", Metric.GC_TIME);
+        family(sb, processes, "jvm_allocation_bytes_per_second", "gauge", "对象分配速率", Metric.ALLOCATION);
+        family(sb, processes, "jvm_promotion_bytes_per_second", "gauge", "老年代晋升速率", Metric.PROMOTION);
+        return sb.toString();
+    }
+
+    private enum Metric {
+        MEMORY, RSS, CPU, THREADS, HEAP, NON_HEAP, YOUNG_GC, FULL_GC, GC_TIME, ALLOCATION, PROMOTION
+    }
+
+    private static void family(StringBuilder sb, List<ProcessInfo> processes, String name, String type,
+                               String help, Metric metric) {
+        sb.append("# HELP ").append(PREFIX).append(name).append(' ').append(help).append('\n');
+        sb.append("# TYPE ").append(PREFIX).append(name).append(' ').append(type).append('\n');
+        for (ProcessInfo processInfo : processes) {
+            boolean java = processInfo.getHeap() != ProcessInfo.UNKNOWN;
+            // 只有 Linux 后端会填充 RSS、CPU 和线程数，其他后端保持默认值 0；任何存活进程至少有一个线程，据此判断是否已知
+            boolean osMetrics = processInfo.getThreads() > 0;
+            double value;
+            switch (metric) {
+                case MEMORY:
+                    value = processInfo.getMemory();
+                    break;
+                case RSS:
+                    value = osMetrics ? processInfo.getRss() : -1;
+                    break;
+                case CPU:
+                    value = osMetrics ? processInfo.getCpu() : -1;
+                    break;
+                case THREADS:
+                    value = osMetrics ? processInfo.getThreads() : -1;
+                    break;
+                case HEAP:
+                    value = processInfo.getHeap();
+                    break;
+                case NON_HEAP:
+                    value = processInfo.getNonHeap();
+                    break;
+                case YOUNG_GC:
+                    value = java ? processInfo.getYoungGcRate() : -1;
+                    break;
+                case FULL_GC:
+                    value = java ? processInfo.getFullGcRate() : -1;
+                    break;
+                case GC_TIME:
+                    value = java ? processInfo.getGcTimePercent() : -1;
+                    break;
+                case ALLOCATION:
+                    value = java ? processInfo.getAllocationRate() : -1;
+                    break;
+                default:
+                    value = java ? processInfo.getPromotionRate() : -1;
+                    break;
+            }
+            // 未知值不输出样本，避免把 -1 当成真实数据
+            if (value < 0) {
+                continue;
+            }
+            sb.append(PREFIX).append(name).append("{pid=\"").append(processInfo.getPid()).append("\",name=\"");
+            escape(sb, processInfo.getName());
+            sb.append("\",type=\"");
+            escape(sb, processInfo.getProcessType());
+            sb.append("\"} ");
+            if (value == (long) value) {
+                sb.append((long) value);
+            } else {
+                sb.append(value);
+            }
+            sb.append('\n');
+        }
+    }
+
+    /**
+     * 按 Prometheus 文本格式转义标签值
+     */
+    private static void escape(StringBuilder sb, String value) {
+        if (value == null) {
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                default:
+                    sb.append(c);
+            }
+        }
+    }
+}
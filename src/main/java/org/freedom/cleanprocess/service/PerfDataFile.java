@@ -0,0 +1,181 @@
+package org.freedom.cleanprocess.service;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * @description: hsperfdata 性能计数器文件（jstat 读取的同一份数据），以只读方式内存映射，计数器表只解析一次
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class PerfDataFile {
+    private static final int MAGIC = 0xcafec0c0;
+    private static final int PROLOGUE_SIZE = 32;
+    private static final int BYTE_ORDER_OFFSET = 4;
+    private static final int MAJOR_VERSION_OFFSET = 5;
+    private static final int ACCESSIBLE_OFFSET = 7;
+    private static final int ENTRY_OFFSET_OFFSET = 24;
+    private static final int NUM_ENTRIES_OFFSET = 28;
+
+    private static final byte TYPE_LONG = 'J';
+    private static final byte TYPE_BYTE = 'B';
+
+    private final Path path;
+    private final MappedByteBuffer buffer;
+    /**
+     * 计数器名称 -> 数据偏移，long 计数器为正数，字符串计数器按位取反存储
+     */
+    private final Map<String, Integer> offsets = new HashMap<>(512);
+    private final Map<String, Integer> lengths = new HashMap<>(64);
+    private int decodedEntries;
+    private int nextEntryOffset;
+
+    private PerfDataFile(Path path, MappedByteBuffer buffer) {
+        this.path = path;
+        this.buffer = buffer;
+    }
+
+    /**
+     * 映射并解析计数器文件，文件格式不合法时抛出 IOException
+     */
+    public static PerfDataFile open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < PROLOGUE_SIZE) {
+                throw new IOException("hsperfdata 文件过小: " + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        if (buffer.order(ByteOrder.BIG_ENDIAN).getInt(0) != MAGIC) {
+            throw new IOException("不是 hsperfdata 文件: " + path);
+        }
+        if (buffer.get(MAJOR_VERSION_OFFSET) != 2) {
+            throw new IOException("不支持的 hsperfdata 版本: " + buffer.get(MAJOR_VERSION_OFFSET));
+        }
+        buffer.order(buffer.get(BYTE_ORDER_OFFSET) == 0 ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN);
+        PerfDataFile file = new PerfDataFile(path, buffer);
+        file.nextEntryOffset = buffer.getInt(ENTRY_OFFSET_OFFSET);
+        file.decodeNewEntries();
+        return file;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * 目标 JVM 是否已完成计数器初始化
+     */
+    public boolean isAccessible() {
+        return buffer.get(ACCESSIBLE_OFFSET) != 0;
+    }
+
+    /**
+     * 查找 long 计数器的数据偏移，不存在时返回 -1
+     */
+    public synchronized int longOffset(String name) {
+        Integer offset = lookup(name);
+        return offset == null || offset < 0 ? -1 : offset;
+    }
+
+    /**
+     * 按偏移读取 long 计数器，偏移为 -1 时返回默认值
+     */
+    public long readLong(int offset, long defaultValue) {
+        return offset < 0 ? defaultValue : buffer.getLong(offset);
+    }
+
+    public long getLong(String name, long defaultValue) {
+        return readLong(longOffset(name), defaultValue);
+    }
+
+    /**
+     * 读取字符串计数器（以 0 结尾的字节数组），不存在时返回 null
+     */
+    public synchronized String getString(String name) {
+        Integer offset = lookup(name);
+        if (offset == null || offset >= 0) {
+            return null;
+        }
+        int start = ~offset;
+        int max = lengths.get(name);
+        int end = start;
+        while (end < start + max && buffer.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 读取名称以指定前缀开头的全部字符串计数器，键为去掉前缀后的名称
+     */
+    public synchronized Map<String, String> getStrings(String prefix) {
+        if (buffer.getInt(NUM_ENTRIES_OFFSET) > decodedEntries) {
+            decodeNewEntries();
+        }
+        Map<String, String> result = new TreeMap<>();
+        for (Map.Entry<String, Integer> entry : offsets.entrySet()) {
+            if (entry.getValue() < 0 && entry.getKey().startsWith(prefix)) {
+                result.put(entry.getKey().substring(prefix.length()), getString(entry.getKey()));
+            }
+        }
+        return result;
+    }
+
+    private Integer lookup(String name) {
+        Integer offset = offsets.get(name);
+        // 目标 JVM 运行过程中可能追加计数器，未命中时只解析新增的条目
+        if (offset == null && buffer.getInt(NUM_ENTRIES_OFFSET) > decodedEntries) {
+            decodeNewEntries();
+            offset = offsets.get(name);
+        }
+        return offset;
+    }
+
+    private void decodeNewEntries() {
+        int numEntries = buffer.getInt(NUM_ENTRIES_OFFSET);
+        int limit = buffer.limit();
+        int entry = nextEntryOffset;
+        while (decodedEntries < numEntries && entry + 20 <= limit) {
+            int entryLength = buffer.getInt(entry);
+            if (entryLength <= 0 || entry + entryLength > limit) {
+                break;
+            }
+            int nameOffset = buffer.getInt(entry + 4);
+            int vectorLength = buffer.getInt(entry + 8);
+            byte dataType = buffer.get(entry + 12);
+            int dataOffset = buffer.getInt(entry + 16);
+            String name = readName(entry + nameOffset, entry + entryLength);
+            if (dataType == TYPE_LONG && vectorLength == 0) {
+                offsets.put(name, entry + dataOffset);
+            } else if (dataType == TYPE_BYTE && vectorLength > 0) {
+                offsets.put(name, ~(entry + dataOffset));
+                lengths.put(name, vectorLength);
+            }
+            entry += entryLength;
+            decodedEntries++;
+        }
+        nextEntryOffset = entry;
+    }
+
+    private String readName(int start, int limit) {
+        int end = start;
+        while (end < limit && buffer.get(end) != 0) {
+            end++;
+        }
+        byte[] bytes = new byte[end - start];
+        buffer.get(start, bytes);
+        return new String(bytes, StandardCharsets.US_ASCII);
+    }
+}
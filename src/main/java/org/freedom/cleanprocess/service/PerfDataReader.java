@@ -0,0 +1,191 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: 直接读取目标 JVM 的 hsperfdata 文件获取内存指标，无需为每个 PID 启动 jstat
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class PerfDataReader {
+    private static final Logger logger = LogManager.getLogger(PerfDataReader.class);
+
+    private static final String DIR_PREFIX = "hsperfdata_";
+
+    private final File tempDir;
+    private final Map<Long, Handle> handles = new ConcurrentHashMap<>(64);
+    private volatile File[] perfDirs = new File[0];
+
+    public PerfDataReader() {
+        // HotSpot 在 Linux 下固定使用 /tmp，其他平台与 java.io.tmpdir 一致
+        String os = System.getProperty("os.name", "").toLowerCase();
+        this.tempDir = new File(os.contains("linux") ? "/tmp" : System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * 读取指定 PID 的内存指标，文件不存在或不可读时返回 null
+     */
+    public JvmMemorySample sample(long pid) {
+        Handle handle = handle(pid);
+        if (handle == null || !handle.file.isAccessible()) {
+            return null;
+        }
+        PerfDataFile file = handle.file;
+        return new JvmMemorySample(
+                file.readLong(handle.s0u, 0),
+                file.readLong(handle.s1u, 0),
+                file.readLong(handle.eu, 0),
+                file.readLong(handle.ou, 0),
+                file.readLong(handle.mu, 0),
+                file.readLong(handle.ec, 0),
+                file.readLong(handle.ygc, 0),
+                handle.toNanos(file.readLong(handle.ygct, 0)),
+                file.readLong(handle.fgc, 0),
+                handle.toNanos(file.readLong(handle.fgct, 0)),
+                System.nanoTime());
+    }
+
+    /**
+     * 获取已映射的计数器文件，不存在时返回 null
+     */
+    public PerfDataFile file(long pid) {
+        Handle handle = handle(pid);
+        return handle == null ? null : handle.file;
+    }
+
+    /**
+     * 释放已退出进程的映射
+     */
+    public void release(long pid) {
+        handles.remove(pid);
+    }
+
+    /**
+     * 释放不在本次发现结果中的 PID 的映射，避免已退出 JVM 的映射越积越多（Windows 下还会阻止目标删除文件）
+     */
+    public void retain(List<ProcessInfo> processes) {
+        Set<Long> alive = new HashSet<>(processes.size() * 2);
+        for (ProcessInfo processInfo : processes) {
+            alive.add(processInfo.getPid());
+        }
+        handles.keySet().retainAll(alive);
+    }
+
+    private Handle handle(long pid) {
+        Handle handle = handles.get(pid);
+        if (handle != null) {
+            // PID 被复用时新 JVM 会在同一路径创建新文件，旧映射指向的是已删除的文件，必须按文件标识校验
+            if (handle.identity.equals(identity(handle.file.getPath()))) {
+                return handle;
+            }
+            handles.remove(pid);
+        }
+        Path path = locate(pid);
+        if (path == null) {
+            return null;
+        }
+        try {
+            Object identity = identity(path);
+            if (identity == null) {
+                return null;
+            }
+            handle = new Handle(PerfDataFile.open(path), identity);
+            handles.put(pid, handle);
+            return handle;
+        } catch (IOException e) {
+            logger.debug("读取 hsperfdata 失败: {}", path, e);
+            return null;
+        }
+    }
+
+    /**
+     * 文件标识：Unix 下是 inode（旧文件仍被映射，inode 不会被新文件复用），
+     * Windows 下没有 fileKey，使用创建时间。文件不存在时返回 null
+     */
+    private static Object identity(Path path) {
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            Object fileKey = attributes.fileKey();
+            return fileKey != null ? fileKey : attributes.creationTime();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private Path locate(long pid) {
+        Path path = find(perfDirs, pid);
+        if (path == null) {
+            // 新用户启动了 JVM 时目录列表会变化，未命中时重新扫描
+            File[] dirs = tempDir.listFiles((dir, name) -> name.startsWith(DIR_PREFIX));
+            perfDirs = dirs == null ? new File[0] : dirs;
+            path = find(perfDirs, pid);
+        }
+        return path;
+    }
+
+    private static Path find(File[] dirs, long pid) {
+        String name = String.valueOf(pid);
+        for (File dir : dirs) {
+            File file = new File(dir, name);
+            if (file.isFile() && file.canRead()) {
+                return file.toPath();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 单个 PID 的映射文件及预先解析好的计数器偏移
+     */
+    private static final class Handle {
+        private final PerfDataFile file;
+        private final Object identity;
+        private final int s0u;
+        private final int s1u;
+        private final int eu;
+        private final int ou;
+        private final int mu;
+        private final int ec;
+        private final int ygc;
+        private final int ygct;
+        private final int fgc;
+        private final int fgct;
+        /**
+         * 高精度计时器频率（ticks/秒），GC 耗时计数器以 tick 为单位
+         */
+        private final long frequency;
+
+        private Handle(PerfDataFile file, Object identity) {
+            this.file = file;
+            this.identity = identity;
+            this.s0u = file.longOffset("sun.gc.generation.0.space.1.used");
+            this.s1u = file.longOffset("sun.gc.generation.0.space.2.used");
+            this.eu = file.longOffset("sun.gc.generation.0.space.0.used");
+            this.ou = file.longOffset("sun.gc.generation.1.space.0.used");
+            this.mu = file.longOffset("sun.gc.metaspace.used");
+            this.ec = file.longOffset("sun.gc.generation.0.space.0.capacity");
+            this.ygc = file.longOffset("sun.gc.collector.0.invocations");
+            this.ygct = file.longOffset("sun.gc.collector.0.time");
+            this.fgc = file.longOffset("sun.gc.collector.1.invocations");
+            this.fgct = file.longOffset("sun.gc.collector.1.time");
+            this.frequency = file.getLong("sun.os.hrt.frequency", 1_000_000_000L);
+        }
+
+        private long toNanos(long ticks) {
+            return frequency == 1_000_000_000L ? ticks : (long) (ticks * (1e9 / frequency));
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.JvmInfo;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 进程指标采集流水线：发现进程后把每个 PID 的采样并发分发到有界线程池，单个 PID 超时不影响整体。
+ * 超时从任务真正开始执行时计时，排队等待的时间不计入
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ProcessCollector implements AutoCloseable {
+    private static final Logger logger = LogManager.getLogger(ProcessCollector.class);
+
+    private static final int DEFAULT_PARALLELISM = Math.max(4, Runtime.getRuntime().availableProcessors());
+    private static final long DEFAULT_TIMEOUT_MILLIS = 3000;
+
+    private final ProcessDiscovery discovery;
+    private final PerfDataReader perfDataReader;
+    private final JvmInfoCache jvmInfoCache;
+    private final GcMetricsCalculator gcMetricsCalculator = new GcMetricsCalculator();
+    private final JstatMemoryReader jstatMemoryReader;
+    private final ExecutorService pool;
+    private final Executor executor;
+    private final long timeoutMillis;
+    private volatile ProcessFilter filter = ProcessFilter.acceptAll();
+
+    public ProcessCollector(ProcessDiscovery discovery, PerfDataReader perfDataReader, JvmInfoCache jvmInfoCache) {
+        this(discovery, perfDataReader, jvmInfoCache, DEFAULT_PARALLELISM, DEFAULT_TIMEOUT_MILLIS);
+    }
+
+    public ProcessCollector(ProcessDiscovery discovery, PerfDataReader perfDataReader, JvmInfoCache jvmInfoCache,
+                            int parallelism, long timeoutMillis) {
+        this.discovery = discovery;
+        this.perfDataReader = perfDataReader;
+        this.jvmInfoCache = jvmInfoCache;
+        this.jstatMemoryReader = new JstatMemoryReader(timeoutMillis);
+        this.pool = createPool(parallelism);
+        this.executor = boundedExecutor(pool, parallelism);
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * 异步采集一次完整快照，整体耗时取决于最慢的 PID（不超过超时时间）
+     */
+    public CompletableFuture<List<ProcessInfo>> collect() {
+        return CompletableFuture.supplyAsync(this::discover, executor)
+                .thenCompose(processes -> {
+                    List<CompletableFuture<PidSample>> futures = new ArrayList<>(processes.size());
+                    for (ProcessInfo processInfo : processes) {
+                        long pid = processInfo.getPid();
+                        if (processInfo.getStartTime() == 0) {
+                            processInfo.setStartTime(startTime(pid));
+                        }
+                        if (!"Java".equals(processInfo.getProcessType())) {
+                            // 非 Java 进程的内存已由后端填充（RSS），无需再采样
+                            futures.add(CompletableFuture.completedFuture(null));
+                            continue;
+                        }
+                        long startTime = processInfo.getStartTime();
+                        futures.add(sampleAsync(pid, startTime)
+                                .exceptionally(e -> {
+                                    logger.warn("采集进程 {} 指标失败", pid, e);
+                                    return null;
+                                }));
+                    }
+                    // 超时的采样结果会被丢弃，只在全部完成后统一回填，避免晚到的结果修改已发布的对象
+                    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                            .thenApply(ignored -> {
+                                for (int i = 0; i < processes.size(); i++) {
+                                    PidSample sample = futures.get(i).join();
+                                    if (sample != null) {
+                                        apply(processes.get(i), sample);
+                                    }
+                                }
+                                jvmInfoCache.retain(processes);
+                                perfDataReader.retain(processes);
+                                gcMetricsCalculator.retain(processes);
+                                return processes;
+                            });
+                });
+    }
+
+    /**
+     * 设置过滤规则，从下一次采集开始生效
+     */
+    public void setFilter(ProcessFilter filter) {
+        this.filter = filter;
+    }
+
+    /**
+     * 发现进程并立即执行过滤规则，被排除的进程不进入采样阶段
+     */
+    private List<ProcessInfo> discover() {
+        List<ProcessInfo> processes;
+        try {
+            processes = discovery.discover();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+        ProcessFilter current = filter;
+        if (current != ProcessFilter.acceptAll()) {
+            processes.removeIf(processInfo -> !current.test(processInfo));
+        }
+        return processes;
+    }
+
+    /**
+     * 停止采样线程池，正在运行的 jstat 会被中断并强制结束，之后不能再采集
+     */
+    @Override
+    public void close() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 提交单个 PID 的采样，超时在任务开始执行时才开始计时，
+     * 否则排在慢速 jstat 后面的任务还没运行就已经超时
+     */
+    private CompletableFuture<PidSample> sampleAsync(long pid, long startTime) {
+        CompletableFuture<PidSample> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            if (future.isDone()) {
+                return;
+            }
+            future.completeOnTimeout(null, timeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                future.complete(sample(pid, startTime));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        });
+        return future;
+    }
+
+    private PidSample sample(long pid, long startTime) {
+        return new PidSample(readMemory(pid), jvmInfoCache.get(pid, startTime));
+    }
+
+    private void apply(ProcessInfo processInfo, PidSample sample) {
+        JvmMemorySample memory = sample.memory;
+        if (memory != null) {
+            gcMetricsCalculator.apply(processInfo, memory);
+            processInfo.setHeap(memory.heapUsed());
+            processInfo.setNonHeap(memory.nonHeapUsed());
+            processInfo.setMemory(memory.heapUsed() + memory.nonHeapUsed());
+        }
+        JvmInfo jvmInfo = sample.jvmInfo;
+        if (jvmInfo == null) {
+            return;
+        }
+        if (jvmInfo.getVmArgs() != null && !jvmInfo.getVmArgs().isEmpty()) {
+            processInfo.setJvm(jvmInfo.getVmArgs());
+        }
+        // 命令行里解析不出主类（java @argfile、自定义启动器）时，用 JVM 自己记录的主类补全
+        String name = ProcessDiscovery.toDisplayName(jvmInfo.getMainClass());
+        if (processInfo.getMainClass() == null && name != null) {
+            processInfo.setMainClass(jvmInfo.getMainClass());
+            processInfo.setName(name);
+        }
+    }
+
+    private static long startTime(long pid) {
+        return ProcessHandle.of(pid)
+                .flatMap(handle -> handle.info().startInstant())
+                .map(Instant::toEpochMilli)
+                .orElse(0L);
+    }
+
+    /**
+     * 优先读取 hsperfdata 计数器，读取不到时回退到 jstat
+     */
+    private JvmMemorySample readMemory(long pid) {
+        JvmMemorySample sample = perfDataReader.sample(pid);
+        if (sample != null) {
+            return sample;
+        }
+        try {
+            return jstatMemoryReader.read(pid);
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    /**
+     * 单个 PID 的采样结果
+     */
+    private static final class PidSample {
+        private final JvmMemorySample memory;
+        private final JvmInfo jvmInfo;
+
+        private PidSample(JvmMemorySample memory, JvmInfo jvmInfo) {
+            this.memory = memory;
+            this.jvmInfo = jvmInfo;
+        }
+    }
+
+    /**
+     * Java 21+ 使用虚拟线程，Java 17 使用固定大小的守护线程池
+     */
+    private static ExecutorService createPool(int parallelism) {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            AtomicInteger index = new AtomicInteger();
+            return Executors.newFixedThreadPool(parallelism, runnable -> {
+                Thread thread = new Thread(runnable, "process-collector-" + index.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 用信号量限制并发，虚拟线程池本身不限制线程数；固定线程池下信号量不会发生竞争
+     */
+    private static Executor boundedExecutor(ExecutorService pool, int parallelism) {
+        Semaphore permits = new Semaphore(parallelism);
+        return command -> pool.execute(() -> {
+            try {
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                command.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+}
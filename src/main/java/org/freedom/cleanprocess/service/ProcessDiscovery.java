@@ -0,0 +1,45 @@
+package org.freedom.cleanprocess.service;
+
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.List;
+
+/**
+ * @description: 进程发现服务，负责枚举当前可见的 Java 进程
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public interface ProcessDiscovery {
+
+    /**
+     * 当前环境下该实现是否可用
+     */
+    boolean isAvailable();
+
+    /**
+     * 枚举进程，返回的 ProcessInfo 只包含名称、PID 等基础信息，内存等指标由调用方补充
+     */
+    List<ProcessInfo> discover() throws Exception;
+
+    /**
+     * 默认实现：Linux 下直接扫描 /proc，其他平台优先进程内 attach 枚举，失败时回退到 jps -l
+     */
+    static ProcessDiscovery defaultDiscovery() {
+        return new FallbackProcessDiscovery(new LinuxProcBackend(), new AttachProcessDiscovery(),
+                new JpsProcessDiscovery());
+    }
+
+    /**
+     * 把主类或 jar 路径转换为展示名称，无法识别主类时返回 null；
+     * 是否跳过某个进程由 {@link ProcessFilter} 的规则决定
+     */
+    static String toDisplayName(String mainClass) {
+        if (mainClass == null || mainClass.isEmpty()) {
+            return null;
+        }
+        if (!mainClass.contains("idea")) {
+            return mainClass.substring(mainClass.lastIndexOf(".") + 1);
+        }
+        return mainClass;
+    }
+}
@@ -0,0 +1,128 @@
+package org.freedom.cleanprocess.service;
+
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.entiy.ProcessRule;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * @description: 过滤规则编译后的谓词：正则只在编译时解析一次，每条规则只保留已设置的条件，
+ * 进程发现后、采样前执行，被排除的进程不会产生任何采样开销
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class ProcessFilter {
+
+    private static final ProcessFilter ACCEPT_ALL = new ProcessFilter(List.of(), List.of());
+
+    private final List<Predicate<ProcessInfo>> includes;
+    private final List<Predicate<ProcessInfo>> excludes;
+
+    private ProcessFilter(List<Predicate<ProcessInfo>> includes, List<Predicate<ProcessInfo>> excludes) {
+        this.includes = includes;
+        this.excludes = excludes;
+    }
+
+    public static ProcessFilter acceptAll() {
+        return ACCEPT_ALL;
+    }
+
+    /**
+     * 编译规则，未指定 action、没有任何条件或正则非法时抛出 IllegalArgumentException 并指明规则
+     */
+    public static ProcessFilter compile(List<ProcessRule> rules) {
+        List<Predicate<ProcessInfo>> includes = new ArrayList<>();
+        List<Predicate<ProcessInfo>> excludes = new ArrayList<>();
+        for (ProcessRule rule : rules) {
+            if (!rule.isEnabled()) {
+                continue;
+            }
+            Predicate<ProcessInfo> predicate = compile(rule);
+            if (rule.getAction() == ProcessRule.Action.INCLUDE) {
+                includes.add(predicate);
+            } else {
+                excludes.add(predicate);
+            }
+        }
+        return new ProcessFilter(List.copyOf(includes), List.copyOf(excludes));
+    }
+
+    private static Predicate<ProcessInfo> compile(ProcessRule rule) {
+        if (rule.getAction() == null) {
+            throw new IllegalArgumentException("规则 [" + rule.getName() + "] 未指定 action（INCLUDE 或 EXCLUDE）");
+        }
+        Predicate<ProcessInfo> predicate = processInfo -> true;
+        boolean conditions = false;
+        if (isSet(rule.getMainClass())) {
+            conditions = true;
+            Pattern pattern = pattern(rule, rule.getMainClass());
+            predicate = predicate.and(p -> p.getMainClass() != null && pattern.matcher(p.getMainClass()).find());
+        }
+        if (isSet(rule.getArgs())) {
+            conditions = true;
+            Pattern pattern = pattern(rule, rule.getArgs());
+            predicate = predicate.and(p -> p.getCommand() != null && pattern.matcher(p.getCommand()).find());
+        }
+        if (isSet(rule.getUser())) {
+            conditions = true;
+            Pattern pattern = pattern(rule, rule.getUser());
+            predicate = predicate.and(p -> p.getUser() != null && pattern.matcher(p.getUser()).matches());
+        }
+        if (isSet(rule.getProcessType())) {
+            conditions = true;
+            String processType = rule.getProcessType();
+            predicate = predicate.and(p -> processType.equalsIgnoreCase(p.getProcessType()));
+        }
+        if (rule.getMinMemoryMb() != null) {
+            conditions = true;
+            long min = rule.getMinMemoryMb() * 1024 * 1024;
+            predicate = predicate.and(p -> p.getRss() > 0 && p.getRss() >= min);
+        }
+        if (rule.getMaxMemoryMb() != null) {
+            conditions = true;
+            long max = rule.getMaxMemoryMb() * 1024 * 1024;
+            predicate = predicate.and(p -> p.getRss() > 0 && p.getRss() <= max);
+        }
+        if (!conditions) {
+            // 没有条件的规则会匹配所有进程，EXCLUDE 时整张表为空，多半是字段名写错
+            throw new IllegalArgumentException("规则 [" + rule.getName() + "] 没有设置任何条件");
+        }
+        return predicate;
+    }
+
+    private static Pattern pattern(ProcessRule rule, String regex) {
+        try {
+            return Pattern.compile(regex);
+        } catch (PatternSyntaxException e) {
+            throw new IllegalArgumentException("规则 [" + rule.getName() + "] 的正则非法: " + e.getDescription(), e);
+        }
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * 是否保留该进程
+     */
+    public boolean test(ProcessInfo processInfo) {
+        for (Predicate<ProcessInfo> exclude : excludes) {
+            if (exclude.test(processInfo)) {
+                return false;
+            }
+        }
+        if (includes.isEmpty()) {
+            return true;
+        }
+        for (Predicate<ProcessInfo> include : includes) {
+            if (include.test(processInfo)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,147 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * @description: 实时监控采样调度器，按固定间隔触发采集并把快照推送给监听者；
+ * 上一次采集尚未完成时跳过本次触发，避免采样堆积。手动刷新也经由这里，与定时采样共用同一次采集
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ProcessMonitor {
+    private static final Logger logger = LogManager.getLogger(ProcessMonitor.class);
+
+    public static final long MIN_INTERVAL_MILLIS = 250;
+    public static final long MAX_INTERVAL_MILLIS = 10_000;
+
+    private final ProcessCollector collector;
+    private final List<Consumer<List<ProcessInfo>>> listeners = new CopyOnWriteArrayList<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "process-monitor");
+        thread.setDaemon(true);
+        return thread;
+    });
+    /**
+     * 正在进行的采集，没有时为 null
+     */
+    private final AtomicReference<CompletableFuture<List<ProcessInfo>>> inFlight = new AtomicReference<>();
+
+    private ScheduledFuture<?> task;
+    private long intervalMillis = 1000;
+    private boolean running;
+    private boolean paused;
+
+    public ProcessMonitor(ProcessCollector collector) {
+        this.collector = collector;
+    }
+
+    public void addListener(Consumer<List<ProcessInfo>> listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Consumer<List<ProcessInfo>> listener) {
+        listeners.remove(listener);
+    }
+
+    /**
+     * 开始定时采样
+     */
+    public synchronized void start() {
+        running = true;
+        reschedule();
+    }
+
+    /**
+     * 停止定时采样
+     */
+    public synchronized void stop() {
+        running = false;
+        reschedule();
+    }
+
+    /**
+     * 暂停采样（例如窗口最小化），恢复后按原间隔继续
+     */
+    public synchronized void setPaused(boolean paused) {
+        this.paused = paused;
+        reschedule();
+    }
+
+    /**
+     * 设置采样间隔，超出范围时取边界值
+     */
+    public synchronized void setIntervalMillis(long intervalMillis) {
+        this.intervalMillis = Math.max(MIN_INTERVAL_MILLIS, Math.min(MAX_INTERVAL_MILLIS, intervalMillis));
+        reschedule();
+    }
+
+    public synchronized long getIntervalMillis() {
+        return intervalMillis;
+    }
+
+    /**
+     * 立即采集一次并推送给监听者，不影响定时节奏；已有采集在进行时直接返回那一次的结果，不会发起重叠的采集
+     */
+    public CompletableFuture<List<ProcessInfo>> refresh() {
+        return sample();
+    }
+
+    public synchronized boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 停止调度线程，之后不能再启动
+     */
+    public synchronized void shutdown() {
+        running = false;
+        scheduler.shutdownNow();
+    }
+
+    private void reschedule() {
+        if (task != null) {
+            task.cancel(false);
+            task = null;
+        }
+        if (running && !paused && !scheduler.isShutdown()) {
+            task = scheduler.scheduleWithFixedDelay(this::sample, 0, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private CompletableFuture<List<ProcessInfo>> sample() {
+        CompletableFuture<List<ProcessInfo>> result = new CompletableFuture<>();
+        CompletableFuture<List<ProcessInfo>> current = inFlight.compareAndExchange(null, result);
+        if (current != null) {
+            return current;
+        }
+        collector.collect().whenComplete((processes, e) -> {
+            inFlight.set(null);
+            if (e != null) {
+                logger.error("采样失败", e);
+                result.completeExceptionally(e);
+                return;
+            }
+            for (Consumer<List<ProcessInfo>> listener : listeners) {
+                try {
+                    listener.accept(processes);
+                } catch (RuntimeException ex) {
+                    logger.error("处理采样结果失败", ex);
+                }
+            }
+            result.complete(processes);
+        });
+        return result;
+    }
+}
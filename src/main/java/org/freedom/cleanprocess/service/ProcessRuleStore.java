@@ -0,0 +1,58 @@
+package org.freedom.cleanprocess.service;
+
+import com.google.gson.reflect.TypeToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessRule;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * @description: 过滤规则的持久化，保存在 data/process-rules.json；文件不存在时使用默认规则
+ * （跳过 jps 等 JDK 工具进程与 .exe 启动器，与原先写死的过滤保持一致）
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ProcessRuleStore extends JsonListStore<ProcessRule> {
+    private static final Logger logger = LogManager.getLogger(ProcessRuleStore.class);
+
+    public ProcessRuleStore() {
+        this(Paths.get("data", "process-rules.json"));
+    }
+
+    public ProcessRuleStore(Path path) {
+        super(path, new TypeToken<List<ProcessRule>>() {
+        }.getType(), "过滤规则");
+    }
+
+    public static List<ProcessRule> defaultRules() {
+        return List.of(
+                ProcessRule.builder().name("跳过 jps").action(ProcessRule.Action.EXCLUDE).mainClass("jps").build(),
+                ProcessRule.builder().name("跳过 .exe 启动器").action(ProcessRule.Action.EXCLUDE)
+                        .mainClass("\\.exe$").build());
+    }
+
+    @Override
+    protected List<ProcessRule> defaults() {
+        return defaultRules();
+    }
+
+    @Override
+    protected void validate(List<ProcessRule> rules) {
+        ProcessFilter.compile(rules);
+    }
+
+    /**
+     * 读取并编译规则，规则非法时退回默认规则
+     */
+    public ProcessFilter loadFilter() {
+        try {
+            return ProcessFilter.compile(load());
+        } catch (IllegalArgumentException e) {
+            logger.error("过滤规则非法，使用默认规则: {}", e.getMessage());
+            return ProcessFilter.compile(defaultRules());
+        }
+    }
+}
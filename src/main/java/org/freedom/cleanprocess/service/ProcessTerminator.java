@@ -0,0 +1,127 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @description: 跨平台异步结束进程：先请求正常退出，超时后强制结束，全程不阻塞调用线程
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ProcessTerminator {
+    private static final Logger logger = LogManager.getLogger(ProcessTerminator.class);
+
+    private static final long DEFAULT_GRACEFUL_TIMEOUT_MILLIS = 3000;
+    private static final long DEFAULT_FORCED_TIMEOUT_MILLIS = 5000;
+    /**
+     * 采集端与 ProcessHandle 计算启动时间的精度可能不同，相差在该范围内视为同一进程
+     */
+    private static final long START_TIME_TOLERANCE_MILLIS = 1000;
+
+    private final long gracefulTimeoutMillis;
+    private final long forcedTimeoutMillis;
+
+    public ProcessTerminator() {
+        this(DEFAULT_GRACEFUL_TIMEOUT_MILLIS, DEFAULT_FORCED_TIMEOUT_MILLIS);
+    }
+
+    public ProcessTerminator(long gracefulTimeoutMillis, long forcedTimeoutMillis) {
+        this.gracefulTimeoutMillis = gracefulTimeoutMillis;
+        this.forcedTimeoutMillis = forcedTimeoutMillis;
+    }
+
+    /**
+     * 结束指定进程，先核对启动时间：PID 已被其他进程复用时不做任何操作，返回“进程已退出”；
+     * 返回的 future 不会异常完成，失败信息记录在结果中
+     *
+     * @param startTime 采集时记录的启动时间（毫秒），小于等于 0 表示未知，不做核对
+     */
+    public CompletableFuture<TerminationResult> terminate(long pid, long startTime) {
+        Optional<ProcessHandle> optional = ProcessHandle.of(pid);
+        if (optional.isEmpty() || !optional.get().isAlive()) {
+            return CompletableFuture.completedFuture(
+                    new TerminationResult(pid, TerminationResult.Outcome.NOT_FOUND, "进程已不存在"));
+        }
+        ProcessHandle handle = optional.get();
+        if (!sameProcess(handle, startTime)) {
+            logger.warn("PID {} 的启动时间与记录不符，已被其他进程复用，不结束该进程", pid);
+            return CompletableFuture.completedFuture(
+                    new TerminationResult(pid, TerminationResult.Outcome.NOT_FOUND, "进程已退出，PID 已被其他进程复用"));
+        }
+        try {
+            // Windows 不支持正常结束，destroy 返回 false 时直接强制结束
+            if (!handle.supportsNormalTermination() || !handle.destroy()) {
+                return forceTerminate(handle);
+            }
+        } catch (IllegalStateException | SecurityException e) {
+            return CompletableFuture.completedFuture(failed(pid, e));
+        }
+        return handle.onExit()
+                .orTimeout(gracefulTimeoutMillis, TimeUnit.MILLISECONDS)
+                .thenApply(exited -> new TerminationResult(pid, TerminationResult.Outcome.GRACEFUL, "进程已正常结束"))
+                .exceptionallyCompose(e -> {
+                    logger.info("进程 {} 在 {} ms 内未退出，强制结束", pid, gracefulTimeoutMillis);
+                    return forceTerminate(handle);
+                });
+    }
+
+    /**
+     * 并发结束多个进程，每个进程都先核对启动时间，全部完成（或超时升级完成）后返回汇总结果
+     */
+    public CompletableFuture<List<TerminationResult>> terminateAll(Collection<ProcessInfo> processes) {
+        List<CompletableFuture<TerminationResult>> futures = new ArrayList<>(processes.size());
+        for (ProcessInfo processInfo : processes) {
+            futures.add(terminate(processInfo.getPid(), processInfo.getStartTime()));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                .thenApply(ignored -> {
+                    List<TerminationResult> results = new ArrayList<>(futures.size());
+                    futures.forEach(future -> results.add(future.join()));
+                    return results;
+                });
+    }
+
+    /**
+     * 启动时间任一侧未知时无法核对，按同一进程处理
+     */
+    private static boolean sameProcess(ProcessHandle handle, long startTime) {
+        if (startTime <= 0) {
+            return true;
+        }
+        return handle.info().startInstant()
+                .map(Instant::toEpochMilli)
+                .map(actual -> Math.abs(actual - startTime) <= START_TIME_TOLERANCE_MILLIS)
+                .orElse(true);
+    }
+
+    private CompletableFuture<TerminationResult> forceTerminate(ProcessHandle handle) {
+        long pid = handle.pid();
+        try {
+            if (!handle.destroyForcibly() && handle.isAlive()) {
+                return CompletableFuture.completedFuture(
+                        new TerminationResult(pid, TerminationResult.Outcome.FAILED, "没有权限结束该进程"));
+            }
+        } catch (IllegalStateException | SecurityException e) {
+            return CompletableFuture.completedFuture(failed(pid, e));
+        }
+        return handle.onExit()
+                .orTimeout(forcedTimeoutMillis, TimeUnit.MILLISECONDS)
+                .thenApply(exited -> new TerminationResult(pid, TerminationResult.Outcome.FORCED, "进程已被强制结束"))
+                .exceptionally(e -> new TerminationResult(pid, TerminationResult.Outcome.FAILED,
+                        "强制结束后进程仍在运行"));
+    }
+
+    private static TerminationResult failed(long pid, Exception e) {
+        logger.error("结束进程 {} 时发生错误", pid, e);
+        return new TerminationResult(pid, TerminationResult.Outcome.FAILED, e.getMessage());
+    }
+}
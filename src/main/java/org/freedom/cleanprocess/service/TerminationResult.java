@@ -0,0 +1,57 @@
+package org.freedom.cleanprocess.service;
+
+/**
+ * @description: 进程终止结果
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class TerminationResult {
+
+    public enum Outcome {
+        /**
+         * 正常结束（收到终止信号后自行退出）
+         */
+        GRACEFUL,
+        /**
+         * 超时后被强制结束
+         */
+        FORCED,
+        /**
+         * 进程已不存在
+         */
+        NOT_FOUND,
+        /**
+         * 结束失败（权限不足或强制结束后仍未退出）
+         */
+        FAILED
+    }
+
+    private final long pid;
+    private final Outcome outcome;
+    private final String message;
+
+    public TerminationResult(long pid, Outcome outcome, String message) {
+        this.pid = pid;
+        this.outcome = outcome;
+        this.message = message;
+    }
+
+    public long getPid() {
+        return pid;
+    }
+
+    public Outcome getOutcome() {
+        return outcome;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * 进程是否已经不在运行
+     */
+    public boolean isSuccess() {
+        return outcome != Outcome.FAILED;
+    }
+}
@@ -0,0 +1,107 @@
+package org.freedom.cleanprocess.service;
+
+import java.util.List;
+
+/**
+ * @description: 一次线程转储的结构化结果
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ThreadDump {
+
+    /**
+     * 转储来源：JMX 或 jcmd
+     */
+    public enum Source {
+        JMX, JCMD
+    }
+
+    private final List<ThreadEntry> threads;
+    private final Source source;
+    /**
+     * 采集时刻（System.nanoTime）
+     */
+    private final long timestamp;
+
+    public ThreadDump(List<ThreadEntry> threads, Source source, long timestamp) {
+        this.threads = threads;
+        this.source = source;
+        this.timestamp = timestamp;
+    }
+
+    public List<ThreadEntry> getThreads() {
+        return threads;
+    }
+
+    public Source getSource() {
+        return source;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * 单个线程的快照，栈帧字符串在解析时已去重复用
+     */
+    public static class ThreadEntry {
+        private final String name;
+        /**
+         * Java 线程 ID，VM 内部线程为 -1
+         */
+        private final long id;
+        /**
+         * 操作系统线程 ID，未知时为 -1
+         */
+        private final long nid;
+        private final String state;
+        /**
+         * 累计 CPU 时间（纳秒），未知时为 -1
+         */
+        private final long cpuNanos;
+        private final String[] frames;
+
+        public ThreadEntry(String name, long id, long nid, String state, long cpuNanos, String[] frames) {
+            this.name = name;
+            this.id = id;
+            this.nid = nid;
+            this.state = state;
+            this.cpuNanos = cpuNanos;
+            this.frames = frames;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public long getNid() {
+            return nid;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public long getCpuNanos() {
+            return cpuNanos;
+        }
+
+        public String[] getFrames() {
+            return frames;
+        }
+
+        /**
+         * 两次转储之间匹配同一线程的键：优先 Java 线程 ID，其次系统线程 ID，最后线程名
+         */
+        String matchKey() {
+            if (id >= 0) {
+                return "#" + id;
+            }
+            return nid >= 0 ? "nid" + nid : name;
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package org.freedom.cleanprocess.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: HotSpot 线程转储（jcmd Thread.print / jstack）文本的流式解析器，逐行处理不保留原文，
+ * 只用 indexOf 定位字段，相同的栈帧字符串在一次解析内复用同一个实例。
+ * 线程头必须带 nid=；"JNI global refs" 与死锁报告之后的内容不再当作线程解析，死锁报告里的 "线程名": 行不会变成多余的线程
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ThreadDumpParser {
+
+    private static final String[] EMPTY = new String[0];
+    private static final String STATE_PREFIX = "java.lang.Thread.State: ";
+    private static final String JNI_REFS = "JNI global refs";
+    private static final String DEADLOCK = "Found one Java-level deadlock";
+
+    private final Map<String, String> frameCache = new HashMap<>();
+
+    private String name;
+    private long id;
+    private long nid;
+    private long cpuNanos;
+    private String state;
+    private final List<String> frames = new ArrayList<>(64);
+
+    public List<ThreadDump.ThreadEntry> parse(BufferedReader reader) throws IOException {
+        List<ThreadDump.ThreadEntry> threads = new ArrayList<>();
+        String line;
+        boolean trailer = false;
+        while ((line = reader.readLine()) != null) {
+            // 尾部信息之后仍然读完输出，jcmd 子进程才能正常退出
+            if (trailer || line.isEmpty()) {
+                continue;
+            }
+            char first = line.charAt(0);
+            if (first == '"' && line.indexOf(" nid=", line.lastIndexOf('"')) > 0) {
+                flush(threads);
+                header(line);
+            } else if (name != null && (first == '\t' || first == ' ')) {
+                body(line);
+            } else {
+                flush(threads);
+                trailer = line.startsWith(JNI_REFS) || line.startsWith(DEADLOCK);
+            }
+        }
+        flush(threads);
+        return threads;
+    }
+
+    private void header(String line) {
+        int end = line.lastIndexOf('"');
+        name = line.substring(1, Math.max(1, end));
+        id = -1;
+        nid = -1;
+        cpuNanos = -1;
+        state = null;
+        frames.clear();
+        int hash = line.indexOf(" #", end);
+        if (hash >= 0) {
+            id = parseLong(line, hash + 2, 10);
+        }
+        int cpu = line.indexOf(" cpu=", end);
+        if (cpu >= 0) {
+            cpuNanos = parseDuration(line, cpu + 5);
+        }
+        int nidIndex = line.indexOf(" nid=", end);
+        if (nidIndex >= 0) {
+            int start = nidIndex + 5;
+            boolean hex = line.startsWith("0x", start);
+            nid = parseLong(line, hex ? start + 2 : start, hex ? 16 : 10);
+            // VM 内部线程没有 Thread.State 行，取 nid 之后的描述（如 runnable）作为状态
+            int space = line.indexOf(' ', start);
+            if (space > 0) {
+                int stop = line.indexOf("  ", space + 1);
+                state = line.substring(space + 1, stop > 0 ? stop : line.length()).trim();
+            }
+        }
+    }
+
+    private void body(String line) {
+        int start = 0;
+        while (start < line.length() && (line.charAt(start) == '\t' || line.charAt(start) == ' ')) {
+            start++;
+        }
+        if (line.startsWith("at ", start)) {
+            String frame = line.substring(start + 3);
+            String cached = frameCache.putIfAbsent(frame, frame);
+            frames.add(cached != null ? cached : frame);
+        } else if (line.startsWith(STATE_PREFIX, start)) {
+            int from = start + STATE_PREFIX.length();
+            int space = line.indexOf(' ', from);
+            state = line.substring(from, space > 0 ? space : line.length());
+        }
+    }
+
+    private void flush(List<ThreadDump.ThreadEntry> threads) {
+        if (name == null) {
+            return;
+        }
+        threads.add(new ThreadDump.ThreadEntry(name, id, nid, state == null ? "" : state, cpuNanos,
+                frames.isEmpty() ? EMPTY : frames.toArray(EMPTY)));
+        name = null;
+    }
+
+    private static long parseLong(String line, int start, int radix) {
+        long value = 0;
+        int i = start;
+        for (; i < line.length(); i++) {
+            int digit = Character.digit(line.charAt(i), radix);
+            if (digit < 0) {
+                break;
+            }
+            value = value * radix + digit;
+        }
+        return i == start ? -1 : value;
+    }
+
+    /**
+     * 解析形如 12.34ms 或 1.5s 的 CPU 时间，返回纳秒
+     */
+    private static long parseDuration(String line, int start) {
+        long whole = 0;
+        long fraction = 0;
+        long scale = 1;
+        int i = start;
+        for (; i < line.length() && Character.isDigit(line.charAt(i)); i++) {
+            whole = whole * 10 + (line.charAt(i) - '0');
+        }
+        if (i < line.length() && line.charAt(i) == '.') {
+            for (i++; i < line.length() && Character.isDigit(line.charAt(i)); i++) {
+                fraction = fraction * 10 + (line.charAt(i) - '0');
+                scale *= 10;
+            }
+        }
+        long unit = line.startsWith("ms", i) ? 1_000_000L : line.startsWith("s", i) ? 1_000_000_000L : -1;
+        if (i == start || unit < 0) {
+            return -1;
+        }
+        return whole * unit + fraction * unit / scale;
+    }
+}
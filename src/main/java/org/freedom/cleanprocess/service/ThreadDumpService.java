@@ -0,0 +1,243 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 线程转储采集与热点线程分析：目标已开启 JMX 代理时用 ThreadMXBean 直接取结构化线程与 CPU 时间，
+ * 否则退回 jcmd Thread.print 并流式解析；两次转储按线程匹配计算 CPU 增量并排序，相同栈的线程合并为一组
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class ThreadDumpService {
+    private static final Logger logger = LogManager.getLogger(ThreadDumpService.class);
+
+    /**
+     * 间隔 intervalMillis 采集两次转储并分析
+     */
+    public Report analyze(long pid, long intervalMillis) throws IOException, InterruptedException {
+        try (JMXConnector connector = JvmDiagnostics.connectExisting(pid)) {
+            if (connector != null) {
+                MBeanServerConnection connection = connector.getMBeanServerConnection();
+                ThreadDump before = captureJmx(connection);
+                Thread.sleep(intervalMillis);
+                return analyze(before, captureJmx(connection));
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("通过 JMX 获取线程转储失败，改用 jcmd, pid = {}: {}", pid, e.toString());
+        }
+        ThreadDump before = captureJcmd(pid);
+        Thread.sleep(intervalMillis);
+        return analyze(before, captureJcmd(pid));
+    }
+
+    private ThreadDump captureJmx(MBeanServerConnection connection) throws IOException {
+        com.sun.management.ThreadMXBean threadMXBean = ManagementFactory.newPlatformMXBeanProxy(connection,
+                ManagementFactory.THREAD_MXBEAN_NAME, com.sun.management.ThreadMXBean.class);
+        long timestamp = System.nanoTime();
+        ThreadInfo[] infos = threadMXBean.dumpAllThreads(false, false);
+        long[] ids = new long[infos.length];
+        for (int i = 0; i < infos.length; i++) {
+            ids[i] = infos[i].getThreadId();
+        }
+        long[] cpuTimes = threadMXBean.isThreadCpuTimeEnabled() ? threadMXBean.getThreadCpuTime(ids) : null;
+        Map<String, String> frameCache = new HashMap<>();
+        List<ThreadDump.ThreadEntry> threads = new ArrayList<>(infos.length);
+        for (int i = 0; i < infos.length; i++) {
+            ThreadInfo info = infos[i];
+            StackTraceElement[] stack = info.getStackTrace();
+            String[] frames = new String[stack.length];
+            for (int j = 0; j < stack.length; j++) {
+                String frame = stack[j].toString();
+                String cached = frameCache.putIfAbsent(frame, frame);
+                frames[j] = cached != null ? cached : frame;
+            }
+            threads.add(new ThreadDump.ThreadEntry(info.getThreadName(), info.getThreadId(), -1,
+                    info.getThreadState().name(), cpuTimes == null ? -1 : cpuTimes[i], frames));
+        }
+        return new ThreadDump(threads, ThreadDump.Source.JMX, timestamp);
+    }
+
+    private ThreadDump captureJcmd(long pid) throws IOException {
+        long timestamp = System.nanoTime();
+        List<ThreadDump.ThreadEntry> threads = JvmDiagnostics.jcmd(pid, JvmDiagnostics.JCMD_TIMEOUT_MILLIS,
+                reader -> new ThreadDumpParser().parse(reader), "Thread.print");
+        if (threads.isEmpty()) {
+            throw new IOException("jcmd 未返回线程信息, pid = " + pid);
+        }
+        return new ThreadDump(threads, ThreadDump.Source.JCMD, timestamp);
+    }
+
+    /**
+     * 以第二次转储为准，计算每个线程在两次转储之间的 CPU 增量，并按栈分组
+     */
+    public static Report analyze(ThreadDump before, ThreadDump after) {
+        Map<String, ThreadDump.ThreadEntry> previous = new HashMap<>(before.getThreads().size() * 2);
+        for (ThreadDump.ThreadEntry entry : before.getThreads()) {
+            previous.put(entry.matchKey(), entry);
+        }
+        long elapsed = Math.max(1, after.getTimestamp() - before.getTimestamp());
+        List<HotThread> hotThreads = new ArrayList<>(after.getThreads().size());
+        for (ThreadDump.ThreadEntry entry : after.getThreads()) {
+            ThreadDump.ThreadEntry old = previous.get(entry.matchKey());
+            long delta;
+            if (entry.getCpuNanos() < 0) {
+                delta = -1;
+            } else if (old == null || old.getCpuNanos() < 0) {
+                // 两次转储之间新建的线程，全部 CPU 时间都算在本区间
+                delta = entry.getCpuNanos();
+            } else {
+                delta = Math.max(0, entry.getCpuNanos() - old.getCpuNanos());
+            }
+            hotThreads.add(new HotThread(entry, delta, delta < 0 ? -1 : delta * 100.0 / elapsed));
+        }
+        hotThreads.sort(Comparator.comparingLong(HotThread::getCpuDeltaNanos).reversed());
+        return new Report(after, hotThreads, group(after), elapsed);
+    }
+
+    /**
+     * 把状态与栈帧完全相同的线程合并为一组，按线程数降序
+     */
+    public static List<StackGroup> group(ThreadDump dump) {
+        Map<StackKey, StackGroup> groups = new LinkedHashMap<>();
+        for (ThreadDump.ThreadEntry entry : dump.getThreads()) {
+            groups.computeIfAbsent(new StackKey(entry.getState(), entry.getFrames()),
+                    key -> new StackGroup(entry.getState(), entry.getFrames())).threads.add(entry);
+        }
+        List<StackGroup> result = new ArrayList<>(groups.values());
+        result.sort(Comparator.comparingInt(StackGroup::size).reversed());
+        return result;
+    }
+
+    /**
+     * 栈分组的键，哈希值只计算一次；栈帧字符串已去重，equals 多数情况下只比较引用
+     */
+    private static final class StackKey {
+        private final String state;
+        private final String[] frames;
+        private final int hash;
+
+        StackKey(String state, String[] frames) {
+            this.state = state;
+            this.frames = frames;
+            this.hash = 31 * state.hashCode() + Arrays.hashCode(frames);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof StackKey)) {
+                return false;
+            }
+            StackKey other = (StackKey) o;
+            return hash == other.hash && state.equals(other.state) && Arrays.equals(frames, other.frames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    /**
+     * 热点线程：两次转储之间的 CPU 增量
+     */
+    public static class HotThread {
+        private final ThreadDump.ThreadEntry thread;
+        private final long cpuDeltaNanos;
+        private final double cpuPercent;
+
+        HotThread(ThreadDump.ThreadEntry thread, long cpuDeltaNanos, double cpuPercent) {
+            this.thread = thread;
+            this.cpuDeltaNanos = cpuDeltaNanos;
+            this.cpuPercent = cpuPercent;
+        }
+
+        public ThreadDump.ThreadEntry getThread() {
+            return thread;
+        }
+
+        public long getCpuDeltaNanos() {
+            return cpuDeltaNanos;
+        }
+
+        public double getCpuPercent() {
+            return cpuPercent;
+        }
+    }
+
+    /**
+     * 具有相同状态与栈的一组线程
+     */
+    public static class StackGroup {
+        private final String state;
+        private final String[] frames;
+        private final List<ThreadDump.ThreadEntry> threads = new ArrayList<>();
+
+        StackGroup(String state, String[] frames) {
+            this.state = state;
+            this.frames = frames;
+        }
+
+        public String getState() {
+            return state;
+        }
+
+        public String[] getFrames() {
+            return frames;
+        }
+
+        public List<ThreadDump.ThreadEntry> getThreads() {
+            return threads;
+        }
+
+        public int size() {
+            return threads.size();
+        }
+    }
+
+    /**
+     * 分析结果
+     */
+    public static class Report {
+        private final ThreadDump dump;
+        private final List<HotThread> hotThreads;
+        private final List<StackGroup> groups;
+        private final long elapsedNanos;
+
+        Report(ThreadDump dump, List<HotThread> hotThreads, List<StackGroup> groups, long elapsedNanos) {
+            this.dump = dump;
+            this.hotThreads = hotThreads;
+            this.groups = groups;
+            this.elapsedNanos = elapsedNanos;
+        }
+
+        public ThreadDump getDump() {
+            return dump;
+        }
+
+        public List<HotThread> getHotThreads() {
+            return hotThreads;
+        }
+
+        public List<StackGroup> getGroups() {
+            return groups;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package org.freedom.cleanprocess.service;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * @description: 把 {@link LineDiff} 的编辑列表输出为 unified diff 格式（与 diff -u 相同的 @@ 块）
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public final class UnifiedDiff {
+    /**
+     * 默认上下文行数
+     */
+    public static final int DEFAULT_CONTEXT = 3;
+
+    private UnifiedDiff() {
+    }
+
+    /**
+     * 输出文件头和所有差异块，间隔不超过 2 * context 行的编辑合并到同一个块中
+     */
+    public static void write(String nameA, String nameB, List<String> a, List<String> b,
+                             List<LineDiff.Edit> edits, int context, Appendable out) throws IOException {
+        if (edits.isEmpty()) {
+            return;
+        }
+        out.append("--- ").append(nameA).append('\n');
+        out.append("+++ ").append(nameB).append('\n');
+        int i = 0;
+        while (i < edits.size()) {
+            int j = i;
+            while (j + 1 < edits.size() && edits.get(j + 1).getBeginA() - edits.get(j).getEndA() <= 2 * context) {
+                j++;
+            }
+            LineDiff.Edit first = edits.get(i);
+            LineDiff.Edit last = edits.get(j);
+            int startA = Math.max(0, first.getBeginA() - context);
+            int endA = Math.min(a.size(), last.getEndA() + context);
+            int startB = first.getBeginB() - (first.getBeginA() - startA);
+            int endB = last.getEndB() + (endA - last.getEndA());
+            out.append("@@ -").append(range(startA, endA - startA))
+                    .append(" +").append(range(startB, endB - startB)).append(" @@\n");
+            int position = startA;
+            for (int k = i; k <= j; k++) {
+                LineDiff.Edit edit = edits.get(k);
+                lines(out, ' ', a, position, edit.getBeginA());
+                lines(out, '-', a, edit.getBeginA(), edit.getEndA());
+                lines(out, '+', b, edit.getBeginB(), edit.getEndB());
+                position = edit.getEndA();
+            }
+            lines(out, ' ', a, position, endA);
+            i = j + 1;
+        }
+    }
+
+    /**
+     * 行号从 1 开始；空区间按惯例写成“前一行,0”，只有一行时省略长度
+     */
+    private static String range(int start, int length) {
+        if (length == 0) {
+            return start + ",0";
+        }
+        return length == 1 ? String.valueOf(start + 1) : (start + 1) + "," + length;
+    }
+
+    private static void lines(Appendable out, char prefix, List<String> lines, int from, int to) throws IOException {
+        for (int i = from; i < to; i++) {
+            out.append(prefix).append(lines.get(i)).append('\n');
+        }
+    }
+}
@@ -0,0 +1,246 @@
+package org.freedom.cleanprocess.service;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.entiy.WatchdogPolicy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * @description: 看门狗策略引擎，作为采样监听者逐个快照增量评估：每个进程为每条策略保存一个超限起始时间，
+ * 单次评估只做一次哈希查找和若干次数值比较；触发后进入已触发状态，指标回落到解除阈值以下才重新计时。
+ * 结束进程的策略（含演练）只作用于 Java 进程，且从不作用于本进程，避免误杀编译器、数据库等本地进程或进程管理器自身
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class WatchdogEngine implements Consumer<List<ProcessInfo>> {
+    private static final Logger logger = LogManager.getLogger(WatchdogEngine.class);
+
+    private static final long IDLE = -1;
+    private static final long FIRED = -2;
+    private static final long SELF_PID = ProcessHandle.current().pid();
+
+    private final List<Consumer<WatchdogEvent>> listeners = new CopyOnWriteArrayList<>();
+
+    private CompiledPolicy[] policies = new CompiledPolicy[0];
+
+    /**
+     * pid -> 各策略的状态：IDLE、FIRED 或超限起始时间（毫秒）
+     */
+    private final Map<Long, ProcessState> states = new HashMap<>();
+
+    private long generation;
+
+    public void addListener(Consumer<WatchdogEvent> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * 替换策略，正则非法时抛出 IllegalArgumentException；已有的计时状态全部清空
+     */
+    public synchronized void setPolicies(List<WatchdogPolicy> policyList) {
+        List<CompiledPolicy> compiled = new ArrayList<>();
+        for (WatchdogPolicy policy : policyList) {
+            if (policy.isEnabled()) {
+                compiled.add(new CompiledPolicy(policy));
+            }
+        }
+        policies = compiled.toArray(new CompiledPolicy[0]);
+        states.clear();
+    }
+
+    public synchronized boolean hasPolicies() {
+        return policies.length > 0;
+    }
+
+    @Override
+    public void accept(List<ProcessInfo> processes) {
+        evaluate(processes, System.currentTimeMillis());
+    }
+
+    /**
+     * 用一次快照推进所有进程的策略状态
+     */
+    public void evaluate(List<ProcessInfo> processes, long now) {
+        List<WatchdogEvent> events = null;
+        synchronized (this) {
+            if (policies.length == 0) {
+                return;
+            }
+            long current = ++generation;
+            for (ProcessInfo processInfo : processes) {
+                ProcessState state = states.get(processInfo.getPid());
+                if (state == null || state.startTime != processInfo.getStartTime()) {
+                    state = new ProcessState(processInfo.getStartTime(), policies.length);
+                    states.put(processInfo.getPid(), state);
+                }
+                state.generation = current;
+                for (int i = 0; i < policies.length; i++) {
+                    CompiledPolicy policy = policies[i];
+                    if (!policy.appliesTo(processInfo)) {
+                        continue;
+                    }
+                    double value = policy.value(processInfo);
+                    if (value < 0) {
+                        // 指标未知时保持原状态
+                        continue;
+                    }
+                    long since = state.since[i];
+                    if (since == FIRED) {
+                        if (value < policy.clearLevel) {
+                            state.since[i] = IDLE;
+                        }
+                    } else if (value > policy.threshold) {
+                        if (since == IDLE) {
+                            state.since[i] = since = now;
+                        }
+                        if (now - since >= policy.durationMillis) {
+                            state.since[i] = FIRED;
+                            if (events == null) {
+                                events = new ArrayList<>();
+                            }
+                            events.add(new WatchdogEvent(policy.policy, processInfo, value, now - since));
+                        }
+                    } else {
+                        state.since[i] = IDLE;
+                    }
+                }
+            }
+            // 清理已经退出的进程
+            for (Iterator<ProcessState> iterator = states.values().iterator(); iterator.hasNext(); ) {
+                if (iterator.next().generation != current) {
+                    iterator.remove();
+                }
+            }
+        }
+        if (events != null) {
+            for (WatchdogEvent event : events) {
+                logger.warn("看门狗策略 [{}] 触发: 进程 {} (PID: {}) 当前值 {}，持续 {} 秒{}",
+                        event.getPolicy().getName(), event.getProcessInfo().getName(), event.getProcessInfo().getPid(),
+                        String.format("%.1f", event.getValue()), event.getBreachMillis() / 1000,
+                        event.getPolicy().isDryRun() ? "（演练）" : "");
+                listeners.forEach(listener -> listener.accept(event));
+            }
+        }
+    }
+
+    private static final class ProcessState {
+        private final long startTime;
+        private final long[] since;
+        private long generation;
+
+        ProcessState(long startTime, int policyCount) {
+            this.startTime = startTime;
+            this.since = new long[policyCount];
+            Arrays.fill(since, IDLE);
+        }
+    }
+
+    private static final class CompiledPolicy {
+        private final WatchdogPolicy policy;
+        private final WatchdogPolicy.Metric metric;
+        private final double threshold;
+        private final double clearLevel;
+        private final long durationMillis;
+        private final Pattern mainClass;
+        private final boolean terminate;
+
+        CompiledPolicy(WatchdogPolicy policy) {
+            if (policy.getMetric() == null || policy.getAction() == null) {
+                throw new IllegalArgumentException("策略 [" + policy.getName() + "] 缺少 metric 或 action");
+            }
+            this.policy = policy;
+            this.metric = policy.getMetric();
+            this.threshold = policy.getThreshold();
+            this.clearLevel = policy.getThreshold() * (1 - Math.max(0, policy.getHysteresisPercent()) / 100);
+            this.durationMillis = policy.getDurationSeconds() * 1000;
+            this.terminate = policy.getAction() == WatchdogPolicy.Action.TERMINATE;
+            String regex = policy.getMainClass();
+            try {
+                this.mainClass = regex == null || regex.isEmpty() ? null : Pattern.compile(regex);
+            } catch (PatternSyntaxException e) {
+                throw new IllegalArgumentException("策略 [" + policy.getName() + "] 的正则非法: " + e.getDescription(), e);
+            }
+        }
+
+        boolean appliesTo(ProcessInfo processInfo) {
+            if (terminate && (processInfo.getPid() == SELF_PID || !"Java".equals(processInfo.getProcessType()))) {
+                return false;
+            }
+            return mainClass == null
+                    || (processInfo.getMainClass() != null && mainClass.matcher(processInfo.getMainClass()).find());
+        }
+
+        /**
+         * 取策略关注的指标，内存换算为 MB，未知时返回负数
+         */
+        double value(ProcessInfo processInfo) {
+            switch (metric) {
+                case HEAP:
+                    return megabytes(processInfo.getHeap());
+                case MEMORY:
+                    return megabytes(processInfo.getMemory());
+                case RSS:
+                    return processInfo.getRss() > 0 ? megabytes(processInfo.getRss()) : -1;
+                case CPU:
+                    return processInfo.getCpu();
+                default:
+                    return "Java".equals(processInfo.getProcessType()) ? processInfo.getGcTimePercent() : -1;
+            }
+        }
+
+        private static double megabytes(long bytes) {
+            return bytes < 0 ? -1 : bytes / 1024.0 / 1024.0;
+        }
+    }
+
+    /**
+     * 策略触发事件
+     */
+    public static class WatchdogEvent {
+        private final WatchdogPolicy policy;
+        private final ProcessInfo processInfo;
+        private final double value;
+        private final long breachMillis;
+
+        WatchdogEvent(WatchdogPolicy policy, ProcessInfo processInfo, double value, long breachMillis) {
+            this.policy = policy;
+            this.processInfo = processInfo;
+            this.value = value;
+            this.breachMillis = breachMillis;
+        }
+
+        public WatchdogPolicy getPolicy() {
+            return policy;
+        }
+
+        public ProcessInfo getProcessInfo() {
+            return processInfo;
+        }
+
+        public double getValue() {
+            return value;
+        }
+
+        public long getBreachMillis() {
+            return breachMillis;
+        }
+
+        /**
+         * 是否需要真正结束进程
+         */
+        public boolean shouldTerminate() {
+            return policy.getAction() == WatchdogPolicy.Action.TERMINATE && !policy.isDryRun();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package org.freedom.cleanprocess.service;
+
+import com.google.gson.reflect.TypeToken;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.freedom.cleanprocess.entiy.WatchdogPolicy;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * @description: 看门狗策略的持久化，保存在 data/watchdog-policies.json；文件不存在时没有任何策略
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+public class WatchdogPolicyStore extends JsonListStore<WatchdogPolicy> {
+    private static final Logger logger = LogManager.getLogger(WatchdogPolicyStore.class);
+
+    public WatchdogPolicyStore() {
+        this(Paths.get("data", "watchdog-policies.json"));
+    }
+
+    public WatchdogPolicyStore(Path path) {
+        super(path, new TypeToken<List<WatchdogPolicy>>() {
+        }.getType(), "看门狗策略");
+    }
+
+    /**
+     * 编辑器里展示的示例策略，默认为演练模式
+     */
+    public static List<WatchdogPolicy> examplePolicies() {
+        return List.of(
+                WatchdogPolicy.builder().name("堆内存持续超过 2048MB 30 秒").metric(WatchdogPolicy.Metric.HEAP)
+                        .threshold(2048).durationSeconds(30).action(WatchdogPolicy.Action.TERMINATE)
+                        .dryRun(true).build(),
+                WatchdogPolicy.builder().name("CPU 持续超过 90% 5 分钟").metric(WatchdogPolicy.Metric.CPU)
+                        .threshold(90).durationSeconds(300).action(WatchdogPolicy.Action.NOTIFY).build());
+    }
+
+    @Override
+    protected List<WatchdogPolicy> defaults() {
+        return List.of();
+    }
+
+    @Override
+    protected void validate(List<WatchdogPolicy> policies) {
+        new WatchdogEngine().setPolicies(policies);
+    }
+
+    /**
+     * 读取策略并装入引擎，策略非法时不启用任何策略
+     */
+    public void loadInto(WatchdogEngine engine) {
+        try {
+            engine.setPolicies(load());
+        } catch (IllegalArgumentException e) {
+            logger.error("看门狗策略非法，已停用: {}", e.getMessage());
+            engine.setPolicies(List.of());
+        }
+    }
+}
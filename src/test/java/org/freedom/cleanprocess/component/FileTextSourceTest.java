@@ -0,0 +1,88 @@
+package org.freedom.cleanprocess.component;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @description: 文件数据源与内存数据源的显示行切分一致，超长行的续行可以按 endsLine 拼回原文
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class FileTextSourceTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void splitsLikeStringSourceAndJoinsContinuations() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append("line ").append(i).append(i % 3 == 0 ? "\r\n" : "\n");
+        }
+        // ASCII 超长行，在 4096 处切开
+        text.append("x".repeat(TextSource.MAX_ROW_LENGTH * 3 + 17)).append('\n');
+        // 跨越 64KB 读取窗口的中文长行（UTF-8 每个字 3 字节），不能切在多字节字符中间
+        text.append("中".repeat(70_000)).append('\n');
+        text.append("最后一行没有换行");
+        Path path = directory.resolve("text.log");
+        Files.write(path, text.toString().getBytes(StandardCharsets.UTF_8));
+
+        StringTextSource expected = new StringTextSource(text.toString());
+        try (FileTextSource source = open(path)) {
+            for (int i = 0; i < source.rowCount(); i++) {
+                String row = source.row(i);
+                // 字节切分与字符切分的位置不同，这里只比较拼回后的原文
+                assertFalse(row.contains("�"), "第 " + i + " 行切在了多字节字符中间");
+            }
+            assertEquals(join(expected), join(source));
+            assertEquals(text.toString().replace("\r\n", "\n") + "\n", join(source));
+            assertTrue(source.endsLine(0));
+            assertFalse(source.endsLine(3000));
+            assertEquals("line 2999", source.row(2999));
+        }
+    }
+
+    @Test
+    void releasesTheFileOnClose() throws Exception {
+        Path path = directory.resolve("text.log");
+        Files.write(path, "a\nb\n".getBytes(StandardCharsets.UTF_8));
+        FileTextSource source = open(path);
+        assertEquals("b", source.row(1));
+        source.close();
+        Files.delete(path);
+        assertFalse(Files.exists(path));
+    }
+
+    private static FileTextSource open(Path path) throws IOException, InterruptedException {
+        FileTextSource source = FileTextSource.open(path, () -> {
+        });
+        for (int i = 0; i < 500 && !source.isComplete(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(source.isComplete());
+        return source;
+    }
+
+    /**
+     * 按 LargeTextView 复制时的规则拼接所有显示行
+     */
+    private static String join(TextSource source) {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < source.rowCount(); i++) {
+            builder.append(source.row(i));
+            if (source.endsLine(i)) {
+                builder.append('\n');
+            }
+        }
+        return builder.toString();
+    }
+}
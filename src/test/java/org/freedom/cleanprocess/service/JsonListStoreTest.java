@@ -0,0 +1,53 @@
+package org.freedom.cleanprocess.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @description: 过滤规则与看门狗策略共用的 JSON 列表存储：空元素、格式错误的校验以及读写往返
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class JsonListStoreTest {
+    @TempDir
+    Path dir;
+
+    @Test
+    void parseRejectsNullEntries() {
+        ProcessRuleStore rules = new ProcessRuleStore(dir.resolve("rules.json"));
+        WatchdogPolicyStore policies = new WatchdogPolicyStore(dir.resolve("policies.json"));
+        assertThrows(IllegalArgumentException.class, () -> rules.parse("[null]"));
+        assertThrows(IllegalArgumentException.class, () -> policies.parse("[null]"));
+        assertThrows(IllegalArgumentException.class, () -> rules.parse("[{\"action\":"));
+        assertTrue(rules.parse("null").isEmpty());
+    }
+
+    @Test
+    void loadFallsBackToDefaultsForNullEntries() throws IOException {
+        Path file = dir.resolve("rules.json");
+        Files.writeString(file, "[null]", StandardCharsets.UTF_8);
+        assertEquals(ProcessRuleStore.defaultRules(), new ProcessRuleStore(file).load());
+
+        Path policies = dir.resolve("policies.json");
+        Files.writeString(policies, "[null]", StandardCharsets.UTF_8);
+        assertTrue(new WatchdogPolicyStore(policies).load().isEmpty());
+    }
+
+    @Test
+    void savedListLoadsBack() throws IOException {
+        WatchdogPolicyStore store = new WatchdogPolicyStore(dir.resolve("nested").resolve("policies.json"));
+        store.save(WatchdogPolicyStore.examplePolicies());
+        assertEquals(WatchdogPolicyStore.examplePolicies(), store.load());
+        assertEquals(List.of(), new WatchdogPolicyStore(dir.resolve("missing.json")).load());
+    }
+}
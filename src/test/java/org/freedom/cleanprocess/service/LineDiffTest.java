@@ -0,0 +1,165 @@
+package org.freedom.cleanprocess.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @description: 行级差异的编辑序列：基本的插入 / 删除 / 替换，随机输入下编辑序列作用于 A 必须得到 B，
+ * 小规模输入的改动行数必须等于最短编辑距离
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class LineDiffTest {
+
+    @Test
+    void identicalAndEmptyInputsHaveNoEdits() {
+        assertEquals(List.of(), edits(ids(), ids()));
+        assertEquals(List.of(), edits(ids(1, 2, 3), ids(1, 2, 3)));
+    }
+
+    @Test
+    void emptySideIsASingleEdit() {
+        assertEquals(List.of("0-0,0-2"), edits(ids(), ids(1, 2)));
+        assertEquals(List.of("0-3,0-0"), edits(ids(1, 2, 3), ids()));
+    }
+
+    @Test
+    void insertDeleteAndReplace() {
+        assertEquals(List.of("1-1,1-2"), edits(ids(1, 3), ids(1, 2, 3)));
+        assertEquals(List.of("0-0,0-1"), edits(ids(1, 2), ids(0, 1, 2)));
+        assertEquals(List.of("2-2,2-3"), edits(ids(1, 2), ids(1, 2, 3)));
+        assertEquals(List.of("1-2,1-1"), edits(ids(1, 2, 3), ids(1, 3)));
+        assertEquals(List.of("1-2,1-2"), edits(ids(1, 2, 3), ids(1, 9, 3)));
+        assertEquals(List.of("0-1,0-1", "3-5,3-4"), edits(ids(1, 2, 3, 4, 5, 6), ids(9, 2, 3, 8, 6)));
+    }
+
+    @Test
+    void internUsesTheNormalizedKey() {
+        int[][] ids = LineDiff.intern(List.of("a  b", "C"), List.of("a b", "c", "d"), LineDiff.normalizer(true, true));
+        assertEquals(ids[0][0], ids[1][0]);
+        assertEquals(ids[0][1], ids[1][1]);
+        assertTrue(ids[1][2] != ids[0][0] && ids[1][2] != ids[0][1]);
+    }
+
+    @Test
+    void randomEditsReproduceBWithMinimalChanges() {
+        Random random = new Random(20261018);
+        for (int round = 0; round < 2000; round++) {
+            int[] a = randomLines(random, random.nextInt(60), 1 + random.nextInt(6));
+            int[] b = mutate(random, a, 1 + random.nextInt(6));
+            List<LineDiff.Edit> edits = LineDiff.diff(a, b);
+            assertArrayEquals(b, apply(a, b, edits), () -> "a = " + str(a) + ", b = " + str(b));
+            // 两侧合计不超过 256 行时不限制编辑距离，结果必须是最短编辑序列
+            assertEquals(a.length + b.length - 2 * lcs(a, b), changedLines(edits),
+                    () -> "a = " + str(a) + ", b = " + str(b));
+        }
+    }
+
+    @Test
+    void largeRandomInputsStillReproduceB() {
+        Random random = new Random(7);
+        for (int round = 0; round < 20; round++) {
+            int[] a = randomLines(random, 5_000 + random.nextInt(20_000), 50 + random.nextInt(5_000));
+            int[] b = mutate(random, a, 50 + random.nextInt(5_000));
+            assertArrayEquals(b, apply(a, b, LineDiff.diff(a, b)));
+        }
+    }
+
+    /**
+     * 把编辑序列作用于 A，同时检查编辑按顺序排列、互不重叠且两侧位置对应
+     */
+    static int[] apply(int[] a, int[] b, List<LineDiff.Edit> edits) {
+        int[] result = new int[b.length];
+        int size = 0;
+        int position = 0;
+        for (LineDiff.Edit edit : edits) {
+            assertTrue(edit.getBeginA() >= position, () -> "编辑未排序或重叠: " + edit);
+            assertTrue(edit.getBeginA() < edit.getEndA() || edit.getBeginB() < edit.getEndB(), () -> "空编辑: " + edit);
+            for (int i = position; i < edit.getBeginA(); i++) {
+                result[size++] = a[i];
+            }
+            assertEquals(size, edit.getBeginB(), () -> "B 的位置与 A 不对应: " + edit);
+            for (int i = edit.getBeginB(); i < edit.getEndB(); i++) {
+                result[size++] = b[i];
+            }
+            position = edit.getEndA();
+        }
+        for (int i = position; i < a.length; i++) {
+            result[size++] = a[i];
+        }
+        assertEquals(b.length, size);
+        return result;
+    }
+
+    private static int changedLines(List<LineDiff.Edit> edits) {
+        int changed = 0;
+        for (LineDiff.Edit edit : edits) {
+            changed += edit.getEndA() - edit.getBeginA() + edit.getEndB() - edit.getBeginB();
+        }
+        return changed;
+    }
+
+    private static int lcs(int[] a, int[] b) {
+        int[][] table = new int[a.length + 1][b.length + 1];
+        for (int i = a.length - 1; i >= 0; i--) {
+            for (int j = b.length - 1; j >= 0; j--) {
+                table[i][j] = a[i] == b[j] ? table[i + 1][j + 1] + 1 : Math.max(table[i + 1][j], table[i][j + 1]);
+            }
+        }
+        return table[0][0];
+    }
+
+    private static int[] randomLines(Random random, int length, int alphabet) {
+        int[] lines = new int[length];
+        for (int i = 0; i < length; i++) {
+            lines[i] = random.nextInt(alphabet);
+        }
+        return lines;
+    }
+
+    /**
+     * 随机插入、删除和替换若干行
+     */
+    private static int[] mutate(Random random, int[] a, int alphabet) {
+        List<Integer> lines = new ArrayList<>();
+        for (int line : a) {
+            lines.add(line);
+        }
+        int changes = random.nextInt(Math.max(1, a.length / 4) + 1);
+        for (int i = 0; i < changes; i++) {
+            int operation = random.nextInt(3);
+            if (operation == 0 || lines.isEmpty()) {
+                lines.add(random.nextInt(lines.size() + 1), random.nextInt(alphabet));
+            } else if (operation == 1) {
+                lines.remove(random.nextInt(lines.size()));
+            } else {
+                lines.set(random.nextInt(lines.size()), random.nextInt(alphabet));
+            }
+        }
+        return lines.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private static List<String> edits(int[] a, int[] b) {
+        List<String> result = new ArrayList<>();
+        for (LineDiff.Edit edit : LineDiff.diff(a, b)) {
+            result.add(edit.getBeginA() + "-" + edit.getEndA() + "," + edit.getBeginB() + "-" + edit.getEndB());
+        }
+        return result;
+    }
+
+    private static int[] ids(int... ids) {
+        return ids;
+    }
+
+    private static String str(int[] lines) {
+        return Arrays.toString(lines);
+    }
+}
@@ -0,0 +1,279 @@
+package org.freedom.cleanprocess.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @description: 指标段文件的写入与回放：zigzag / varint 增量编码、变化位图、末尾半帧的恢复、重新打开后继续追加以及写入锁
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class MetricSegmentTest {
+    private static final int METRICS = 3;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsNegativeAndExtremeDeltas() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        List<Sample> written = new ArrayList<>();
+        long[][] values = {
+                {0, 0, 0},
+                {-1, Long.MAX_VALUE, 1},
+                {Long.MIN_VALUE, -Long.MAX_VALUE, 127},
+                {128, 0, -128},
+                {Long.MAX_VALUE, Long.MIN_VALUE, 16_384},
+        };
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            long timestamp = 1_700_000_000_000L;
+            for (long[] row : values) {
+                // 时间戳也有回退，增量为负
+                timestamp += row[2] % 2 == 0 ? 1000 : -10;
+                write(segment, written, timestamp, 42, 7, "app", row);
+            }
+        }
+        assertEquals(written, read(path));
+    }
+
+    @Test
+    void unchangedMetricsOnlyCostTheBitmap() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        List<Sample> written = new ArrayList<>();
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            write(segment, written, 1000, 1, 1, "a", new long[]{1_000_000_000L, 5, 9});
+            int before = segment.size();
+            write(segment, written, 2000, 1, 1, "a", new long[]{1_000_000_000L, 5, 9});
+            // 帧长 4 字节 + 时间戳增量 2 字节 + 序列号 1 字节 + 全零位图 1 字节
+            assertEquals(4 + 2 + 1 + 1, segment.size() - before);
+            before = segment.size();
+            write(segment, written, 3000, 1, 1, "a", new long[]{1_000_000_000L, 6, 9});
+            // 只有一个指标变化：位图 1 字节 + 增量 1 字节
+            assertEquals(4 + 2 + 1 + 1 + 1, segment.size() - before);
+        }
+        assertEquals(written, read(path));
+    }
+
+    @Test
+    void newStartTimeStartsANewSeries() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        List<Sample> written = new ArrayList<>();
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            write(segment, written, 1000, 10, 100, "old", new long[]{1, 2, 3});
+            // 同一个 PID 被新进程复用，增量不能接着旧进程算
+            write(segment, written, 2000, 10, 200, "new", new long[]{1, 2, 3});
+            write(segment, written, 3000, 10, 200, "new", new long[]{4, 2, 3});
+        }
+        assertEquals(written, read(path));
+    }
+
+    @Test
+    void reopenContinuesDeltaEncoding() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        List<Sample> written = new ArrayList<>();
+        Random random = new Random(20261018);
+        long timestamp = 0;
+        for (int round = 0; round < 4; round++) {
+            try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+                for (int i = 0; i < 50; i++) {
+                    timestamp += 1 + random.nextInt(5000);
+                    segment.beginFrame(timestamp);
+                    for (int pid = 1; pid <= 5; pid++) {
+                        long[] row = {random.nextInt(3) - 1, random.nextLong(), random.nextInt(1 << 20)};
+                        segment.add(pid, pid * 1000L, "p" + pid, row);
+                        written.add(new Sample(timestamp, pid, pid * 1000L, "p" + pid, row));
+                    }
+                    segment.endFrame();
+                }
+            }
+            assertEquals(written, read(path));
+        }
+    }
+
+    @Test
+    void largeSegmentReplaysWhileOpenAndAfterClose() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        List<Sample> written = new ArrayList<>();
+        Random random = new Random(7);
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            for (int i = 0; segment.size() < (3 << 20); i++) {
+                segment.beginFrame(i);
+                for (int pid = 0; pid < 100; pid++) {
+                    long[] row = {random.nextLong(), random.nextLong(), random.nextLong()};
+                    segment.add(pid, 1, "p", row);
+                    written.add(new Sample(i, pid, 1, "p", row));
+                }
+                segment.endFrame();
+            }
+            // 文件不再按块预分配，大小就是已写入的字节数
+            assertEquals(segment.size(), Files.size(path));
+            List<Sample> replayed = new ArrayList<>();
+            segment.replay((timestamp, pid, startTime, name, values) ->
+                    replayed.add(new Sample(timestamp, pid, startTime, name, values)));
+            assertEquals(written, replayed);
+        }
+        assertEquals(written, read(path));
+    }
+
+    @Test
+    void dropsTornTailAndContinuesAfterIt() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        List<Sample> written = new ArrayList<>();
+        int end;
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            write(segment, written, 1000, 1, 1, "a", new long[]{1, 2, 3});
+            write(segment, written, 2000, 1, 1, "a", new long[]{4, 5, 6});
+            end = segment.size();
+        }
+        // 内容已写入但帧长还没写的半帧
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(end);
+            file.writeInt(0);
+            file.write(new byte[]{0x10, 0x01, 0x07, 0x7F, 0x55});
+        }
+        assertEquals(written, read(path));
+        continueAfterTornTail(path, written, end, 3000);
+
+        // 帧长超出文件末尾
+        int tail = sizeAfterReopen(path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(tail);
+            file.writeInt(Integer.MAX_VALUE - 16);
+        }
+        assertEquals(written, read(path));
+        continueAfterTornTail(path, written, tail, 4000);
+
+        // 帧长完整但内容引用了不存在的序列
+        tail = sizeAfterReopen(path);
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(tail);
+            file.writeInt(3);
+            file.write(new byte[]{0x02, 0x63, 0x00});
+        }
+        assertEquals(written, read(path));
+        continueAfterTornTail(path, written, tail, 5000);
+
+        // 帧长完整，已经改了序列 0 的取值并声明了新序列 2，随后内容被截断：这些都不能留在恢复出的状态里
+        tail = sizeAfterReopen(path);
+        byte[] partial = {0x02, 0x00, 0x01, 0x0A, 0x02, 0x07, 0x07, 0x05, 'a', 'b'};
+        try (RandomAccessFile file = new RandomAccessFile(path.toFile(), "rw")) {
+            file.seek(tail);
+            file.writeInt(partial.length);
+            file.write(partial);
+        }
+        assertEquals(written, read(path));
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            assertEquals(tail, segment.size());
+            segment.beginFrame(6000);
+            segment.add(1, 1, "a", new long[]{6000, -6000, 0});
+            segment.add(9, 9, "c", new long[]{1, 2, 3});
+            segment.endFrame();
+            written.add(new Sample(6000, 1, 1, "a", new long[]{6000, -6000, 0}));
+            written.add(new Sample(6000, 9, 9, "c", new long[]{1, 2, 3}));
+        }
+        assertEquals(written, read(path));
+    }
+
+    @Test
+    void secondWriterIsRejectedUntilTheFirstCloses() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        try (MetricSegment first = MetricSegment.open(path, METRICS)) {
+            assertThrows(MetricSegment.LockedException.class, () -> MetricSegment.open(path, METRICS));
+            first.beginFrame(1);
+            first.add(1, 1, "a", new long[]{1, 2, 3});
+            first.endFrame();
+            // 只读回放不受写入锁影响
+            assertEquals(1, read(path).size());
+        }
+        MetricSegment.open(path, METRICS).close();
+    }
+
+    @Test
+    void rejectsSegmentWithDifferentMetricCount() throws IOException {
+        Path path = directory.resolve("raw.seg");
+        MetricSegment.open(path, METRICS).close();
+        assertThrows(IOException.class, () -> MetricSegment.open(path, METRICS + 1));
+    }
+
+    private static void continueAfterTornTail(Path path, List<Sample> written, int expectedSize, long timestamp)
+            throws IOException {
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            assertEquals(expectedSize, segment.size());
+            write(segment, written, timestamp, 1, 1, "a", new long[]{timestamp, -timestamp, 0});
+            write(segment, written, timestamp + 1, 2, 2, "b", new long[]{1, 1, 1});
+        }
+        assertEquals(written, read(path));
+    }
+
+    private static int sizeAfterReopen(Path path) throws IOException {
+        try (MetricSegment segment = MetricSegment.open(path, METRICS)) {
+            assertTrue(segment.size() > 0);
+            return segment.size();
+        }
+    }
+
+    private static void write(MetricSegment segment, List<Sample> written, long timestamp, long pid, long startTime,
+                              String name, long[] values) throws IOException {
+        segment.beginFrame(timestamp);
+        segment.add(pid, startTime, name, values);
+        segment.endFrame();
+        written.add(new Sample(timestamp, pid, startTime, name, values));
+    }
+
+    private static List<Sample> read(Path path) throws IOException {
+        List<Sample> samples = new ArrayList<>();
+        MetricSegment.read(path, METRICS, (timestamp, pid, startTime, name, values) ->
+                samples.add(new Sample(timestamp, pid, startTime, name, values)));
+        return samples;
+    }
+
+    private static final class Sample {
+        private final long timestamp;
+        private final long pid;
+        private final long startTime;
+        private final String name;
+        private final long[] values;
+
+        Sample(long timestamp, long pid, long startTime, String name, long[] values) {
+            this.timestamp = timestamp;
+            this.pid = pid;
+            this.startTime = startTime;
+            this.name = name;
+            this.values = values.clone();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Sample)) {
+                return false;
+            }
+            Sample other = (Sample) o;
+            return timestamp == other.timestamp && pid == other.pid && startTime == other.startTime
+                    && name.equals(other.name) && Arrays.equals(values, other.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(timestamp) * 31 + Long.hashCode(pid);
+        }
+
+        @Override
+        public String toString() {
+            return timestamp + " " + pid + "/" + startTime + " " + name + " " + Arrays.toString(values);
+        }
+    }
+}
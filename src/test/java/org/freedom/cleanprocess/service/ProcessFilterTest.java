@@ -0,0 +1,48 @@
+package org.freedom.cleanprocess.service;
+
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.entiy.ProcessRule;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @description: 过滤规则的编译校验（缺少 action、没有条件、正则非法）与包含 / 排除语义
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class ProcessFilterTest {
+
+    @Test
+    void rejectsRuleWithoutAction() {
+        ProcessRule rule = ProcessRule.builder().name("无动作").mainClass("jps").build();
+        assertThrows(IllegalArgumentException.class, () -> ProcessFilter.compile(List.of(rule)));
+    }
+
+    @Test
+    void rejectsRuleWithoutConditions() {
+        ProcessRule rule = ProcessRule.builder().name("无条件").action(ProcessRule.Action.EXCLUDE).build();
+        assertThrows(IllegalArgumentException.class, () -> ProcessFilter.compile(List.of(rule)));
+        ProcessRule invalid = ProcessRule.builder().name("坏正则").action(ProcessRule.Action.EXCLUDE)
+                .mainClass("(").build();
+        assertThrows(IllegalArgumentException.class, () -> ProcessFilter.compile(List.of(invalid)));
+    }
+
+    @Test
+    void excludesWinOverIncludes() {
+        ProcessFilter filter = ProcessFilter.compile(List.of(
+                ProcessRule.builder().name("只看 Java").action(ProcessRule.Action.INCLUDE).processType("java").build(),
+                ProcessRule.builder().name("跳过 jps").action(ProcessRule.Action.EXCLUDE).mainClass("jps").build()));
+        assertTrue(filter.test(process("Java", "org.example.App")));
+        assertFalse(filter.test(process("Java", "sun.tools.jps.Jps")));
+        assertFalse(filter.test(process("Native", null)));
+    }
+
+    private static ProcessInfo process(String type, String mainClass) {
+        return ProcessInfo.builder().name("p").pid(1).processType(type).mainClass(mainClass).build();
+    }
+}
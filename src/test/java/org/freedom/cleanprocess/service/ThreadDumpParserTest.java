@@ -0,0 +1,61 @@
+package org.freedom.cleanprocess.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @description: 线程转储解析：jcmd Thread.print 的真实输出（含死锁报告）只解析出真正的线程
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class ThreadDumpParserTest {
+
+    @Test
+    void deadlockReportDoesNotAddThreads() throws IOException {
+        List<ThreadDump.ThreadEntry> threads;
+        try (InputStream in = getClass().getResourceAsStream("thread-dump-deadlock.txt");
+             BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            threads = new ThreadDumpParser().parse(reader);
+        }
+        assertEquals(List.of("main", "worker-a", "worker-b", "VM Thread", "VM Periodic Task Thread"),
+                threads.stream().map(ThreadDump.ThreadEntry::getName).toList());
+
+        ThreadDump.ThreadEntry workerA = threads.get(1);
+        assertEquals(12, workerA.getId());
+        assertEquals(0x2ff8, workerA.getNid());
+        assertEquals("BLOCKED", workerA.getState());
+        assertEquals(190_000, workerA.getCpuNanos());
+        assertArrayEquals(new String[]{
+                "Dead.lambda$main$0(Dead.java:4)",
+                "Dead$$Lambda$1/0x00007f5985000a08.run(Unknown Source)",
+                "java.lang.Thread.run(java.base@17.0.9/Thread.java:840)"}, workerA.getFrames());
+
+        ThreadDump.ThreadEntry vmThread = threads.get(3);
+        assertEquals(-1, vmThread.getId());
+        assertEquals("runnable", vmThread.getState());
+        assertEquals(0, vmThread.getFrames().length);
+    }
+
+    @Test
+    void quotedLinesWithoutNidAreNotThreads() throws IOException {
+        String dump = "\"worker\" #5 prio=5 os_prio=0 cpu=1.00ms tid=0x1 nid=0x10 runnable\n"
+                + "   java.lang.Thread.State: RUNNABLE\n"
+                + "\tat A.run(A.java:1)\n"
+                + "\n"
+                + "\"worker\":\n"
+                + "\tat A.run(A.java:1)\n";
+        List<ThreadDump.ThreadEntry> threads = new ThreadDumpParser().parse(new BufferedReader(new StringReader(dump)));
+        assertEquals(1, threads.size());
+        assertEquals(1, threads.get(0).getFrames().length);
+    }
+}
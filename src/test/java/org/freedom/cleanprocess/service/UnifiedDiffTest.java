@@ -0,0 +1,80 @@
+package org.freedom.cleanprocess.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @description: unified diff 输出。期望结果取自 GNU diff -u 对相同输入的输出（去掉带时间戳的文件头），
+ * 覆盖 @@ 范围的行号、空区间、单行区间以及上下文重叠时的块合并
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class UnifiedDiffTest {
+
+    @Test
+    void writesHeaderOnlyWhenThereAreEdits() throws IOException {
+        assertEquals("", unified(List.of("1"), List.of("1")));
+        assertEquals("--- A\n+++ B\n@@ -1 +1 @@\n-x\n+y\n", unified(List.of("x"), List.of("y")));
+    }
+
+    @Test
+    void replaceInTheMiddle() throws IOException {
+        assertEquals("@@ -2,7 +2,7 @@\n 2\n 3\n 4\n-5\n+X\n 6\n 7\n 8\n",
+                hunks(lines(1, 10), List.of("1", "2", "3", "4", "X", "6", "7", "8", "9", "10")));
+    }
+
+    @Test
+    void mergesHunksWhoseContextTouches() throws IOException {
+        List<String> b = List.of("1", "X", "3", "4", "5", "6", "7", "8", "Y", "10",
+                "11", "12", "13", "14", "15", "16", "Z", "18", "19", "20");
+        // 2 与 9 之间隔 6 行，上下文相接合并为一块；9 与 17 之间隔 7 行，分成两块
+        assertEquals("@@ -1,12 +1,12 @@\n 1\n-2\n+X\n 3\n 4\n 5\n 6\n 7\n 8\n-9\n+Y\n 10\n 11\n 12\n"
+                        + "@@ -14,7 +14,7 @@\n 14\n 15\n 16\n-17\n+Z\n 18\n 19\n 20\n",
+                hunks(lines(1, 20), b));
+    }
+
+    @Test
+    void emptyRangesUseThePrecedingLine() throws IOException {
+        assertEquals("@@ -0,0 +1,2 @@\n+a\n+b\n", hunks(List.of(), List.of("a", "b")));
+        assertEquals("@@ -1,3 +0,0 @@\n-1\n-2\n-3\n", hunks(lines(1, 3), List.of()));
+    }
+
+    @Test
+    void insertAtStartAndDeleteAtEnd() throws IOException {
+        assertEquals("@@ -1,3 +1,4 @@\n+0\n 1\n 2\n 3\n", hunks(lines(1, 6), lines(0, 6)));
+        assertEquals("@@ -2,5 +2,3 @@\n 2\n 3\n 4\n-5\n-6\n", hunks(lines(1, 6), lines(1, 4)));
+    }
+
+    @Test
+    void deleteInTheMiddle() throws IOException {
+        assertEquals("@@ -1,7 +1,6 @@\n 1\n 2\n 3\n-4\n 5\n 6\n 7\n",
+                hunks(lines(1, 8), List.of("1", "2", "3", "5", "6", "7", "8")));
+    }
+
+    private static String hunks(List<String> a, List<String> b) throws IOException {
+        String text = unified(a, b);
+        return text.substring(text.indexOf("@@"));
+    }
+
+    private static String unified(List<String> a, List<String> b) throws IOException {
+        int[][] ids = LineDiff.intern(a, b, LineDiff.normalizer(false, false));
+        StringBuilder out = new StringBuilder();
+        UnifiedDiff.write("A", "B", a, b, LineDiff.diff(ids[0], ids[1]), UnifiedDiff.DEFAULT_CONTEXT, out);
+        return out.toString();
+    }
+
+    /**
+     * 内容为 from..to 的行
+     */
+    private static List<String> lines(int from, int to) {
+        String[] lines = new String[to - from + 1];
+        for (int i = 0; i < lines.length; i++) {
+            lines[i] = String.valueOf(from + i);
+        }
+        return List.of(lines);
+    }
+}
@@ -0,0 +1,106 @@
+package org.freedom.cleanprocess.service;
+
+import org.freedom.cleanprocess.entiy.ProcessInfo;
+import org.freedom.cleanprocess.entiy.WatchdogPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @description: 看门狗策略的计时、触发、回差解除，以及结束进程策略对非 Java 进程和本进程的跳过
+ * @author: freedom
+ * @date: 2026/10/18
+ */
+class WatchdogEngineTest {
+    private final WatchdogEngine engine = new WatchdogEngine();
+    private final List<WatchdogEngine.WatchdogEvent> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        engine.addListener(events::add);
+    }
+
+    @Test
+    void firesOnceAfterDurationAndRearmsBelowClearLevel() {
+        engine.setPolicies(List.of(cpuPolicy(WatchdogPolicy.Action.TERMINATE)));
+        // 超限开始计时，未满 10 秒不触发
+        engine.evaluate(List.of(java(100, 95)), 0);
+        engine.evaluate(List.of(java(100, 95)), 9_000);
+        assertEquals(0, events.size());
+        engine.evaluate(List.of(java(100, 95)), 10_000);
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).shouldTerminate());
+        assertEquals(10_000, events.get(0).getBreachMillis());
+        // 已触发：回落到阈值与解除阈值（90 * 0.9 = 81）之间不解除，继续超限也不重复触发
+        engine.evaluate(List.of(java(100, 85)), 11_000);
+        engine.evaluate(List.of(java(100, 95)), 30_000);
+        assertEquals(1, events.size());
+        // 低于解除阈值后重新计时
+        engine.evaluate(List.of(java(100, 80)), 31_000);
+        engine.evaluate(List.of(java(100, 95)), 32_000);
+        engine.evaluate(List.of(java(100, 95)), 41_000);
+        assertEquals(1, events.size());
+        engine.evaluate(List.of(java(100, 95)), 42_000);
+        assertEquals(2, events.size());
+    }
+
+    @Test
+    void dropBelowThresholdResetsTheTimer() {
+        engine.setPolicies(List.of(cpuPolicy(WatchdogPolicy.Action.NOTIFY)));
+        engine.evaluate(List.of(java(100, 95)), 0);
+        engine.evaluate(List.of(java(100, 50)), 5_000);
+        engine.evaluate(List.of(java(100, 95)), 6_000);
+        engine.evaluate(List.of(java(100, 95)), 15_000);
+        assertEquals(0, events.size());
+        engine.evaluate(List.of(java(100, 95)), 16_000);
+        assertEquals(1, events.size());
+    }
+
+    @Test
+    void newProcessWithReusedPidStartsFresh() {
+        engine.setPolicies(List.of(cpuPolicy(WatchdogPolicy.Action.NOTIFY)));
+        engine.evaluate(List.of(java(100, 95)), 0);
+        ProcessInfo reused = java(100, 95);
+        reused.setStartTime(2);
+        engine.evaluate(List.of(reused), 10_000);
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    void terminatePoliciesSkipNonJavaAndSelf() {
+        engine.setPolicies(List.of(cpuPolicy(WatchdogPolicy.Action.TERMINATE)));
+        ProcessInfo nativeProcess = process(200, 99, "Native");
+        ProcessInfo self = java(ProcessHandle.current().pid(), 99);
+        engine.evaluate(List.of(nativeProcess, self), 0);
+        engine.evaluate(List.of(nativeProcess, self), 60_000);
+        assertEquals(0, events.size());
+    }
+
+    @Test
+    void notifyPoliciesStillWatchNonJava() {
+        engine.setPolicies(List.of(cpuPolicy(WatchdogPolicy.Action.NOTIFY)));
+        ProcessInfo nativeProcess = process(200, 99, "Native");
+        engine.evaluate(List.of(nativeProcess), 0);
+        engine.evaluate(List.of(nativeProcess), 10_000);
+        assertEquals(1, events.size());
+        assertEquals(200, events.get(0).getProcessInfo().getPid());
+    }
+
+    private static WatchdogPolicy cpuPolicy(WatchdogPolicy.Action action) {
+        return WatchdogPolicy.builder().name("cpu").metric(WatchdogPolicy.Metric.CPU).threshold(90)
+                .durationSeconds(10).hysteresisPercent(10).action(action).build();
+    }
+
+    private static ProcessInfo java(long pid, double cpu) {
+        return process(pid, cpu, "Java");
+    }
+
+    private static ProcessInfo process(long pid, double cpu, String type) {
+        return ProcessInfo.builder().name("p" + pid).pid(pid).startTime(1).processType(type).cpu(cpu).build();
+    }
+}